@@ -0,0 +1,113 @@
+package inc.evil.serde.processor;
+
+import inc.evil.serde.GenerateSerde;
+import inc.evil.serde.SerializerDeserializer;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a {@link inc.evil.serde.core.CompiledObjectSerde} for every class marked with {@link GenerateSerde} and
+ * lists the generated serdes in {@code META-INF/services/inc.evil.serde.SerializerDeserializer}, which is where
+ * {@link inc.evil.serde.SerdeFactory} loads them from.
+ */
+@SupportedAnnotationTypes("inc.evil.serde.GenerateSerde")
+public class SerdeProcessor extends AbstractProcessor {
+    private static final String SERVICE_FILE = "META-INF/services/" + SerializerDeserializer.class.getName();
+
+    private final Set<String> generatedSerdes = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!generatedSerdes.isEmpty()) {
+                writeServiceFile();
+            }
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateSerde.class)) {
+            if (isSupported(element)) {
+                generateSerdeFor((TypeElement) element);
+            }
+        }
+        return true;
+    }
+
+    private boolean isSupported(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return error(element, "@GenerateSerde can be placed only on classes");
+        } else if (element.getModifiers().contains(Modifier.ABSTRACT)) {
+            return error(element, "@GenerateSerde can't be placed on abstract classes");
+        }
+        for (Element current = element; current.getKind().isClass(); current = current.getEnclosingElement()) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return error(element, "@GenerateSerde classes and their enclosing classes can't be private");
+            } else if (current.getEnclosingElement().getKind().isClass() && !current.getModifiers().contains(Modifier.STATIC)) {
+                return error(element, "@GenerateSerde can't be placed on inner classes, make the class static");
+            }
+        }
+        return true;
+    }
+
+    private void generateSerdeFor(TypeElement type) {
+        try {
+            generatedSerdes.add(new SerdeSourceWriter(processingEnv, type).write());
+        } catch (IOException e) {
+            error(type, "Could not generate the serde of " + type.getQualifiedName() + ": " + e.getMessage());
+        }
+    }
+
+    private void writeServiceFile() {
+        Set<String> serdes = new TreeSet<>(generatedSerdes);
+        serdes.addAll(readServiceFile());
+        try {
+            FileObject serviceFile = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = new OutputStreamWriter(serviceFile.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String serde : serdes) {
+                    writer.write(serde);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + SERVICE_FILE + ": " + e.getMessage());
+        }
+    }
+
+    private Set<String> readServiceFile() {
+        Set<String> serdes = new TreeSet<>();
+        try {
+            FileObject serviceFile = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(serviceFile.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        serdes.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // nothing was generated by a previous compilation
+        }
+        return serdes;
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+}
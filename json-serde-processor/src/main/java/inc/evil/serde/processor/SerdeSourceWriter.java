@@ -0,0 +1,265 @@
+package inc.evil.serde.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * Writes the source of the serde of one class. Fields are laid out exactly like {@code ObjectSerde} lays them out:
+ * the fields of the class first and then the ones of its superclasses, each in declaration order, qualified with the
+ * binary name of their declaring class when a field name appears more than once in the hierarchy.
+ */
+class SerdeSourceWriter {
+    private static final String BASE_CLASS = "inc.evil.serde.core.CompiledObjectSerde";
+    private static final Map<TypeKind, String> PRIMITIVE_READERS = new EnumMap<>(TypeKind.class);
+    private static final Set<String> BOXED_NUMBERS = new HashSet<>(Arrays.asList(
+            "java.lang.Byte", "java.lang.Short", "java.lang.Character", "java.lang.Integer",
+            "java.lang.Long", "java.lang.Float", "java.lang.Double"
+    ));
+
+    static {
+        PRIMITIVE_READERS.put(TypeKind.BYTE, "readByte");
+        PRIMITIVE_READERS.put(TypeKind.SHORT, "readShort");
+        PRIMITIVE_READERS.put(TypeKind.CHAR, "readChar");
+        PRIMITIVE_READERS.put(TypeKind.INT, "readInt");
+        PRIMITIVE_READERS.put(TypeKind.LONG, "readLong");
+        PRIMITIVE_READERS.put(TypeKind.FLOAT, "readFloat");
+        PRIMITIVE_READERS.put(TypeKind.DOUBLE, "readDouble");
+        PRIMITIVE_READERS.put(TypeKind.BOOLEAN, "readBoolean");
+    }
+
+    private final ProcessingEnvironment processingEnv;
+    private final Elements elements;
+    private final Types types;
+    private final TypeElement type;
+    private final PackageElement typePackage;
+    private final List<SerializedField> fields = new ArrayList<>();
+
+    SerdeSourceWriter(ProcessingEnvironment processingEnv, TypeElement type) {
+        this.processingEnv = processingEnv;
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.type = type;
+        this.typePackage = elements.getPackageOf(type);
+        collectFields();
+    }
+
+    /**
+     * Writes the serde and returns its binary name.
+     */
+    String write() throws IOException {
+        String packageName = typePackage.getQualifiedName().toString();
+        String binaryName = elements.getBinaryName(type).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + "_Serde";
+        String serdeName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(serdeName, type);
+        try (PrintWriter out = new PrintWriter(sourceFile.openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            writeClass(out, simpleName);
+        }
+        return serdeName;
+    }
+
+    private void writeClass(PrintWriter out, String simpleName) {
+        String typeName = sourceName(type.asType());
+        out.println("// Generated by json-serde-processor from " + type.getQualifiedName() + ", do not edit");
+        out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        out.println("public final class " + simpleName + " extends " + BASE_CLASS + "<" + typeName + "> {");
+        for (int i = 0; i < fields.size(); ++i) {
+            SerializedField field = fields.get(i);
+            out.println("    private static final com.fasterxml.jackson.core.SerializableString NAME_" + i +
+                    " = new com.fasterxml.jackson.core.io.SerializedString(\"" + field.jsonName + "\");");
+            if (!field.accessibleDirectly) {
+                out.println("    private final " + BASE_CLASS + ".FieldHandle field" + i + " = field(\"" +
+                        elements.getBinaryName((TypeElement) field.element.getEnclosingElement()) + "\", \"" +
+                        field.element.getSimpleName() + "\");");
+            }
+        }
+        out.println();
+        out.println("    public " + simpleName + "() {");
+        out.println("        super(" + typeName + ".class);");
+        out.println("    }");
+        if (hasAccessibleNoArgConstructor()) {
+            out.println();
+            out.println("    @Override");
+            out.println("    protected " + typeName + " newInstance() {");
+            out.println("        return new " + typeName + "();");
+            out.println("    }");
+        }
+        out.println();
+        out.println("    @Override");
+        out.println("    protected void writeFields(" + typeName + " instance, com.fasterxml.jackson.core.JsonGenerator generator, " +
+                "inc.evil.serde.SerdeContext serdeContext) throws java.io.IOException {");
+        for (int i = 0; i < fields.size(); ++i) {
+            out.println("        generator.writeFieldName(NAME_" + i + ");");
+            out.println("        " + writeStatement(fields.get(i), i));
+        }
+        out.println("    }");
+        out.println();
+        out.println("    @Override");
+        out.println("    protected boolean readField(" + typeName + " instance, String fieldName, com.fasterxml.jackson.core.JsonParser parser, " +
+                "inc.evil.serde.SerdeContext serdeContext) throws Exception {");
+        out.println("        switch (fieldName) {");
+        for (int i = 0; i < fields.size(); ++i) {
+            out.println("            case \"" + fields.get(i).jsonName + "\":");
+            out.println("                " + readStatement(fields.get(i), i));
+            out.println("                return true;");
+        }
+        out.println("            default:");
+        out.println("                return false;");
+        out.println("        }");
+        out.println("    }");
+        out.println("}");
+    }
+
+    private String writeStatement(SerializedField field, int index) {
+        if (!field.accessibleDirectly) {
+            return "field" + index + ".serialize(instance, generator, serdeContext);";
+        }
+        String value = fieldAccess(field);
+        TypeMirror fieldType = field.element.asType();
+        switch (fieldType.getKind()) {
+            case BYTE:
+            case SHORT:
+            case CHAR:
+                return "generator.writeNumber((int) " + value + ");";
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return "generator.writeNumber(" + value + ");";
+            case BOOLEAN:
+                return "generator.writeBoolean(" + value + ");";
+            default:
+                String typeName = sourceName(fieldType);
+                if (typeName.equals("java.lang.String")) {
+                    return "writeString(generator, serdeContext, " + value + ");";
+                } else if (BOXED_NUMBERS.contains(typeName)) {
+                    return "writeNumber(generator, serdeContext, " + value + ");";
+                } else if (typeName.equals("java.lang.Boolean")) {
+                    return "writeBoolean(generator, serdeContext, " + value + ");";
+                }
+                return "serdeContext.serializeDeclaredValue(" + value + ", " + typeName + ".class, generator);";
+        }
+    }
+
+    private String readStatement(SerializedField field, int index) {
+        if (!field.accessibleDirectly) {
+            return "field" + index + ".deserialize(instance, parser, serdeContext);";
+        }
+        TypeMirror fieldType = field.element.asType();
+        String reader = PRIMITIVE_READERS.get(fieldType.getKind());
+        if (reader != null) {
+            return fieldAccess(field) + " = " + reader + "(parser, serdeContext);";
+        } else if (sourceName(fieldType).equals("java.lang.String")) {
+            return fieldAccess(field) + " = readString(parser, serdeContext);";
+        }
+        return fieldAccess(field) + " = readValue(parser, serdeContext, " + sourceName(fieldType) + ".class);";
+    }
+
+    private String fieldAccess(SerializedField field) {
+        Element declaringClass = field.element.getEnclosingElement();
+        String instance = declaringClass.equals(type) ? "instance" : "((" + sourceName(declaringClass.asType()) + ") instance)";
+        return instance + "." + field.element.getSimpleName();
+    }
+
+    private String sourceName(TypeMirror typeMirror) {
+        return types.erasure(typeMirror).toString();
+    }
+
+    private void collectFields() {
+        Set<String> fieldNames = new HashSet<>();
+        boolean shouldQualifyFieldNames = false;
+        List<VariableElement> serializableFields = new ArrayList<>();
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                shouldQualifyFieldNames |= !fieldNames.add(field.getSimpleName().toString());
+                if (!field.getModifiers().contains(Modifier.STATIC)) {
+                    serializableFields.add(field);
+                }
+            }
+        }
+        for (VariableElement field : serializableFields) {
+            String jsonName = shouldQualifyFieldNames ?
+                    elements.getBinaryName((TypeElement) field.getEnclosingElement()) + "." + field.getSimpleName() :
+                    field.getSimpleName().toString();
+            fields.add(new SerializedField(field, jsonName, isAccessibleDirectly(field)));
+        }
+    }
+
+    private TypeElement superclassOf(TypeElement typeElement) {
+        TypeMirror superclass = typeElement.getSuperclass();
+        return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+    }
+
+    private boolean isAccessibleDirectly(VariableElement field) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+            return false;
+        }
+        boolean isPublic = modifiers.contains(Modifier.PUBLIC);
+        return (isPublic || isInTypePackage(field)) &&
+               isAccessible((TypeElement) field.getEnclosingElement()) &&
+               isAccessible(field.asType());
+    }
+
+    private boolean isAccessible(TypeMirror typeMirror) {
+        if (typeMirror.getKind().isPrimitive()) {
+            return true;
+        } else if (typeMirror.getKind() == TypeKind.ARRAY) {
+            return isAccessible(((ArrayType) typeMirror).getComponentType());
+        } else if (typeMirror.getKind() == TypeKind.DECLARED) {
+            return isAccessible((TypeElement) ((DeclaredType) typeMirror).asElement());
+        }
+        return false;
+    }
+
+    private boolean isAccessible(TypeElement typeElement) {
+        for (Element current = typeElement; current.getKind().isClass() || current.getKind().isInterface();
+             current = current.getEnclosingElement()) {
+            Set<Modifier> modifiers = current.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || (!modifiers.contains(Modifier.PUBLIC) && !isInTypePackage(current))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isInTypePackage(Element element) {
+        return elements.getPackageOf(element).equals(typePackage);
+    }
+
+    private boolean hasAccessibleNoArgConstructor() {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty()) {
+                return !constructor.getModifiers().contains(Modifier.PRIVATE);
+            }
+        }
+        return false;
+    }
+
+    private static final class SerializedField {
+        private final VariableElement element;
+        private final String jsonName;
+        private final boolean accessibleDirectly;
+
+        private SerializedField(VariableElement element, String jsonName, boolean accessibleDirectly) {
+            this.element = element;
+            this.jsonName = jsonName;
+            this.accessibleDirectly = accessibleDirectly;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package inc.evil.serde;
+
+import inc.evil.serde.core.*;
+import inc.evil.serde.metrics.SerdeMetrics;
+
+import java.util.Arrays;
+
+/**
+ * The default serdes without the ones generated at compile time, so every object goes through reflection.
+ */
+public class ReflectiveJsonSerde {
+    private final JsonSerde jsonSerde = new JsonSerde(Arrays.asList(
+            new NullSerde(),
+            new PrimitiveTypeSerde(),
+            new ArraySerde(Arrays.asList(new CommonMapSerde(), new CommonCollectionSerde(), new CollectionWrapperSerde(),
+                    new EnumSetSerde(), new EnumMapSerde(), new BitSetSerde())),
+            new CommonMapSerde(),
+            new CommonCollectionSerde(),
+            new CollectionWrapperSerde(),
+            new EnumSetSerde(),
+            new EnumMapSerde(),
+            new BitSetSerde(),
+            new StringSerde(),
+            new NumericSerde(),
+            new BooleanSerde(),
+            new ObjectSerde()
+    ));
+
+    public ReflectiveJsonSerde() {
+    }
+
+    public ReflectiveJsonSerde(SerdeMetrics metrics) {
+        jsonSerde.setMetrics(metrics);
+    }
+
+    public String serialize(Object instance) {
+        return jsonSerde.serialize(instance);
+    }
+
+    public <T> T deserialize(String json, Class<T> targetClass) {
+        return jsonSerde.deserialize(json, targetClass);
+    }
+}
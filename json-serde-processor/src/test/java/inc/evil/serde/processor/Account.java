@@ -0,0 +1,60 @@
+package inc.evil.serde.processor;
+
+import inc.evil.serde.GenerateSerde;
+
+import java.util.List;
+
+@GenerateSerde
+public class Account extends Entity {
+    public static final String CURRENCY = "EUR";
+
+    String name;
+    int balance;
+    char currency;
+    byte flags;
+    float fee;
+    boolean active;
+    private short level;
+    private final double rate;
+    Integer pin;
+    Long limit;
+    Boolean verified;
+    Character grade;
+    List<String> tags;
+    Address address;
+    Account[] linkedAccounts;
+
+    public Account() {
+        this(0.0);
+    }
+
+    public Account(double rate) {
+        this.rate = rate;
+    }
+
+    short getLevel() {
+        return level;
+    }
+
+    void setLevel(short level) {
+        this.level = level;
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    @GenerateSerde
+    static class Owner {
+        private final String name;
+        Account account;
+
+        Owner(String name) {
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+    }
+}
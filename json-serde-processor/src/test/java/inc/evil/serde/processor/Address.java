@@ -0,0 +1,14 @@
+package inc.evil.serde.processor;
+
+public class Address {
+    String city;
+    int zipCode;
+
+    public Address() {
+    }
+
+    public Address(String city, int zipCode) {
+        this.city = city;
+        this.zipCode = zipCode;
+    }
+}
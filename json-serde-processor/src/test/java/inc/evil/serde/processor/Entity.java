@@ -0,0 +1,14 @@
+package inc.evil.serde.processor;
+
+public class Entity {
+    long id;
+    private String name;
+
+    String getEntityName() {
+        return name;
+    }
+
+    void setEntityName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,142 @@
+package inc.evil.serde.processor;
+
+import inc.evil.serde.JsonMapper;
+import inc.evil.serde.ReflectiveJsonSerde;
+import inc.evil.serde.SerdeFeature;
+import inc.evil.serde.SerializerDeserializer;
+import inc.evil.serde.metrics.InMemorySerdeMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerdeProcessorTest {
+    private final JsonMapper jsonMapper = new JsonMapper();
+    private final ReflectiveJsonSerde reflectiveSerde = new ReflectiveJsonSerde();
+
+    @Test
+    public void shouldRegisterGeneratedSerdes() {
+        List<Class<?>> serdeClasses = new ArrayList<>();
+        for (SerializerDeserializer serde : ServiceLoader.load(SerializerDeserializer.class)) {
+            serdeClasses.add(serde.getClass());
+        }
+
+        assertTrue(serdeClasses.contains(Account_Serde.class));
+        assertTrue(serdeClasses.contains(Account_Owner_Serde.class));
+        assertTrue(new Account_Serde().canConsume(Account.class));
+        assertFalse(new Account_Serde().canConsume(Entity.class));
+    }
+
+    @Test
+    public void shouldProduceTheSameJsonAsReflectiveSerialization() {
+        Account.Owner owner = makeOwner();
+
+        assertEquals(reflectiveSerde.serialize(owner), jsonMapper.serialize(owner));
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeAndDeserialize() {
+        Account.Owner owner = makeOwner();
+
+        Account.Owner actualInstance = jsonMapper.deserialize(jsonMapper.serialize(owner), Account.Owner.class);
+
+        assertOwnersAreEqual(owner, actualInstance);
+        assertSame(actualInstance.account, actualInstance.account.linkedAccounts[0]);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeJsonProducedByReflectiveSerialization() {
+        Account.Owner owner = makeOwner();
+
+        Account.Owner actualInstance = jsonMapper.deserialize(reflectiveSerde.serialize(owner), Account.Owner.class);
+
+        assertOwnersAreEqual(owner, actualInstance);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeGeneratedJsonReflectively() {
+        Account.Owner owner = makeOwner();
+
+        Account.Owner actualInstance = reflectiveSerde.deserialize(jsonMapper.serialize(owner), Account.Owner.class);
+
+        assertOwnersAreEqual(owner, actualInstance);
+    }
+
+    @Test
+    public void shouldBeAbleToOmitDeclaredTypes() {
+        Set<SerdeFeature> features = EnumSet.of(SerdeFeature.OMIT_DECLARED_TYPES);
+        Account.Owner owner = makeOwner();
+
+        String json = jsonMapper.serialize(owner, features);
+        Account.Owner actualInstance = jsonMapper.deserialize(json, Account.Owner.class, features);
+
+        assertTrue(json.length() < jsonMapper.serialize(owner).length());
+        assertOwnersAreEqual(owner, actualInstance);
+        assertSame(actualInstance.account, actualInstance.account.linkedAccounts[0]);
+    }
+
+    @Test
+    public void shouldCountTheSameValuesAsReflectiveSerialization() {
+        InMemorySerdeMetrics reflectiveMetrics = new InMemorySerdeMetrics();
+        InMemorySerdeMetrics compiledMetrics = new InMemorySerdeMetrics();
+        Account.Owner owner = makeOwner();
+
+        new ReflectiveJsonSerde(reflectiveMetrics).serialize(owner);
+        new JsonMapper(compiledMetrics).serialize(owner);
+
+        assertEquals(reflectiveMetrics.getValuesWritten(), compiledMetrics.getValuesWritten());
+        for (Class<?> type : Arrays.asList(Account.Owner.class, Account.class, String.class, Integer.class, Boolean.class, Character.class)) {
+            assertTrue(reflectiveMetrics.getClassMetrics(type).getValuesWritten() > 0);
+            assertEquals(reflectiveMetrics.getClassMetrics(type).getValuesWritten(), compiledMetrics.getClassMetrics(type).getValuesWritten());
+        }
+    }
+
+    private Account.Owner makeOwner() {
+        Account account = new Account(0.25);
+        account.id = 42;
+        account.setEntityName("savings");
+        account.name = "Mike's savings";
+        account.balance = -1500;
+        account.currency = '€';
+        account.flags = (byte) 0x7f;
+        account.fee = 1.5f;
+        account.active = true;
+        account.setLevel((short) 3);
+        account.pin = 1234;
+        account.limit = null;
+        account.verified = Boolean.TRUE;
+        account.grade = 'A';
+        account.tags = new ArrayList<>(Arrays.asList("personal", "eur"));
+        account.address = new Address("Chisinau", 2001);
+        account.linkedAccounts = new Account[]{account};
+        Account.Owner owner = new Account.Owner("Mike");
+        owner.account = account;
+        return owner;
+    }
+
+    private static void assertOwnersAreEqual(Account.Owner expected, Account.Owner actual) {
+        assertEquals(expected.getName(), actual.getName());
+        Account expectedAccount = expected.account;
+        Account actualAccount = actual.account;
+        assertEquals(expectedAccount.id, actualAccount.id);
+        assertEquals(expectedAccount.getEntityName(), actualAccount.getEntityName());
+        assertEquals(expectedAccount.name, actualAccount.name);
+        assertEquals(expectedAccount.balance, actualAccount.balance);
+        assertEquals(expectedAccount.currency, actualAccount.currency);
+        assertEquals(expectedAccount.flags, actualAccount.flags);
+        assertEquals(expectedAccount.fee, actualAccount.fee);
+        assertEquals(expectedAccount.active, actualAccount.active);
+        assertEquals(expectedAccount.getLevel(), actualAccount.getLevel());
+        assertEquals(expectedAccount.getRate(), actualAccount.getRate());
+        assertEquals(expectedAccount.pin, actualAccount.pin);
+        assertEquals(expectedAccount.limit, actualAccount.limit);
+        assertEquals(expectedAccount.verified, actualAccount.verified);
+        assertEquals(expectedAccount.grade, actualAccount.grade);
+        assertEquals(expectedAccount.tags, actualAccount.tags);
+        assertEquals(expectedAccount.address.city, actualAccount.address.city);
+        assertEquals(expectedAccount.address.zipCode, actualAccount.address.zipCode);
+        assertEquals(1, actualAccount.linkedAccounts.length);
+    }
+}
@@ -0,0 +1,49 @@
+package inc.evil.serde.benchmark;
+
+import inc.evil.serde.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserializes a singly linked chain of objects of increasing depth. The cost per level should stay flat,
+ * so the score is expected to grow linearly with {@code depth}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeepGraphDeserializationBenchmark {
+
+    @Param({"16", "128", "1024"})
+    private int depth;
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+    private String json;
+
+    @Setup
+    public void setUp() {
+        Link head = null;
+        for (int i = depth; i > 0; --i) {
+            head = new Link(i, head);
+        }
+        json = jsonMapper.serialize(head);
+    }
+
+    @Benchmark
+    public Link deserializeChain() {
+        return jsonMapper.deserialize(json, Link.class);
+    }
+
+    public static class Link {
+        private final int index;
+        private final Link next;
+
+        public Link(int index, Link next) {
+            this.index = index;
+            this.next = next;
+        }
+    }
+}
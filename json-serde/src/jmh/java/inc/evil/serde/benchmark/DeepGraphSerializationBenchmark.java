@@ -0,0 +1,98 @@
+package inc.evil.serde.benchmark;
+
+import inc.evil.serde.JsonMapper;
+import inc.evil.serde.SerdeFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a singly linked chain of objects of increasing depth, the counterpart of
+ * {@link DeepGraphDeserializationBenchmark}. The chains deeper than the recursion limit of the {@code JsonSerde} are
+ * walked with an explicit stack, whose cost per link should stay close to that of the recursive walk.
+ * <p>
+ * A shallow but wide tree, made of objects and lists like most payloads, is serialized on its own, which is always
+ * written by recursion, and hung below a chain of the same depth, which is written from the explicit stack once the
+ * chain is deeper than the recursion limit. Both are written without indentation, which would otherwise grow with the
+ * depth of the chain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeepGraphSerializationBenchmark {
+    private static final int TREE_WIDTH = 4;
+    private static final int TREE_HEIGHT = 4;
+    private static final Set<SerdeFeature> COMPACT = EnumSet.of(SerdeFeature.COMPACT_OUTPUT);
+
+    @Param({"16", "128", "1024"})
+    private int depth;
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+    private Link head;
+    private Tree shallowTree;
+    private Tree shallowTreeBelowChain;
+
+    @Setup
+    public void setUp() {
+        for (int i = depth; i > 0; --i) {
+            head = new Link(i, head);
+        }
+        shallowTree = makeTree(TREE_HEIGHT);
+        shallowTreeBelowChain = shallowTree;
+        for (int i = depth; i > 0; --i) {
+            List<Tree> kids = new ArrayList<>();
+            kids.add(shallowTreeBelowChain);
+            shallowTreeBelowChain = new Tree(-i, kids);
+        }
+    }
+
+    private static Tree makeTree(int height) {
+        List<Tree> kids = new ArrayList<>();
+        for (int i = 0; height > 1 && i < TREE_WIDTH; ++i) {
+            kids.add(makeTree(height - 1));
+        }
+        return new Tree(height, kids);
+    }
+
+    @Benchmark
+    public String serializeChain() {
+        return jsonMapper.serialize(head);
+    }
+
+    @Benchmark
+    public String serializeShallowTree() {
+        return jsonMapper.serialize(shallowTree, COMPACT);
+    }
+
+    @Benchmark
+    public String serializeShallowTreeBelowChain() {
+        return jsonMapper.serialize(shallowTreeBelowChain, COMPACT);
+    }
+
+    public static class Link {
+        private final int index;
+        private final Link next;
+
+        public Link(int index, Link next) {
+            this.index = index;
+            this.next = next;
+        }
+    }
+
+    public static class Tree {
+        private final int index;
+        private final List<Tree> kids;
+
+        public Tree(int index, List<Tree> kids) {
+            this.index = index;
+            this.kids = kids;
+        }
+    }
+}
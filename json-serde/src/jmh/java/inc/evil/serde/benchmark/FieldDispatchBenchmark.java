@@ -0,0 +1,130 @@
+package inc.evil.serde.benchmark;
+
+import inc.evil.serde.JsonMapper;
+import inc.evil.serde.SerializerDeserializer;
+import inc.evil.serde.core.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * (De)serializes an object whose fields are of the kinds handled by different serdes, so the score is dominated
+ * by finding the serde of every field value. Divide the score by the 16 fields to get the per-field cost.
+ * {@code serdeScannedPerValue} is the dispatch as it was before the per-class cache, asking every serde in turn
+ * whether it can consume the class of each of those values, and {@code serdeCachedPerClass} the cached dispatch
+ * applied to the same values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldDispatchBenchmark {
+    private final JsonMapper jsonMapper = new JsonMapper();
+    private Mixed instance;
+    private String json;
+
+    private final List<SerializerDeserializer> serdes = Arrays.asList(
+            new NullSerde(),
+            new PrimitiveTypeSerde(),
+            new ArraySerde(Arrays.asList(new CommonMapSerde(), new CommonCollectionSerde())),
+            new CommonMapSerde(),
+            new CommonCollectionSerde(),
+            new CommonDateSerde(),
+            new ClassSerde(),
+            new AtomicNumbersSerde(),
+            new BigNumbersSerde(),
+            new EnumSerde(),
+            new StringSerde(),
+            new NumericSerde(),
+            new BooleanSerde(),
+            new ObjectSerde()
+    );
+    private final ClassValue<SerializerDeserializer> cachedSerdes = new ClassValue<SerializerDeserializer>() {
+        @Override
+        protected SerializerDeserializer computeValue(Class<?> type) {
+            return scanSerdes(type);
+        }
+    };
+    private Class<?>[] fieldValueTypes;
+
+    @Setup
+    public void setUp() throws IllegalAccessException {
+        instance = new Mixed();
+        json = jsonMapper.serialize(instance);
+        Field[] fields = Mixed.class.getDeclaredFields();
+        fieldValueTypes = new Class<?>[fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            fields[i].setAccessible(true);
+            fieldValueTypes[i] = fields[i].get(instance).getClass();
+        }
+    }
+
+    @Benchmark
+    public SerializerDeserializer serdeScannedPerValue() {
+        SerializerDeserializer serde = null;
+        for (Class<?> type : fieldValueTypes) {
+            serde = scanSerdes(type);
+        }
+        return serde;
+    }
+
+    @Benchmark
+    public SerializerDeserializer serdeCachedPerClass() {
+        SerializerDeserializer serde = null;
+        for (Class<?> type : fieldValueTypes) {
+            serde = cachedSerdes.get(type);
+        }
+        return serde;
+    }
+
+    private SerializerDeserializer scanSerdes(Class<?> type) {
+        for (SerializerDeserializer serde : serdes) {
+            if (serde.canConsume(type)) {
+                return serde;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public String serializeFields() {
+        return jsonMapper.serialize(instance);
+    }
+
+    @Benchmark
+    public Mixed deserializeFields() {
+        return jsonMapper.deserialize(json, Mixed.class);
+    }
+
+    public enum Level {
+        LOW, HIGH
+    }
+
+    public static class Mixed {
+        private int count = 42;
+        private long total = 1_000_000_000_000L;
+        private double ratio = 0.75;
+        private boolean active = true;
+        private Integer boxedCount = 7;
+        private Long boxedTotal = 9L;
+        private Double boxedRatio = 0.5;
+        private Boolean boxedActive = Boolean.FALSE;
+        private Character initial = 'M';
+        private String name = "Mike";
+        private Class<?> type = Level.class;
+        private BigDecimal price = new BigDecimal("19.99");
+        private Instant created = Instant.ofEpochMilli(1_600_000_000_000L);
+        private LocalDate birthDate = LocalDate.of(1990, 1, 1);
+        private Level level = Level.HIGH;
+        private AtomicInteger version = new AtomicInteger(3);
+    }
+}
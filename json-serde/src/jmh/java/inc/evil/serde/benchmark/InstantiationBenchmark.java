@@ -0,0 +1,69 @@
+package inc.evil.serde.benchmark;
+
+import inc.evil.serde.ObjectFactory;
+import org.objenesis.ObjenesisStd;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of creating the instances of deserialized objects: looking the constructor up on every call
+ * (or creating a new Objenesis for every call) versus the instantiator cached per class by {@link ObjectFactory}.
+ * Plain {@code new} is the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstantiationBenchmark {
+    private final ObjectFactory objectFactory = new ObjectFactory();
+
+    @Benchmark
+    public Object newOperator() {
+        return new WithNoArgConstructor();
+    }
+
+    @Benchmark
+    public Object constructorLookedUpPerCall() throws Exception {
+        for (Constructor<?> constructor : WithNoArgConstructor.class.getDeclaredConstructors()) {
+            if (constructor.getParameterCount() == 0) {
+                constructor.setAccessible(true);
+                return constructor.newInstance();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    @Benchmark
+    public Object cachedConstructorHandle() {
+        return objectFactory.makeInstance(WithNoArgConstructor.class);
+    }
+
+    @Benchmark
+    public Object objenesisCreatedPerCall() {
+        return new ObjenesisStd().newInstance(WithoutNoArgConstructor.class);
+    }
+
+    @Benchmark
+    public Object cachedObjenesisInstantiator() {
+        return objectFactory.makeInstance(WithoutNoArgConstructor.class);
+    }
+
+    public static class WithNoArgConstructor {
+        private int value;
+        private String name;
+    }
+
+    public static class WithoutNoArgConstructor {
+        private final int value;
+        private final String name;
+
+        public WithoutNoArgConstructor(int value, String name) {
+            this.value = value;
+            this.name = name;
+        }
+    }
+}
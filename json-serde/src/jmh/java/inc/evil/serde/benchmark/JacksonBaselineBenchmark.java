@@ -0,0 +1,46 @@
+package inc.evil.serde.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plain Jackson data binding of the {@link Payloads} shapes it can handle (no references, no polymorphism), with the
+ * same settings as {@link PayloadBenchmark}, as the reference the serde's scores are compared against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBaselineBenchmark {
+
+    @Param({"NESTED_DTOS", "BIG_LIST", "BIG_MAP"})
+    private Payloads.Shape shape;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Object payload;
+    private String json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        payload = shape.create(size);
+        json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(payload);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(payload);
+    }
+
+    @Benchmark
+    public Object deserialize() throws JsonProcessingException {
+        return objectMapper.readValue(json, payload.getClass());
+    }
+}
@@ -0,0 +1,103 @@
+package inc.evil.serde.benchmark;
+
+import inc.evil.serde.JsonMapper;
+import inc.evil.serde.SerdeFeature;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserializes a list of {@code copies} orders, the kind of payload where the same class and field names repeat,
+ * with and without a {@link SerdeFeature#NAME_DICTIONARY name dictionary}. The difference between the two scores is
+ * the parse time saved by the shorter document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameDictionaryBenchmark {
+    private static final Set<SerdeFeature> DICTIONARY = EnumSet.of(SerdeFeature.NAME_DICTIONARY);
+
+    @Param({"10", "1000"})
+    private int copies;
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+    private String json;
+    private String jsonWithDictionary;
+
+    @Setup
+    public void setUp() {
+        Orders orders = new Orders();
+        for (int i = 0; i < copies; ++i) {
+            Customer customer = new Customer("Mike " + i, LocalDate.of(1990, 1, 1 + i % 28), Level.values()[i % 2]);
+            orders.orders.add(new Order(i, customer, new Line[]{
+                    new Line("book", 2, new BigDecimal("12.50")),
+                    new Line("pen", 10, new BigDecimal("1.20"))
+            }));
+        }
+        json = jsonMapper.serialize(orders);
+        jsonWithDictionary = jsonMapper.serialize(orders, DICTIONARY);
+    }
+
+    @Benchmark
+    public Orders deserializeWithoutDictionary() {
+        return jsonMapper.deserialize(json, Orders.class);
+    }
+
+    @Benchmark
+    public Orders deserializeWithDictionary() {
+        return jsonMapper.deserialize(jsonWithDictionary, Orders.class, DICTIONARY);
+    }
+
+    public enum Level {
+        REGULAR, PREMIUM
+    }
+
+    public static class Orders {
+        private final List<Order> orders = new ArrayList<>();
+    }
+
+    public static class Order {
+        private final long number;
+        private final Customer customer;
+        private final Line[] lines;
+
+        public Order(long number, Customer customer, Line[] lines) {
+            this.number = number;
+            this.customer = customer;
+            this.lines = lines;
+        }
+    }
+
+    public static class Customer {
+        private final String name;
+        private final LocalDate birthDate;
+        private final Level level;
+
+        public Customer(String name, LocalDate birthDate, Level level) {
+            this.name = name;
+            this.birthDate = birthDate;
+            this.level = level;
+        }
+    }
+
+    public static class Line {
+        private final String product;
+        private final int quantity;
+        private final BigDecimal price;
+
+        public Line(String product, int quantity, BigDecimal price) {
+            this.product = product;
+            this.quantity = quantity;
+            this.price = price;
+        }
+    }
+}
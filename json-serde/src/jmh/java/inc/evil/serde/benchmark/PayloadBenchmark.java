@@ -0,0 +1,46 @@
+package inc.evil.serde.benchmark;
+
+import inc.evil.serde.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serializes every payload shape of {@link Payloads} at a small and a realistic size. Throughput is reported along
+ * with the latency percentiles of the sampled calls; run with the gc profiler (the default of the benchmark profile)
+ * to get the allocation rate per operation. {@link JacksonBaselineBenchmark} runs the shapes Jackson supports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadBenchmark {
+
+    @Param
+    private Payloads.Shape shape;
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+    private Object payload;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        payload = shape.create(size);
+        json = jsonMapper.serialize(payload);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return jsonMapper.serialize(payload);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return jsonMapper.deserialize(json, Object.class);
+    }
+}
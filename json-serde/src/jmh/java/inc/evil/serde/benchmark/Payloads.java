@@ -0,0 +1,195 @@
+package inc.evil.serde.benchmark;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The payload shapes of the test suite, scaled up to {@code size} elements. The model classes have public no-arg
+ * constructors and only plain field types, so that Jackson can read them back too.
+ */
+public final class Payloads {
+
+    private Payloads() {
+    }
+
+    public enum Shape {
+        NESTED_DTOS {
+            @Override
+            public Object create(int size) {
+                Company company = new Company();
+                company.name = "Evil Inc.";
+                company.departments = new ArrayList<>();
+                for (int i = 0; i < size; i += 10) {
+                    Department department = new Department();
+                    department.name = "Department " + i;
+                    department.employees = new ArrayList<>();
+                    for (int j = i; j < Math.min(i + 10, size); ++j) {
+                        department.employees.add(employee(j));
+                    }
+                    department.head = department.employees.get(0);
+                    company.departments.add(department);
+                }
+                return company;
+            }
+        },
+        BIG_LIST {
+            @Override
+            public Object create(int size) {
+                Staff staff = new Staff();
+                staff.employees = new ArrayList<>();
+                for (int i = 0; i < size; ++i) {
+                    staff.employees.add(employee(i));
+                }
+                return staff;
+            }
+        },
+        BIG_MAP {
+            @Override
+            public Object create(int size) {
+                Directory directory = new Directory();
+                directory.employees = new HashMap<>();
+                for (int i = 0; i < size; ++i) {
+                    Employee employee = employee(i);
+                    directory.employees.put(employee.email, employee);
+                }
+                return directory;
+            }
+        },
+        OBJECT_KEY_MAPS {
+            @Override
+            public Object create(int size) {
+                Map<Address, Employee> residents = new HashMap<>();
+                for (int i = 0; i < size; ++i) {
+                    Employee employee = employee(i);
+                    residents.put(employee.address, employee);
+                }
+                return residents;
+            }
+        },
+        OBJECT_ARRAYS {
+            @Override
+            public Object create(int size) {
+                Object[] objects = new Object[size];
+                for (int i = 0; i < size; ++i) {
+                    objects[i] = i % 3 == 0 ? employee(i) : i % 3 == 1 ? address(i) : "Item " + i;
+                }
+                return objects;
+            }
+        },
+        CIRCULAR_DEPENDENCIES {
+            @Override
+            public Object create(int size) {
+                List<Partner> partners = new ArrayList<>();
+                for (int i = 0; i + 1 < size; i += 2) {
+                    Partner first = new Partner();
+                    Partner second = new Partner();
+                    first.name = "Partner " + i;
+                    first.partner = second;
+                    second.name = "Partner " + (i + 1);
+                    second.partner = first;
+                    partners.add(first);
+                    partners.add(second);
+                }
+                return partners;
+            }
+        },
+        LAMBDAS {
+            @Override
+            public Object create(int size) {
+                List<Rule> rules = new ArrayList<>();
+                for (int i = 0; i < size; ++i) {
+                    int limit = i;
+                    Rule rule = new Rule();
+                    rule.name = "Rule " + i;
+                    rule.check = value -> value < limit;
+                    rules.add(rule);
+                }
+                return rules;
+            }
+        };
+
+        public abstract Object create(int size);
+    }
+
+    private static Employee employee(int index) {
+        Employee employee = new Employee();
+        employee.name = "Employee " + index;
+        employee.email = "employee" + index + "@evil.inc";
+        employee.age = 20 + index % 40;
+        employee.salary = 1000.0 + index;
+        employee.active = index % 2 == 0;
+        employee.address = address(index);
+        return employee;
+    }
+
+    private static Address address(int index) {
+        Address address = new Address();
+        address.street = "Street " + index;
+        address.city = "Chisinau";
+        address.zipCode = 2000 + index;
+        return address;
+    }
+
+    public static class Company {
+        public String name;
+        public List<Department> departments;
+    }
+
+    public static class Department {
+        public String name;
+        public Employee head;
+        public List<Employee> employees;
+    }
+
+    public static class Staff {
+        public List<Employee> employees;
+    }
+
+    public static class Directory {
+        public Map<String, Employee> employees;
+    }
+
+    public static class Employee {
+        public String name;
+        public String email;
+        public int age;
+        public double salary;
+        public boolean active;
+        public Address address;
+    }
+
+    public static class Address {
+        public String street;
+        public String city;
+        public int zipCode;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Address)) return false;
+            Address address = (Address) o;
+            return street.equals(address.street) && city.equals(address.city) && zipCode == address.zipCode;
+        }
+
+        @Override
+        public int hashCode() {
+            return street.hashCode() * 31 + zipCode;
+        }
+    }
+
+    public static class Partner {
+        public String name;
+        public Partner partner;
+    }
+
+    public interface Check extends Serializable {
+        boolean test(int value);
+    }
+
+    public static class Rule {
+        public String name;
+        public Check check;
+    }
+}
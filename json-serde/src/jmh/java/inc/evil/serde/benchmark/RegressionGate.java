@@ -0,0 +1,124 @@
+package inc.evil.serde.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs representative scenarios of {@link PayloadBenchmark} and compares the bytes allocated per operation and the
+ * operations per second to a checked-in baseline. Exits with a non-zero status when the allocation grew, or the
+ * throughput dropped, by more than the given fraction of the baseline. With {@code update} set to {@code true} the
+ * baseline is rewritten from the measured values instead.
+ * <p>
+ * Escape analysis is turned off: whether the JIT gets to scalar replace some allocations differs from fork to fork,
+ * which made the bytes per operation of the same code jump by a third between runs.
+ * <p>
+ * Arguments: {@code <baseline file> <allocation threshold> <throughput threshold> [update]}
+ */
+public final class RegressionGate {
+    private static final String[] SHAPES = {"NESTED_DTOS", "OBJECT_KEY_MAPS", "CIRCULAR_DEPENDENCIES", "LAMBDAS"};
+    private static final String SIZE = "1000";
+    private static final String BYTES_PER_OP = ".bytesPerOp";
+    private static final String OPS_PER_SECOND = ".opsPerSecond";
+
+    private RegressionGate() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Expected: <baseline file> <allocation threshold> <throughput threshold> [update]");
+        }
+        Path baselineFile = Paths.get(args[0]);
+        double allocationThreshold = Double.parseDouble(args[1]);
+        double throughputThreshold = Double.parseDouble(args[2]);
+        boolean update = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+        SortedMap<String, Double> measured = measure();
+        if (update) {
+            writeBaseline(baselineFile, measured);
+            System.out.println("Wrote the baseline to " + baselineFile);
+            return;
+        }
+        List<String> regressions = compare(readBaseline(baselineFile), measured, allocationThreshold, throughputThreshold);
+        if (!regressions.isEmpty()) {
+            System.err.println("Performance regressed compared to " + baselineFile + ":");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("No regression compared to " + baselineFile);
+    }
+
+    private static SortedMap<String, Double> measure() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PayloadBenchmark.class.getName())
+                .param("shape", SHAPES)
+                .param("size", SIZE)
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.SECONDS)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("-XX:-DoEscapeAnalysis")
+                .build();
+        SortedMap<String, Double> measured = new TreeMap<>();
+        for (RunResult result : new Runner(options).run()) {
+            String benchmark = result.getParams().getBenchmark();
+            String scenario = benchmark.substring(benchmark.lastIndexOf('.') + 1) + "." + result.getParams().getParam("shape");
+            measured.put(scenario + BYTES_PER_OP, result.getSecondaryResults().get("gc.alloc.rate.norm").getScore());
+            measured.put(scenario + OPS_PER_SECOND, result.getPrimaryResult().getScore());
+        }
+        return measured;
+    }
+
+    private static List<String> compare(Properties baseline, Map<String, Double> measured,
+                                        double allocationThreshold, double throughputThreshold) {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : measured.entrySet()) {
+            String key = entry.getKey();
+            double value = entry.getValue();
+            String baselineValue = baseline.getProperty(key);
+            if (baselineValue == null) {
+                regressions.add(key + ": not in the baseline, rerun with -Dgate.update=true");
+                continue;
+            }
+            double expected = Double.parseDouble(baselineValue);
+            boolean regressed = key.endsWith(BYTES_PER_OP) ?
+                    value > expected * (1 + allocationThreshold) :
+                    value < expected * (1 - throughputThreshold);
+            System.out.printf("%-50s baseline %14.1f measured %14.1f%s%n", key, expected, value, regressed ? "  REGRESSED" : "");
+            if (regressed) {
+                regressions.add(String.format("%s: %.1f instead of %.1f", key, value, expected));
+            }
+        }
+        return regressions;
+    }
+
+    private static Properties readBaseline(Path baselineFile) throws IOException {
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+            baseline.load(reader);
+        }
+        return baseline;
+    }
+
+    private static void writeBaseline(Path baselineFile, SortedMap<String, Double> measured) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(baselineFile, StandardCharsets.UTF_8)) {
+            writer.write("# Written by RegressionGate on " + System.getProperty("java.vm.name") + " " +
+                         System.getProperty("java.version") + ", PayloadBenchmark with size=" + SIZE + "\n");
+            for (Map.Entry<String, Double> entry : measured.entrySet()) {
+                writer.write(String.format(Locale.ROOT, "%s=%.1f%n", entry.getKey(), entry.getValue()));
+            }
+        }
+    }
+}
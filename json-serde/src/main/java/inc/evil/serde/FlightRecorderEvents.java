@@ -0,0 +1,38 @@
+package inc.evil.serde;
+
+/**
+ * Emits the JDK Flight Recorder events of the serialization and deserialization calls. Flight Recorder has no API
+ * before Java 11, so this version records nothing; the one in {@code src/main/java11} replaces it on Java 11 and
+ * later, as a class of the multi-release jar. The events are passed around as {@code Object}s, {@code null} when not
+ * recorded.
+ */
+final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {
+    }
+
+    static Object beginSerialization() {
+        return null;
+    }
+
+    static void endSerialization(Object event, Class<?> rootClass, long valueCount, long payloadSize) {
+    }
+
+    static Object beginDeserialization() {
+        return null;
+    }
+
+    static void endDeserialization(Object event, Class<?> rootClass, long objectCount, long payloadSize) {
+    }
+
+    static boolean isRecordingValues() {
+        return false;
+    }
+
+    static Object beginValue() {
+        return null;
+    }
+
+    static void endValue(Object event, Class<?> type, Class<?> serde) {
+    }
+}
@@ -0,0 +1,15 @@
+package inc.evil.serde;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a class for which the json-serde-processor annotation processor generates a {@link SerializerDeserializer}
+ * at compile time. The generated serdes are registered through {@link java.util.ServiceLoader} and picked up by
+ * {@link SerdeFactory}, so the marked classes are (de)serialized without reflection. The produced json is the same
+ * as the one produced for classes which aren't marked.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateSerde {
+}
@@ -0,0 +1,96 @@
+package inc.evil.serde;
+
+import java.util.Arrays;
+
+/**
+ * Maps objects, compared by identity, to non-negative {@code long} ids. An open-addressed table with linear probing
+ * over parallel arrays, so that no entry objects or boxed ids are allocated per mapped instance.
+ */
+final class IdentityLongTable {
+    static final long NO_ID = -1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private Object[] keys;
+    private long[] values;
+    private int size;
+
+    IdentityLongTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    long get(Object key) {
+        int mask = keys.length - 1;
+        for (int index = indexOf(key, mask); ; index = (index + 1) & mask) {
+            Object candidate = keys[index];
+            if (candidate == key) {
+                return values[index];
+            } else if (candidate == null) {
+                return NO_ID;
+            }
+        }
+    }
+
+    boolean contains(Object key) {
+        return get(key) != NO_ID;
+    }
+
+    void put(Object key, long value) {
+        int mask = keys.length - 1;
+        int index = indexOf(key, mask);
+        while (keys[index] != null && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        values[index] = value;
+        if (keys[index] == null) {
+            keys[index] = key;
+            if (++size > keys.length / 2) {
+                resize();
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the entries. Tables which grew beyond {@code maxRetainedCapacity} are shrunk back to their
+     * initial capacity rather than cleared.
+     */
+    void clear(int maxRetainedCapacity) {
+        if (keys.length > maxRetainedCapacity) {
+            allocate(INITIAL_CAPACITY);
+        } else if (size > 0) {
+            Arrays.fill(keys, null);
+        }
+        size = 0;
+    }
+
+    private void resize() {
+        Object[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(keys.length * 2);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != null) {
+                int index = indexOf(oldKeys[i], mask);
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new long[capacity];
+    }
+
+    private static int indexOf(Object key, int mask) {
+        int hash = System.identityHashCode(key);
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -4,4 +4,8 @@ public class JsonDeserializationException extends RuntimeException {
     public JsonDeserializationException(Exception cause) {
         super(cause);
     }
+
+    public JsonDeserializationException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,108 @@
+package inc.evil.serde;
+
+import inc.evil.serde.metrics.SerdeMetrics;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Entry point of the library. A {@code JsonMapper} is thread-safe and meant to be created once and reused: the
+ * serdes and everything they cache are built once per set of features and shared, only the small per-call state
+ * (the instances seen so far and the object id counter) is taken from a pool and reset after every call.
+ */
+public class JsonMapper {
+    private final SerdeFactory factory = new SerdeFactory();
+    private final SerdeRegistry defaultRegistry = factory.registryFor(Collections.emptySet());
+    private final SerdeRegistry compactRegistry = factory.registryFor(EnumSet.of(SerdeFeature.COMPACT_OUTPUT));
+    private final SerdeMetrics metrics;
+
+    public JsonMapper() {
+        this(null);
+    }
+
+    /**
+     * Creates a mapper which reports what every serialization writes to {@code metrics}.
+     */
+    public JsonMapper(SerdeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public String serialize(Object instance) {
+        return withSerde(defaultRegistry, jsonSerde -> jsonSerde.serialize(instance));
+    }
+
+    public String serialize(Object instance, Set<SerdeFeature> options) {
+        return withSerde(factory.registryFor(options), jsonSerde -> jsonSerde.serialize(instance));
+    }
+
+    /**
+     * Writes compact UTF-8 json, as if {@link SerdeFeature#COMPACT_OUTPUT} was given.
+     */
+    public byte[] serializeToBytes(Object instance) {
+        return withSerde(compactRegistry, jsonSerde -> jsonSerde.serializeToBytes(instance));
+    }
+
+    public byte[] serializeToBytes(Object instance, Set<SerdeFeature> options) {
+        return withSerde(factory.registryFor(withCompactOutput(options)), jsonSerde -> jsonSerde.serializeToBytes(instance));
+    }
+
+    public void serialize(Object instance, OutputStream outputStream) {
+        withSerde(defaultRegistry, jsonSerde -> {
+            jsonSerde.serialize(instance, outputStream);
+            return null;
+        });
+    }
+
+    public void serialize(Object instance, Writer writer) {
+        withSerde(defaultRegistry, jsonSerde -> {
+            jsonSerde.serialize(instance, writer);
+            return null;
+        });
+    }
+
+    public <T> T deserialize(String json, Class<T> targetClass) {
+        return withSerde(defaultRegistry, jsonSerde -> jsonSerde.deserialize(json, targetClass));
+    }
+
+    public <T> T deserialize(String json, Class<T> targetClass, Set<SerdeFeature> options) {
+        return withSerde(factory.registryFor(options), jsonSerde -> jsonSerde.deserialize(json, targetClass));
+    }
+
+    public <T> T deserialize(byte[] json, Class<T> targetClass) {
+        return withSerde(defaultRegistry, jsonSerde -> jsonSerde.deserialize(json, targetClass));
+    }
+
+    public <T> T deserialize(byte[] json, Class<T> targetClass, Set<SerdeFeature> options) {
+        return withSerde(factory.registryFor(options), jsonSerde -> jsonSerde.deserialize(json, targetClass));
+    }
+
+    public <T> T deserialize(InputStream inputStream, Class<T> targetClass) {
+        return withSerde(defaultRegistry, jsonSerde -> jsonSerde.deserialize(inputStream, targetClass));
+    }
+
+    public <T> T deserialize(Reader reader, Class<T> targetClass) {
+        return withSerde(defaultRegistry, jsonSerde -> jsonSerde.deserialize(reader, targetClass));
+    }
+
+    private static Set<SerdeFeature> withCompactOutput(Set<SerdeFeature> options) {
+        Set<SerdeFeature> features = EnumSet.of(SerdeFeature.COMPACT_OUTPUT);
+        features.addAll(options);
+        return features;
+    }
+
+    private <R> R withSerde(SerdeRegistry serdeRegistry, Function<JsonSerde, R> call) {
+        JsonSerde jsonSerde = serdeRegistry.acquire();
+        jsonSerde.setMetrics(metrics);
+        try {
+            return call.apply(jsonSerde);
+        } finally {
+            serdeRegistry.release(jsonSerde);
+        }
+    }
+}
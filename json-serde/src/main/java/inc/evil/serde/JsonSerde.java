@@ -0,0 +1,938 @@
+package inc.evil.serde;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import inc.evil.serde.cast.PrimitiveTypeCaster;
+import inc.evil.serde.core.CollectionWrapperSerde;
+import inc.evil.serde.core.CommonCollectionSerde;
+import inc.evil.serde.core.CommonMapSerde;
+import inc.evil.serde.core.ContainerSerde;
+import inc.evil.serde.core.EnumMapSerde;
+import inc.evil.serde.core.ObjectSerde;
+import inc.evil.serde.metrics.SerdeMetrics;
+import inc.evil.serde.metrics.SerializationSummary;
+
+import java.io.*;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The state of a single serialization or deserialization: the instances seen so far (to write and resolve
+ * references) and the object id counter. Everything else (the serdes and their caches) is shared through the
+ * {@link SerdeRegistry}. A {@code JsonSerde} isn't thread-safe, but it can be {@link #reset()} and reused.
+ */
+class JsonSerde implements SerdeContext {
+    private static final String REFERENCE_TO_OBJECT = "__ref";
+    private static final int MAX_RETAINED_CAPACITY = 4096;
+    private static final int MAX_UNTRACKED_DEPTH = 10_000_000;
+    private static final int MAX_RECURSIVE_DEPTH = 64;
+    private static final int INITIAL_FRAMES = 16;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final PrimitiveTypeCaster PRIMITIVE_TYPE_CASTER = new PrimitiveTypeCaster();
+
+    private final IdentityLongTable serializedInstances = new IdentityLongTable();
+    private final LongObjectTable deserializedInstances = new LongObjectTable();
+    private long lastObjectId;
+    private int depth;
+    private final SerdeRegistry serdeRegistry;
+    private final boolean trackingReferences;
+    private final boolean omittingDeclaredTypes;
+    private final boolean usingNameDictionary;
+    private final boolean writingCompactOutput;
+    private SerdeMetrics metrics;
+    private boolean measuring;
+    private long valuesWritten;
+    private long referencesWritten;
+    private Frame[] frames = new Frame[INITIAL_FRAMES];
+    private int frameCount;
+    private Set<Object> valuesOnFrames = newIdentitySet();
+    private boolean valueOfTopFrame;
+
+    public JsonSerde(List<SerializerDeserializer> serializerDeserializers) {
+        this(new SerdeRegistry(serializerDeserializers));
+    }
+
+    JsonSerde(SerdeRegistry serdeRegistry) {
+        this.serdeRegistry = serdeRegistry;
+        this.trackingReferences = serdeRegistry.isTrackingReferences();
+        this.omittingDeclaredTypes = serdeRegistry.isOmittingDeclaredTypes();
+        this.usingNameDictionary = serdeRegistry.isUsingNameDictionary();
+        this.writingCompactOutput = serdeRegistry.isWritingCompactOutput();
+    }
+
+    /**
+     * Forgets the instances seen so far and restarts the object ids, making the context reusable. Tables which grew
+     * large are shrunk rather than cleared, so that a single big object graph doesn't make every later reset slow.
+     */
+    void reset() {
+        serializedInstances.clear(MAX_RETAINED_CAPACITY);
+        deserializedInstances.clear(MAX_RETAINED_CAPACITY);
+        lastObjectId = 0;
+        depth = 0;
+        metrics = null;
+        measuring = false;
+        clearFrames();
+    }
+
+    /**
+     * Reports what the next calls write to {@code metrics}, until {@link #reset()}. With {@code null} nothing is
+     * measured.
+     */
+    void setMetrics(SerdeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public String serialize(Object instance) {
+        StringWriter writer = new StringWriter();
+        serialize(instance, writer);
+        return writer.toString();
+    }
+
+    public void serialize(Object instance, Writer writer) {
+        Object event = FlightRecorderEvents.beginSerialization();
+        if (isMeasuring(event)) {
+            long start = startMeasuredCall();
+            Utf8CountingWriter countingWriter = new Utf8CountingWriter(writer);
+            writeJson(instance, countingWriter);
+            completeMeasuredCall(instance, start, countingWriter.getCount(), event);
+        } else {
+            writeJson(instance, writer);
+        }
+    }
+
+    public void serialize(Object instance, OutputStream outputStream) {
+        Object event = FlightRecorderEvents.beginSerialization();
+        if (isMeasuring(event)) {
+            long start = startMeasuredCall();
+            CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+            writeJson(instance, countingStream);
+            completeMeasuredCall(instance, start, countingStream.getCount(), event);
+        } else {
+            writeJson(instance, outputStream);
+        }
+    }
+
+    private void writeJson(Object instance, Writer writer) {
+        try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(writer)) {
+            writeJson(instance, generator);
+        } catch (IOException e) {
+            throw new JsonSerializationException(e);
+        }
+    }
+
+    private void writeJson(Object instance, OutputStream outputStream) {
+        try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            writeJson(instance, generator);
+        } catch (IOException e) {
+            throw new JsonSerializationException(e);
+        }
+    }
+
+    /**
+     * Whether the values and the bytes written are counted, for the metrics or the flight recorder events.
+     */
+    private boolean isMeasuring(Object serializationEvent) {
+        return metrics != null || serializationEvent != null || FlightRecorderEvents.isRecordingValues();
+    }
+
+    private long startMeasuredCall() {
+        measuring = true;
+        valuesWritten = 0;
+        referencesWritten = 0;
+        return System.nanoTime();
+    }
+
+    private void completeMeasuredCall(Object instance, long start, long bytesWritten, Object event) {
+        measuring = false;
+        if (metrics != null) {
+            metrics.serializationCompleted(new SerializationSummary(valuesWritten, referencesWritten, bytesWritten, System.nanoTime() - start));
+        }
+        FlightRecorderEvents.endSerialization(event, instance != null ? instance.getClass() : null, valuesWritten, bytesWritten);
+    }
+
+    /**
+     * Writes the json as UTF-8 straight into a byte array, without going through a {@code String}.
+     */
+    public byte[] serializeToBytes(Object instance) {
+        ByteArrayBuilder bytes = new ByteArrayBuilder(OBJECT_MAPPER.getFactory()._getBufferRecycler());
+        serialize(instance, bytes);
+        byte[] json = bytes.toByteArray();
+        bytes.release();
+        return json;
+    }
+
+    private void writeJson(Object instance, JsonGenerator generator) {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (!writingCompactOutput) {
+            generator.setPrettyPrinter(new DefaultPrettyPrinter());
+        }
+        if (usingNameDictionary) {
+            writeWithNameDictionary(instance, generator);
+        } else {
+            toJson(instance, generator);
+        }
+    }
+
+    /**
+     * The names are only known once the whole document was written, so it is buffered until the table of names is.
+     */
+    private void writeWithNameDictionary(Object instance, JsonGenerator generator) {
+        TokenBuffer document = new TokenBuffer(OBJECT_MAPPER, false);
+        NameDictionaryGenerator dictionaryGenerator = new NameDictionaryGenerator(document);
+        toJson(instance, dictionaryGenerator);
+        try {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("names");
+            for (String name : dictionaryGenerator.getNames()) {
+                generator.writeString(name);
+            }
+            generator.writeEndArray();
+            generator.writeFieldName("value");
+            document.serialize(generator);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new JsonSerializationException(e);
+        }
+    }
+
+    private void toJson(Object instance, JsonGenerator generator) {
+        try {
+            if (trackingReferences && wasSerialized(instance)) {
+                writePreviouslySerializedInstance(instance, generator);
+            } else {
+                trySerializeToJson(instance, generator);
+            }
+        } catch (JsonSerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JsonSerializationException(e);
+        } catch (StackOverflowError e) {
+            throw new JsonSerializationException("The object graph is nested too deeply through values which are written " +
+                    "by recursion (such as the collection wrappers)", e);
+        }
+    }
+
+    @Override
+    public JsonNode getPreviouslySerializedInstance(Object instance) {
+        if (measuring) {
+            measureReference(instance);
+        }
+        ObjectNode referenceNode = new ObjectNode(JsonNodeFactory.instance);
+        referenceNode.set("type", new TextNode(REFERENCE_TO_OBJECT));
+        referenceNode.set("value", new LongNode(serializedInstances.get(instance)));
+        return referenceNode;
+    }
+
+    @Override
+    public void writePreviouslySerializedInstance(Object instance, JsonGenerator generator) throws IOException {
+        if (measuring) {
+            measureReference(instance);
+        }
+        generator.writeStartObject();
+        generator.writeStringField("type", REFERENCE_TO_OBJECT);
+        generator.writeNumberField("value", serializedInstances.get(instance));
+        generator.writeEndObject();
+    }
+
+    private void trySerializeToJson(Object instance, JsonGenerator generator) throws IOException {
+        SerializerDeserializer serde = serdeRegistry.serdeFor(instance.getClass());
+        if (serde == null) {
+            throw new IllegalStateException("No serializer found for class: " + instance.getClass());
+        }
+        enterValue();
+        try {
+            if (measuring) {
+                serializeMeasured(serde, instance, false, generator);
+            } else {
+                serde.serialize(instance, generator, this);
+            }
+        } finally {
+            --depth;
+        }
+    }
+
+    @Override
+    public Object getPreviouslyDeserializedInstance(long objectId) {
+        return deserializedInstances.get(objectId);
+    }
+
+    public boolean wasSerialized(Object instance) {
+        return serializedInstances.contains(instance);
+    }
+
+    @Override
+    public void addSerializedInstance(Object instance, long objectId) {
+        serializedInstances.put(instance, objectId);
+    }
+
+    @Override
+    public JsonNode serializeValue(Object instance) {
+        return JsonTrees.write(generator -> serializeValue(instance, generator));
+    }
+
+    @Override
+    public void serializeValue(Object instance, JsonGenerator generator) throws IOException {
+        serializeDeclaredValue(instance, null, generator);
+    }
+
+    @Override
+    public void serializeDeclaredValue(Object instance, Class<?> declaredType, JsonGenerator generator) throws IOException {
+        boolean valueOfTopFrame = this.valueOfTopFrame;
+        this.valueOfTopFrame = false;
+        Class<?> type = instance != null ? instance.getClass() : null;
+        SerializerDeserializer serde = serdeRegistry.serdeFor(type);
+        if (serde == null) {
+            toJson(instance, generator);
+            return;
+        }
+        boolean untyped = omittingDeclaredTypes && type != null && type == declaredType && mayOmitType(type);
+        if (type != null && isWrittenStepByStep(serde)) {
+            if (valueOfTopFrame) {
+                pushValue(serde, instance, untyped, generator);
+                return;
+            } else if (depth >= MAX_RECURSIVE_DEPTH) {
+                writeNested(serde, instance, untyped, generator);
+                return;
+            }
+        }
+        enterValue();
+        try {
+            if (measuring && instance != null) {
+                serializeMeasured(serde, instance, untyped, generator);
+            } else if (untyped) {
+                serde.serializeUntyped(instance, generator, this);
+            } else {
+                serde.serialize(instance, generator, this);
+            }
+        } finally {
+            --depth;
+        }
+    }
+
+    @Override
+    public boolean isMeasuringValues() {
+        return measuring;
+    }
+
+    /**
+     * Kept out of the unmeasured path, which thus pays only for checking whether the call is measured.
+     */
+    private void serializeMeasured(SerializerDeserializer serde, Object instance, boolean untyped, JsonGenerator generator) throws IOException {
+        boolean reference = trackingReferences && serializedInstances.contains(instance);
+        Object event = FlightRecorderEvents.beginValue();
+        long start = System.nanoTime();
+        if (untyped) {
+            serde.serializeUntyped(instance, generator, this);
+        } else {
+            serde.serialize(instance, generator, this);
+        }
+        if (!reference) {
+            measureValue(instance, serde, start, event);
+        }
+    }
+
+    private void measureValue(Object instance, SerializerDeserializer serde, long start, Object event) {
+        ++valuesWritten;
+        FlightRecorderEvents.endValue(event, instance.getClass(), serde.getClass());
+        if (metrics != null) {
+            metrics.valueWritten(instance.getClass(), serde.getClass(), System.nanoTime() - start);
+            if (serde instanceof ObjectSerde) {
+                metrics.objectSerdeFallback(instance.getClass());
+            }
+        }
+    }
+
+    /**
+     * Past {@link #MAX_RECURSIVE_DEPTH} levels, the objects which the {@link ObjectSerde} writes field by field and the
+     * containers of the {@link ContainerSerde}s are walked with a stack of {@link Frame}s rather than by recursion, so
+     * that the depth of the object graph isn't bounded by the size of the call stack. A value met as a field or an
+     * element of the top frame is only pushed; the loop which wrote that field or element carries on with it.
+     * Shallower graphs keep the plain recursion, which the JIT handles better, and other serdes always recurse, but
+     * only as deep as their values are nested.
+     */
+    private void writeNested(SerializerDeserializer serde, Object instance, boolean untyped, JsonGenerator generator) throws IOException {
+        int bottom = frameCount;
+        if (!pushValue(serde, instance, untyped, generator)) {
+            return;
+        }
+        while (frameCount > bottom) {
+            Frame frame = frames[frameCount - 1];
+            if (frame.elements != null) {
+                writeNextElement(frame, generator);
+            } else if (frame.nextField < frame.fieldCount) {
+                writeNextField(frame, generator);
+            } else {
+                ((ObjectSerde) frame.serde).writeEndOfObject(generator);
+                writeEndOfFrame(frame);
+            }
+        }
+    }
+
+    /**
+     * Writes the start of the value and pushes its frame, or writes the whole value (a reference to an object, or a
+     * container whose elements aren't written one at a time) and returns {@code false}.
+     */
+    private boolean pushValue(SerializerDeserializer serde, Object instance, boolean untyped, JsonGenerator generator) throws IOException {
+        enterValue();
+        Object event = measuring ? FlightRecorderEvents.beginValue() : null;
+        long start = measuring ? System.nanoTime() : 0;
+        Frame frame;
+        if (serde instanceof ContainerSerde) {
+            ContainerSerde.ElementWriter elements = ((ContainerSerde) serde).writeStartOfContainer(instance, untyped, generator, this);
+            if (elements == null) {
+                --depth;
+                if (measuring) {
+                    measureValue(instance, serde, start, event);
+                }
+                return false;
+            }
+            frame = pushWrittenFrame(serde, instance);
+            frame.elements = elements;
+        } else {
+            ObjectSerde objectSerde = (ObjectSerde) serde;
+            if (!objectSerde.writeStartOfObject(instance, untyped, generator, this)) {
+                --depth;
+                return false;
+            }
+            frame = pushWrittenFrame(serde, instance);
+            frame.fieldCount = objectSerde.getFieldCount(instance.getClass());
+        }
+        frame.start = start;
+        frame.event = event;
+        return true;
+    }
+
+    private void writeNextField(Frame frame, JsonGenerator generator) throws IOException {
+        valueOfTopFrame = true;
+        ((ObjectSerde) frame.serde).serializeField(frame.instance, frame.nextField++, generator, this);
+        valueOfTopFrame = false;
+    }
+
+    private void writeNextElement(Frame frame, JsonGenerator generator) throws IOException {
+        valueOfTopFrame = true;
+        boolean hasMoreElements = frame.elements.writeNextElement(generator, this);
+        valueOfTopFrame = false;
+        if (!hasMoreElements) {
+            writeEndOfFrame(frame);
+        }
+    }
+
+    private void writeEndOfFrame(Frame frame) {
+        --frameCount;
+        --depth;
+        if (isCheckedForCycles(frame.serde)) {
+            valuesOnFrames.remove(frame.instance);
+        }
+        if (measuring) {
+            measureValue(frame.instance, frame.serde, frame.start, frame.event);
+        }
+        frame.clear();
+    }
+
+    private static boolean isWrittenFieldByField(SerializerDeserializer serde) {
+        return serde.getClass() == ObjectSerde.class;
+    }
+
+    private static boolean isWrittenStepByStep(SerializerDeserializer serde) {
+        return isWrittenFieldByField(serde) || serde instanceof ContainerSerde;
+    }
+
+    private Frame pushWrittenFrame(SerializerDeserializer serde, Object instance) {
+        if (isCheckedForCycles(serde) && !valuesOnFrames.add(instance)) {
+            throw new JsonSerializationException("The object graph is cyclic through an instance of " + instance.getClass().getName() +
+                    " which holds itself. " + (trackingReferences ? "Collections, maps and arrays are written by value, so they can't hold themselves"
+                    : "Cyclic object graphs require reference tracking"));
+        }
+        return pushFrame(serde, instance);
+    }
+
+    private Frame pushFrame(SerializerDeserializer serde, Object instance) {
+        if (frameCount == frames.length) {
+            frames = Arrays.copyOf(frames, frames.length * 2);
+        }
+        Frame frame = frames[frameCount];
+        if (frame == null) {
+            frame = frames[frameCount] = new Frame();
+        }
+        ++frameCount;
+        frame.serde = serde;
+        frame.instance = instance;
+        return frame;
+    }
+
+    private void clearFrames() {
+        for (int i = 0; i < frameCount; ++i) {
+            frames[i].clear();
+        }
+        frameCount = 0;
+        valueOfTopFrame = false;
+        if (frames.length > MAX_RETAINED_CAPACITY) {
+            frames = new Frame[INITIAL_FRAMES];
+            valuesOnFrames = newIdentitySet();
+        } else if (!valuesOnFrames.isEmpty()) {
+            valuesOnFrames.clear();
+        }
+    }
+
+    /**
+     * The containers are written by value even when tracking references, so one which holds itself would be pushed
+     * again and again, as would any object of a cyclic graph without reference tracking. Objects which are tracked
+     * come back as references instead, and are thus never pushed twice.
+     */
+    private boolean isCheckedForCycles(SerializerDeserializer serde) {
+        return serde instanceof ContainerSerde || !trackingReferences;
+    }
+
+    private static Set<Object> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    private void measureReference(Object instance) {
+        ++referencesWritten;
+        if (metrics != null) {
+            metrics.referenceWritten(instance.getClass());
+        }
+    }
+
+    /**
+     * Whether a value declared as {@code declaredType} can be written without type information. A declaration which is
+     * not a concrete class can't tell the class of the value, and primitives never carry type information anyway.
+     */
+    private static boolean mayOmitType(Class<?> declaredType) {
+        if (declaredType.isPrimitive() || declaredType == Object.class) {
+            return false;
+        }
+        return declaredType.isArray() || (!declaredType.isInterface() && !Modifier.isAbstract(declaredType.getModifiers()));
+    }
+
+    /**
+     * Without reference tracking a cycle would be walked until the memory runs out. Deep graphs are walked with the
+     * stack of frames, which stops at the first value met again inside itself, so the nesting is only bounded as a last
+     * resort, well past the depth of any tree.
+     */
+    private void enterValue() {
+        if (++depth > MAX_UNTRACKED_DEPTH && !trackingReferences) {
+            throw new JsonSerializationException("The object graph is nested deeper than " + MAX_UNTRACKED_DEPTH +
+                    " levels, it is probably cyclic. Cyclic object graphs require reference tracking");
+        }
+    }
+
+    public <T> T deserialize(String json, Class<T> clazz) {
+        if (json == null) {
+            return null;
+        }
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(json)) {
+            return readJson(parser, clazz);
+        } catch (IOException e) {
+            throw new JsonDeserializationException(e);
+        }
+    }
+
+    public <T> T deserialize(byte[] json, Class<T> clazz) {
+        if (json == null) {
+            return null;
+        }
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(json)) {
+            return readJson(parser, clazz);
+        } catch (IOException e) {
+            throw new JsonDeserializationException(e);
+        }
+    }
+
+    public <T> T deserialize(Reader reader, Class<T> clazz) {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(reader)) {
+            return readJson(parser, clazz);
+        } catch (IOException e) {
+            throw new JsonDeserializationException(e);
+        }
+    }
+
+    public <T> T deserialize(InputStream inputStream, Class<T> clazz) {
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(inputStream)) {
+            return readJson(parser, clazz);
+        } catch (IOException e) {
+            throw new JsonDeserializationException(e);
+        }
+    }
+
+    private <T> T readJson(JsonParser parser, Class<T> clazz) {
+        Object event = FlightRecorderEvents.beginDeserialization();
+        T instance = readJsonValue(parser, clazz);
+        if (event != null) {
+            JsonLocation location = parser.getCurrentLocation();
+            long payloadSize = location.getByteOffset() >= 0 ? location.getByteOffset() : location.getCharOffset();
+            FlightRecorderEvents.endDeserialization(event, instance != null ? instance.getClass() : clazz, deserializedInstances.size(), payloadSize);
+        }
+        return instance;
+    }
+
+    private <T> T readJsonValue(JsonParser parser, Class<T> clazz) {
+        try {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return null;
+            } else if (usingNameDictionary) {
+                return readWithNameDictionary(parser, clazz);
+            }
+            return deserialize(parser, clazz);
+        } catch (Exception e) {
+            throw new JsonDeserializationException(e);
+        } catch (StackOverflowError e) {
+            throw new JsonDeserializationException("The json is nested too deeply through values which are read by " +
+                    "recursion (such as arrays, which can only be created once all their items are read)", e);
+        }
+    }
+
+    private <T> T readWithNameDictionary(JsonParser parser, Class<T> clazz) throws Exception {
+        JsonParser dictionaryParser = NameDictionaryParser.readDictionary(parser);
+        if (dictionaryParser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return deserialize(dictionaryParser, clazz);
+    }
+
+    @Override
+    public void addDeserializedInstance(long objectId, Object instance) {
+        deserializedInstances.put(objectId, instance);
+    }
+
+    @Override
+    public boolean isTrackingReferences() {
+        return trackingReferences;
+    }
+
+    /**
+     * Besides class names, resolves the kinds the {@link CollectionWrapperSerde} writes instead of the internal classes
+     * of the JDK wrappers.
+     */
+    @Override
+    public Class<?> classForName(String className) throws ClassNotFoundException {
+        Class<?> wrapperClass = CollectionWrapperSerde.wrapperClassOf(className);
+        return wrapperClass != null ? wrapperClass : TypeNames.forName(className);
+    }
+
+    @Override
+    public boolean isOmittingDeclaredTypes() {
+        return omittingDeclaredTypes;
+    }
+
+    @Override
+    public long generateObjectId() {
+        return ++lastObjectId;
+    }
+
+    private <T> T castValueTo(Object instance, Class<T> targetType) {
+        return PRIMITIVE_TYPE_CASTER.castValueTo(instance, targetType);
+    }
+
+    @Override
+    public Object deserializeValue(JsonNode fieldNode) throws Exception {
+        SerializerDeserializer serde = serdeRegistry.serdeFor(fieldNode);
+        if (serde != null) {
+            return serde.deserialize(fieldNode, this);
+        }
+        JsonNode value = fieldNode.get("value");
+        JsonNode type = fieldNode.get("type");
+        return getValueAs(value, type.asText());
+    }
+
+    @Override
+    public <T> T deserialize(JsonParser parser, Class<T> clazz) throws Exception {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return castValueTo(deserializeValue((JsonNode) parser.readValueAsTree()), clazz);
+        }
+        ObjectNode header = readFirstField(parser);
+        if (header.has("type")) {
+            if (nextFieldIs("value", parser)) {
+                parser.nextToken();
+                Object value = getValueAs(parser, header.get("type").asText());
+                skipRemainingFields(parser);
+                return castValueTo(value, clazz);
+            } else if (parser.currentToken() == JsonToken.FIELD_NAME) {
+                JsonTrees.readRemainingFields(header, parser);
+            }
+        } else if (header.size() == 0 || header.has("targetClass")) {
+            return castValueTo(deserializeObject(header, parser, false), clazz);
+        } else {
+            JsonTrees.readRemainingFields(header, parser);
+        }
+        return deserialize(header, clazz);
+    }
+
+    @Override
+    public <T> T deserialize(JsonNode node, Class<T> clazz) throws Exception {
+        if (node.has("type")) {
+            return castValueTo(getValueAs(node.get("value"), node.get("type").asText()), clazz);
+        }
+        return castValueTo(deserializeValue(node), clazz);
+    }
+
+    @Override
+    public Object deserializeValue(JsonParser parser) throws Exception {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return deserializeValue((JsonNode) parser.readValueAsTree());
+        }
+        return deserializeObject(readFirstField(parser), parser, false);
+    }
+
+    private Object deserializeObject(ObjectNode header, JsonParser parser, boolean valueOfTopFrame) throws Exception {
+        if (header.size() == 0) {
+            return deserializeValue(header);
+        }
+        SerializerDeserializer serde = serdeRegistry.serdeFor(header);
+        if (serde == null) {
+            return deserializeValue(JsonTrees.readRemainingFields(header, parser));
+        } else if ((valueOfTopFrame || depth >= MAX_RECURSIVE_DEPTH) && isWrittenFieldByField(serde)) {
+            return header.has("type")
+                    ? readTypedValue((ObjectSerde) serde, header, parser, valueOfTopFrame)
+                    : readObject((ObjectSerde) serde, header, parser, valueOfTopFrame);
+        }
+        ++depth;
+        try {
+            return serde.deserialize(header, parser, this);
+        } finally {
+            --depth;
+        }
+    }
+
+    /**
+     * The reading counterpart of {@link #writeNested}: past {@link #MAX_RECURSIVE_DEPTH} nested objects, an object whose
+     * state is read field by field is pushed, and read by the loop of the frame below it. Its instance is created and
+     * assigned to the field holding it before its own fields are read.
+     */
+    private Object readObject(ObjectSerde serde, ObjectNode header, JsonParser parser, boolean valueOfTopFrame) throws Exception {
+        Object instance = serde.deserializeStartOfObject(header, parser, this);
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return instance;
+        }
+        pushFrame(serde, instance);
+        if (!valueOfTopFrame) {
+            readFrames(frameCount - 1, parser);
+        }
+        return instance;
+    }
+
+    /**
+     * Reads a value wrapped into its type as the {@link ObjectSerde} does, except that containers are pushed like
+     * objects: their instance is created and assigned to the field or element holding it before their elements are
+     * read.
+     */
+    private Object readTypedValue(ObjectSerde serde, ObjectNode header, JsonParser parser, boolean valueOfTopFrame) throws Exception {
+        String type = header.get("type").asText();
+        if (!nextFieldIs("value", parser)) {
+            if (parser.currentToken() != JsonToken.END_OBJECT) {
+                JsonTrees.readRemainingFields(header, parser);
+            }
+            return serde.deserialize(header, this);
+        }
+        JsonToken token = parser.nextToken();
+        if (type.equals(REFERENCE_TO_OBJECT)) {
+            Object instance = deserializedInstances.get(parser.getValueAsLong());
+            skipRemainingFields(parser);
+            return instance;
+        }
+        Class<?> resultingClass = classForName(type);
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            SerializerDeserializer valueSerde = serdeRegistry.serdeFor(resultingClass, token == JsonToken.START_OBJECT);
+            if (valueSerde instanceof ContainerSerde) {
+                return readContainer((ContainerSerde) valueSerde, resultingClass, true, parser, valueOfTopFrame);
+            }
+        }
+        Object value = deserializeValue(resultingClass, parser);
+        skipRemainingFields(parser);
+        return value;
+    }
+
+    private Object readContainer(ContainerSerde serde, Class<?> resultingClass, boolean typed, JsonParser parser, boolean valueOfTopFrame) throws Exception {
+        ContainerSerde.ElementReader reader = serde.readStartOfContainer(resultingClass, parser, this);
+        Frame frame = pushFrame(serde, reader.getContainer());
+        frame.reader = reader;
+        frame.typed = typed;
+        if (!valueOfTopFrame) {
+            readFrames(frameCount - 1, parser);
+        }
+        return reader.getContainer();
+    }
+
+    private void readFrames(int bottom, JsonParser parser) throws Exception {
+        while (frameCount > bottom) {
+            Frame frame = frames[frameCount - 1];
+            this.valueOfTopFrame = true;
+            boolean hasMore = frame.reader != null
+                    ? frame.reader.readNextElement(parser, this)
+                    : ((ObjectSerde) frame.serde).deserializeNextField(frame.instance, parser, this);
+            this.valueOfTopFrame = false;
+            if (!hasMore) {
+                if (frame.typed) {
+                    skipRemainingFields(parser);
+                }
+                --frameCount;
+                frame.clear();
+            }
+        }
+    }
+
+    @Override
+    public Object deserializeDeclaredValue(Class<?> declaredType, JsonParser parser) throws Exception {
+        boolean valueOfTopFrame = this.valueOfTopFrame;
+        this.valueOfTopFrame = false;
+        JsonToken token = parser.currentToken();
+        if (!omittingDeclaredTypes || token == JsonToken.VALUE_NULL || !mayOmitType(declaredType)) {
+            return token == JsonToken.START_OBJECT ? deserializeObject(readFirstField(parser), parser, valueOfTopFrame) : deserializeValue(parser);
+        }
+        SerializerDeserializer declaredSerde = serdeRegistry.serdeFor(declaredType);
+        if (token != JsonToken.START_OBJECT || isWrittenAsUntypedObject(declaredSerde)) {
+            if ((valueOfTopFrame || depth >= MAX_RECURSIVE_DEPTH) && declaredSerde instanceof ContainerSerde
+                    && (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY)) {
+                return readContainer((ContainerSerde) declaredSerde, declaredType, false, parser, valueOfTopFrame);
+            }
+            return declaredSerde.deserialize(declaredType, parser, this);
+        }
+        ObjectNode header = new ObjectNode(JsonNodeFactory.instance);
+        if (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            if (isUntypedObjectField(fieldName)) {
+                // the serde of the declared class continues from the name of the first field
+                header.set("targetClass", new TextNode(declaredType.getName()));
+                return deserializeObject(header, parser, valueOfTopFrame);
+            }
+            parser.nextToken();
+            header.set(fieldName, parser.readValueAsTree());
+        }
+        return deserializeObject(header, parser, valueOfTopFrame);
+    }
+
+    @Override
+    public Object deserializeDeclaredValue(Class<?> declaredType, JsonNode node) throws Exception {
+        if (!omittingDeclaredTypes || node.isNull() || !mayOmitType(declaredType)) {
+            return deserializeValue(node);
+        }
+        SerializerDeserializer declaredSerde = serdeRegistry.serdeFor(declaredType);
+        if (!node.isObject() || isWrittenAsUntypedObject(declaredSerde)) {
+            return declaredSerde.deserialize(declaredType, node, this);
+        }
+        Iterator<String> fieldNames = node.fieldNames();
+        if (fieldNames.hasNext() && isUntypedObjectField(fieldNames.next())) {
+            ObjectNode typedNode = new ObjectNode(JsonNodeFactory.instance);
+            typedNode.set("targetClass", new TextNode(declaredType.getName()));
+            typedNode.setAll((ObjectNode) node);
+            return deserializeValue(typedNode);
+        }
+        return deserializeValue(node);
+    }
+
+    /**
+     * Maps with keys written as field names, enum maps and sorted collections are written as plain json objects when
+     * their type is omitted. Those serdes tell them apart from the typed values and references they may get instead.
+     */
+    private static boolean isWrittenAsUntypedObject(SerializerDeserializer serde) {
+        return serde instanceof CommonMapSerde || serde instanceof CommonCollectionSerde || serde instanceof EnumMapSerde;
+    }
+
+    private static boolean isUntypedObjectField(String fieldName) {
+        return fieldName.equals("__id") || fieldName.equals("state");
+    }
+
+    private ObjectNode readFirstField(JsonParser parser) throws IOException {
+        ObjectNode header = new ObjectNode(JsonNodeFactory.instance);
+        if (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            header.set(fieldName, parser.readValueAsTree());
+        }
+        return header;
+    }
+
+    private boolean nextFieldIs(String fieldName, JsonParser parser) throws IOException {
+        return parser.nextToken() == JsonToken.FIELD_NAME && parser.getCurrentName().equals(fieldName);
+    }
+
+    private void skipRemainingFields(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    @Override
+    public Object deserializeValue(Class<?> resultingClass, JsonParser parser) throws Exception {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.START_OBJECT && token != JsonToken.START_ARRAY) {
+            return getValueAs(parser.readValueAsTree(), resultingClass);
+        }
+        SerializerDeserializer serde = serdeRegistry.serdeFor(resultingClass, token == JsonToken.START_OBJECT);
+        if (serde != null) {
+            return serde.deserialize(resultingClass, parser, this);
+        }
+        return deserialize(parser, resultingClass);
+    }
+
+    private Object getValueAs(JsonParser parser, String type) throws Exception {
+        if (type.equals(REFERENCE_TO_OBJECT)) {
+            return deserializedInstances.get(parser.getValueAsLong());
+        }
+        return deserializeValue(classForName(type), parser);
+    }
+
+    private Object getValueAs(JsonNode value, String type) throws Exception {
+        if (type != null) {
+            if (type.equals(REFERENCE_TO_OBJECT)) {
+                return deserializedInstances.get(value.asLong());
+            }
+            return getValueAs(value, classForName(type));
+        }
+        throw new IllegalStateException("Cannot deserialize json node because of missing type information. Json: " + value);
+    }
+
+    private Object getValueAs(JsonNode value, Class<?> resultingClass) throws Exception {
+        SerializerDeserializer serde = serdeRegistry.serdeFor(resultingClass, value);
+        if (serde != null) {
+            return serde.deserialize(resultingClass, value, this);
+        }
+        return deserialize(value, resultingClass);
+    }
+
+    /**
+     * An object whose fields, or a container whose elements, are being written or read, with the state of the
+     * measurement of its value.
+     */
+    private static final class Frame {
+        private SerializerDeserializer serde;
+        private Object instance;
+        private int nextField;
+        private int fieldCount;
+        private ContainerSerde.ElementWriter elements;
+        private ContainerSerde.ElementReader reader;
+        private boolean typed;
+        private long start;
+        private Object event;
+
+        private void clear() {
+            serde = null;
+            instance = null;
+            nextField = 0;
+            elements = null;
+            reader = null;
+            typed = false;
+            event = null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package inc.evil.serde;
+
+public class JsonSerializationException extends RuntimeException {
+    public JsonSerializationException(Exception cause) {
+        super(cause);
+    }
+
+    public JsonSerializationException(String message) {
+        super(message);
+    }
+
+    public JsonSerializationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,55 @@
+package inc.evil.serde;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+
+/**
+ * Bridges the streaming API to the {@link JsonNode} based one. On serialization the tokens are recorded
+ * into a {@link TokenBuffer} and then read back as a tree, so a serde only has to implement the
+ * {@link JsonGenerator} flavour of serialization. On deserialization the rest of a partially consumed
+ * json object can be materialized when a serde has no streaming implementation for it.
+ */
+public final class JsonTrees {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private JsonTrees() {
+    }
+
+    public static JsonNode write(TokenWriter writer) {
+        try {
+            TokenBuffer buffer = new TokenBuffer(OBJECT_MAPPER, false);
+            writer.writeTo(buffer);
+            return OBJECT_MAPPER.readTree(buffer.asParser());
+        } catch (IOException e) {
+            throw new JsonSerializationException(e);
+        }
+    }
+
+    /**
+     * Reads the remaining fields of the current json object into {@code node}. The parser is expected to be either
+     * on the name of the next field or on the last token of the previous field's value; it is left on the closing
+     * token of the object.
+     */
+    public static ObjectNode readRemainingFields(ObjectNode node, JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken() == JsonToken.FIELD_NAME ? JsonToken.FIELD_NAME : parser.nextToken();
+        while (token == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            node.set(fieldName, parser.readValueAsTree());
+            token = parser.nextToken();
+        }
+        return node;
+    }
+
+    @FunctionalInterface
+    public interface TokenWriter {
+        void writeTo(JsonGenerator generator) throws IOException;
+    }
+}
@@ -0,0 +1,68 @@
+package inc.evil.serde;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps {@code long} ids to objects. Ids are handed out sequentially on serialization, so they're stored by index in
+ * a growable array; only ids far outside of the range seen so far (which hand-written json may contain) go to a
+ * regular map, so that a single huge id can't make the array huge.
+ */
+final class LongObjectTable {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_GAP = 1024;
+
+    private Object[] denseValues = new Object[INITIAL_CAPACITY];
+    private Map<Long, Object> sparseValues;
+    private int size;
+
+    Object get(long key) {
+        if (key >= 0 && key < denseValues.length) {
+            return denseValues[(int) key];
+        }
+        return sparseValues != null ? sparseValues.get(key) : null;
+    }
+
+    /**
+     * Maps {@code key} to {@code value}, which isn't {@code null}. Mapping a key once more replaces its value
+     * without changing the size.
+     */
+    void put(long key, Object value) {
+        Object previous;
+        if (key >= 0 && key < denseValues.length) {
+            previous = denseValues[(int) key];
+            denseValues[(int) key] = value;
+        } else if (key >= 0 && key < Integer.MAX_VALUE - 8 && key <= 2L * size + MAX_GAP) {
+            denseValues = Arrays.copyOf(denseValues, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(key + 1, 2L * denseValues.length)));
+            previous = null;
+            denseValues[(int) key] = value;
+        } else {
+            if (sparseValues == null) {
+                sparseValues = new HashMap<>();
+            }
+            previous = sparseValues.put(key, value);
+        }
+        if (previous == null) {
+            ++size;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the entries. Tables which grew beyond {@code maxRetainedCapacity} are shrunk back to their
+     * initial capacity rather than cleared.
+     */
+    void clear(int maxRetainedCapacity) {
+        if (denseValues.length > maxRetainedCapacity) {
+            denseValues = new Object[INITIAL_CAPACITY];
+        } else if (size > 0) {
+            Arrays.fill(denseValues, null);
+        }
+        sparseValues = null;
+        size = 0;
+    }
+}
@@ -0,0 +1,134 @@
+package inc.evil.serde;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes field names of {@code state} objects and class names as their index in a dictionary which is collected
+ * along the way. The dictionary has to be written before the document, so the document is meant to be buffered.
+ */
+final class NameDictionaryGenerator extends JsonGeneratorDelegate {
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final NameScopes scopes = new NameScopes();
+
+    NameDictionaryGenerator(JsonGenerator delegate) {
+        super(delegate, false);
+    }
+
+    List<String> getNames() {
+        return names;
+    }
+
+    @Override
+    public void writeStartObject() throws IOException {
+        scopes.startObject();
+        super.writeStartObject();
+    }
+
+    @Override
+    public void writeStartObject(Object forValue) throws IOException {
+        scopes.startObject();
+        super.writeStartObject(forValue);
+    }
+
+    @Override
+    public void writeStartObject(Object forValue, int size) throws IOException {
+        scopes.startObject();
+        super.writeStartObject(forValue, size);
+    }
+
+    @Override
+    public void writeEndObject() throws IOException {
+        scopes.end();
+        super.writeEndObject();
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        scopes.startArray();
+        super.writeStartArray();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void writeStartArray(int size) throws IOException {
+        scopes.startArray();
+        super.writeStartArray(size);
+    }
+
+    @Override
+    public void writeStartArray(Object forValue) throws IOException {
+        scopes.startArray();
+        super.writeStartArray(forValue);
+    }
+
+    @Override
+    public void writeStartArray(Object forValue, int size) throws IOException {
+        scopes.startArray();
+        super.writeStartArray(forValue, size);
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        scopes.end();
+        super.writeEndArray();
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        boolean inStateObject = scopes.inStateObject();
+        scopes.fieldName(name);
+        super.writeFieldName(inStateObject ? Integer.toString(indexOf(name)) : name);
+    }
+
+    @Override
+    public void writeFieldName(SerializableString name) throws IOException {
+        if (scopes.inStateObject()) {
+            writeFieldName(name.getValue());
+        } else {
+            scopes.fieldName(name.getValue());
+            super.writeFieldName(name);
+        }
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        if (text != null && scopes.atTypeName()) {
+            super.writeNumber(indexOf(text));
+        } else {
+            super.writeString(text);
+        }
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int length) throws IOException {
+        writeString(new String(text, offset, length));
+    }
+
+    @Override
+    public void writeString(SerializableString text) throws IOException {
+        if (scopes.atTypeName()) {
+            super.writeNumber(indexOf(text.getValue()));
+        } else {
+            super.writeString(text);
+        }
+    }
+
+    private int indexOf(String name) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            index = names.size();
+            indexes.put(name, index);
+            names.add(name);
+        }
+        return index;
+    }
+}
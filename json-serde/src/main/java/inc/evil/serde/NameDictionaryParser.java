@@ -0,0 +1,236 @@
+package inc.evil.serde;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.JsonTokenId;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a document written by {@link NameDictionaryGenerator}, replacing the indexes back with the names of the
+ * dictionary, so that the serdes see the same tokens as without a dictionary. Indexes of class names are numbers in
+ * the json and are presented as strings.
+ */
+final class NameDictionaryParser extends JsonParserDelegate {
+    private final String[] names;
+    private final NameScopes scopes = new NameScopes();
+    private JsonToken currentToken;
+    private String currentName;
+
+    private NameDictionaryParser(JsonParser delegate, String[] names) {
+        super(delegate);
+        this.names = names;
+        this.currentToken = delegate.currentToken();
+        if (currentToken == JsonToken.START_OBJECT) {
+            scopes.startObject();
+        } else if (currentToken == JsonToken.START_ARRAY) {
+            scopes.startArray();
+        }
+    }
+
+    /**
+     * Reads the {@code names} table of a document whose opening token is the current one, and returns a parser
+     * positioned on the first token of the document's {@code value}.
+     */
+    static NameDictionaryParser readDictionary(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME ||
+            !parser.getCurrentName().equals("names") || parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected the json to start with a table of names");
+        }
+        List<String> names = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.VALUE_STRING) {
+            names.add(parser.getText());
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY || parser.nextToken() != JsonToken.FIELD_NAME ||
+            !parser.getCurrentName().equals("value")) {
+            throw new JsonParseException(parser, "Expected the table of names to be followed by a value");
+        }
+        parser.nextToken();
+        return new NameDictionaryParser(parser, names.toArray(new String[0]));
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        JsonToken token = delegate.nextToken();
+        currentName = null;
+        if (token == JsonToken.START_OBJECT) {
+            scopes.startObject();
+        } else if (token == JsonToken.START_ARRAY) {
+            scopes.startArray();
+        } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+            scopes.end();
+        } else if (token == JsonToken.FIELD_NAME) {
+            String name = delegate.getCurrentName();
+            currentName = scopes.inStateObject() ? nameAt(name) : name;
+            scopes.fieldName(currentName);
+        } else if (token == JsonToken.VALUE_NUMBER_INT && scopes.atTypeName()) {
+            currentName = nameAt(delegate.getIntValue());
+            token = JsonToken.VALUE_STRING;
+        }
+        return currentToken = token;
+    }
+
+    @Override
+    public JsonToken nextValue() throws IOException {
+        JsonToken token = nextToken();
+        return token == JsonToken.FIELD_NAME ? nextToken() : token;
+    }
+
+    @Override
+    public String nextFieldName() throws IOException {
+        return nextToken() == JsonToken.FIELD_NAME ? currentName : null;
+    }
+
+    @Override
+    public boolean nextFieldName(SerializableString name) throws IOException {
+        return nextToken() == JsonToken.FIELD_NAME && name.getValue().equals(currentName);
+    }
+
+    @Override
+    public String nextTextValue() throws IOException {
+        return nextToken() == JsonToken.VALUE_STRING ? getText() : null;
+    }
+
+    @Override
+    public int nextIntValue(int defaultValue) throws IOException {
+        return nextToken() == JsonToken.VALUE_NUMBER_INT ? delegate.getIntValue() : defaultValue;
+    }
+
+    @Override
+    public long nextLongValue(long defaultValue) throws IOException {
+        return nextToken() == JsonToken.VALUE_NUMBER_INT ? delegate.getLongValue() : defaultValue;
+    }
+
+    @Override
+    public Boolean nextBooleanValue() throws IOException {
+        JsonToken token = nextToken();
+        return token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE ? token == JsonToken.VALUE_TRUE : null;
+    }
+
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        if (currentToken == JsonToken.START_OBJECT || currentToken == JsonToken.START_ARRAY) {
+            delegate.skipChildren();
+            scopes.end();
+            currentToken = delegate.currentToken();
+        }
+        return this;
+    }
+
+    @Override
+    public void clearCurrentToken() {
+        delegate.clearCurrentToken();
+        currentToken = null;
+        currentName = null;
+    }
+
+    @Override
+    public JsonToken currentToken() {
+        return currentToken;
+    }
+
+    @Override
+    public JsonToken getCurrentToken() {
+        return currentToken;
+    }
+
+    @Override
+    public int currentTokenId() {
+        return currentToken == null ? JsonTokenId.ID_NO_TOKEN : currentToken.id();
+    }
+
+    @Override
+    public int getCurrentTokenId() {
+        return currentTokenId();
+    }
+
+    @Override
+    public boolean hasCurrentToken() {
+        return currentToken != null;
+    }
+
+    @Override
+    public boolean hasTokenId(int id) {
+        return currentTokenId() == id;
+    }
+
+    @Override
+    public boolean hasToken(JsonToken token) {
+        return currentToken == token;
+    }
+
+    @Override
+    public boolean isExpectedStartArrayToken() {
+        return currentToken == JsonToken.START_ARRAY;
+    }
+
+    @Override
+    public boolean isExpectedStartObjectToken() {
+        return currentToken == JsonToken.START_OBJECT;
+    }
+
+    @Override
+    public String getCurrentName() throws IOException {
+        if (currentToken == JsonToken.FIELD_NAME) {
+            return currentName;
+        } else if (currentToken == JsonToken.START_OBJECT || currentToken == JsonToken.START_ARRAY) {
+            return scopes.enclosingFieldName();
+        }
+        return scopes.fieldName();
+    }
+
+    @Override
+    public String getText() throws IOException {
+        return currentName != null ? currentName : delegate.getText();
+    }
+
+    @Override
+    public String getValueAsString() throws IOException {
+        return currentName != null && currentToken == JsonToken.VALUE_STRING ? currentName : delegate.getValueAsString();
+    }
+
+    @Override
+    public String getValueAsString(String defaultValue) throws IOException {
+        return currentName != null && currentToken == JsonToken.VALUE_STRING ? currentName : delegate.getValueAsString(defaultValue);
+    }
+
+    @Override
+    public boolean hasTextCharacters() {
+        return currentName == null && delegate.hasTextCharacters();
+    }
+
+    @Override
+    public char[] getTextCharacters() throws IOException {
+        return currentName != null ? currentName.toCharArray() : delegate.getTextCharacters();
+    }
+
+    @Override
+    public int getTextLength() throws IOException {
+        return currentName != null ? currentName.length() : delegate.getTextLength();
+    }
+
+    @Override
+    public int getTextOffset() throws IOException {
+        return currentName != null ? 0 : delegate.getTextOffset();
+    }
+
+    private String nameAt(String index) throws IOException {
+        try {
+            return nameAt(Integer.parseInt(index));
+        } catch (NumberFormatException e) {
+            throw new JsonParseException(this, "Expected the index of a name instead of " + index);
+        }
+    }
+
+    private String nameAt(int index) throws IOException {
+        if (index < 0 || index >= names.length) {
+            throw new JsonParseException(this, "No name with index " + index + " in the table of " + names.length + " names");
+        }
+        return names[index];
+    }
+}
@@ -0,0 +1,73 @@
+package inc.evil.serde;
+
+import java.util.Arrays;
+
+/**
+ * Follows the nesting of a document written with a {@link SerdeFeature#NAME_DICTIONARY name dictionary}, to tell
+ * which names are replaced by their index in the dictionary: the field names of {@code state} objects and the
+ * {@code type}/{@code targetClass} values of the other objects. The writer and the reader follow the same (original)
+ * names, so they agree on what was replaced.
+ */
+final class NameScopes {
+    private static final int INITIAL_DEPTH = 16;
+
+    private boolean[] objects = new boolean[INITIAL_DEPTH];
+    private boolean[] stateObjects = new boolean[INITIAL_DEPTH];
+    private String[] fieldNames = new String[INITIAL_DEPTH];
+    private int depth = -1;
+
+    void startObject() {
+        push(true, depth >= 0 && objects[depth] && !stateObjects[depth] && "state".equals(fieldNames[depth]));
+    }
+
+    void startArray() {
+        push(false, false);
+    }
+
+    void end() {
+        fieldNames[depth--] = null;
+    }
+
+    void fieldName(String name) {
+        fieldNames[depth] = name;
+    }
+
+    /**
+     * The name of the field whose value is being read or written, or {@code null} outside of an object.
+     */
+    String fieldName() {
+        return depth >= 0 && objects[depth] ? fieldNames[depth] : null;
+    }
+
+    /**
+     * The name of the field whose value is the current object or array.
+     */
+    String enclosingFieldName() {
+        return depth >= 1 && objects[depth - 1] ? fieldNames[depth - 1] : null;
+    }
+
+    boolean inStateObject() {
+        return depth >= 0 && stateObjects[depth];
+    }
+
+    /**
+     * Whether a value at the current position is a class name.
+     */
+    boolean atTypeName() {
+        if (depth < 0 || !objects[depth] || stateObjects[depth]) {
+            return false;
+        }
+        String fieldName = fieldNames[depth];
+        return "type".equals(fieldName) || "targetClass".equals(fieldName);
+    }
+
+    private void push(boolean object, boolean stateObject) {
+        if (++depth == objects.length) {
+            objects = Arrays.copyOf(objects, depth * 2);
+            stateObjects = Arrays.copyOf(stateObjects, depth * 2);
+            fieldNames = Arrays.copyOf(fieldNames, depth * 2);
+        }
+        objects[depth] = object;
+        stateObjects[depth] = stateObject;
+    }
+}
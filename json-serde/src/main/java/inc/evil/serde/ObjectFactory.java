@@ -0,0 +1,62 @@
+package inc.evil.serde;
+
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+import org.objenesis.instantiator.ObjectInstantiator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+
+/**
+ * Creates instances of classes without requiring any particular constructor. How a class is instantiated is chosen
+ * once per class: through its no-arg constructor when it has one, otherwise through an Objenesis instantiator,
+ * which doesn't invoke any constructor.
+ */
+public class ObjectFactory {
+    private static final Objenesis OBJENESIS = new ObjenesisStd();
+    private static final MethodType OBJECT_FACTORY_TYPE = MethodType.methodType(Object.class);
+    private static final ClassValue<Instantiator> INSTANTIATORS = new ClassValue<Instantiator>() {
+        @Override
+        protected Instantiator computeValue(Class<?> type) {
+            return makeInstantiator(type);
+        }
+    };
+
+    public Object makeInstance(Class<?> clazz) {
+        try {
+            return INSTANTIATORS.get(clazz).newInstance();
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Instantiator makeInstantiator(Class<?> clazz) {
+        for (Constructor<?> constructor : clazz.getDeclaredConstructors()) {
+            if (constructor.getParameterCount() == 0) {
+                constructor.setAccessible(true);
+                return constructorInstantiator(constructor);
+            }
+        }
+        ObjectInstantiator<?> instantiator = OBJENESIS.getInstantiatorOf(clazz);
+        return instantiator::newInstance;
+    }
+
+    private static Instantiator constructorInstantiator(Constructor<?> constructor) {
+        MethodHandle constructorHandle;
+        try {
+            constructorHandle = MethodHandles.lookup().unreflectConstructor(constructor).asType(OBJECT_FACTORY_TYPE);
+        } catch (IllegalAccessException e) {
+            return constructor::newInstance;
+        }
+        return () -> (Object) constructorHandle.invokeExact();
+    }
+
+    @FunctionalInterface
+    private interface Instantiator {
+        Object newInstance() throws Throwable;
+    }
+}
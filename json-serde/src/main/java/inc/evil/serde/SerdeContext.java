@@ -0,0 +1,81 @@
+package inc.evil.serde;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+
+public interface SerdeContext {
+
+    JsonNode serializeValue(Object instance);
+
+    void serializeValue(Object instance, JsonGenerator generator) throws IOException;
+
+    /**
+     * Serializes the value of a field or an array element declared as {@code declaredType}. When declared types are
+     * {@link #isOmittingDeclaredTypes() omitted} and the value is exactly of that type, it is written without type
+     * information.
+     */
+    void serializeDeclaredValue(Object instance, Class<?> declaredType, JsonGenerator generator) throws IOException;
+
+    Object deserializeValue(JsonNode fieldNode) throws Exception;
+
+    Object deserializeValue(JsonParser parser) throws Exception;
+
+    Object deserializeValue(Class<?> resultingClass, JsonParser parser) throws Exception;
+
+    /**
+     * Reads a value written by {@link #serializeDeclaredValue(Object, Class, JsonGenerator)}, falling back to
+     * {@code declaredType} when the json carries no type information.
+     */
+    Object deserializeDeclaredValue(Class<?> declaredType, JsonParser parser) throws Exception;
+
+    Object deserializeDeclaredValue(Class<?> declaredType, JsonNode node) throws Exception;
+
+    /**
+     * Resolves a class name found in json ({@code type} and {@code targetClass} values) to its class, serving the
+     * names already seen from a cache.
+     */
+    Class<?> classForName(String className) throws ClassNotFoundException;
+
+    <T> T deserialize(String json, Class<T> clazz);
+
+    <T> T deserialize(JsonNode node, Class<T> clazz) throws Exception;
+
+    <T> T deserialize(JsonParser parser, Class<T> clazz) throws Exception;
+
+    void addDeserializedInstance(long objectId, Object instance);
+
+    long generateObjectId();
+
+    /**
+     * Whether instances are registered when serialized (and written as references when met again). When this is
+     * {@code false} objects are written without an {@code __id}.
+     */
+    boolean isTrackingReferences();
+
+    /**
+     * Whether values which are exactly of their declared type are written without type information.
+     */
+    boolean isOmittingDeclaredTypes();
+
+    /**
+     * Whether the values written are being counted, for the metrics or the flight recorder events. Serdes which write
+     * some values straight to the generator must then hand them to {@link #serializeDeclaredValue} instead, so that
+     * they're counted like any other value.
+     */
+    default boolean isMeasuringValues() {
+        return false;
+    }
+
+    boolean wasSerialized(Object instance);
+
+    void addSerializedInstance(Object instance, long objectId);
+
+    JsonNode getPreviouslySerializedInstance(Object instance);
+
+    void writePreviouslySerializedInstance(Object instance, JsonGenerator generator) throws IOException;
+
+    Object getPreviouslyDeserializedInstance(long objectId);
+}
@@ -0,0 +1,46 @@
+package inc.evil.serde;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Idle {@link JsonSerde}s of a registry, so that the per-call state is reset and reused instead of being allocated
+ * for every call. Taking and returning a context is lock-free. When no idle context is available a new one is
+ * created, and contexts returned to a full pool are left to the garbage collector.
+ */
+final class SerdeContextPool {
+    private static final int SLOTS = Math.min(64, 2 * Runtime.getRuntime().availableProcessors());
+
+    private final SerdeRegistry serdeRegistry;
+    private final AtomicReferenceArray<JsonSerde> idleContexts = new AtomicReferenceArray<>(SLOTS);
+
+    SerdeContextPool(SerdeRegistry serdeRegistry) {
+        this.serdeRegistry = serdeRegistry;
+    }
+
+    JsonSerde acquire() {
+        int firstSlot = firstSlotOfCurrentThread();
+        for (int i = 0; i < SLOTS; ++i) {
+            int slot = (firstSlot + i) % SLOTS;
+            JsonSerde context = idleContexts.get(slot);
+            if (context != null && idleContexts.compareAndSet(slot, context, null)) {
+                return context;
+            }
+        }
+        return new JsonSerde(serdeRegistry);
+    }
+
+    void release(JsonSerde context) {
+        context.reset();
+        int firstSlot = firstSlotOfCurrentThread();
+        for (int i = 0; i < SLOTS; ++i) {
+            int slot = (firstSlot + i) % SLOTS;
+            if (idleContexts.get(slot) == null && idleContexts.compareAndSet(slot, null, context)) {
+                return;
+            }
+        }
+    }
+
+    private static int firstSlotOfCurrentThread() {
+        return (int) (Thread.currentThread().getId() % SLOTS);
+    }
+}
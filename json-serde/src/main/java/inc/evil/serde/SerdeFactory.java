@@ -0,0 +1,95 @@
+package inc.evil.serde;
+
+import inc.evil.serde.core.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class SerdeFactory {
+    /**
+     * Serdes are stateless, so the serdes of a feature set, and the class dispatch resolved for them, are shared.
+     */
+    private static final ConcurrentMap<Set<SerdeFeature>, SerdeRegistry> REGISTRIES = new ConcurrentHashMap<>();
+
+    public JsonSerde from(Set<SerdeFeature> features) {
+        return new JsonSerde(registryFor(features));
+    }
+
+    public JsonSerde defaultSerde() {
+        return from(EnumSet.noneOf(SerdeFeature.class));
+    }
+
+    SerdeRegistry registryFor(Set<SerdeFeature> features) {
+        Set<SerdeFeature> registryKey = features.isEmpty() ? EnumSet.noneOf(SerdeFeature.class) : EnumSet.copyOf(features);
+        return REGISTRIES.computeIfAbsent(registryKey, SerdeFactory::makeRegistry);
+    }
+
+    private static SerdeRegistry makeRegistry(Set<SerdeFeature> features) {
+        boolean generateClassSerdes = features.contains(SerdeFeature.GENERATE_CLASS_SERDES);
+        if (!features.contains(SerdeFeature.SERIALIZE_COMMON_COLLECTIONS_AS_ARRAYS)) {
+            return new SerdeRegistry(defaultSerdes(generateClassSerdes), features);
+        }
+        List<SerializerDeserializer> serializerDeserializers = Arrays.asList(
+                new NullSerde(),
+                new PrimitiveTypeSerde(),
+                new ArraySerde(Collections.emptyList()),
+                new CommonDateSerde(),
+                new ClassSerde(),
+                new AtomicNumbersSerde(),
+                new BigNumbersSerde(),
+                new EnumSerde(),
+                new StringSerde(),
+                new NumericSerde(),
+                new BooleanSerde()
+        );
+        return new SerdeRegistry(withObjectSerdes(serializerDeserializers, generateClassSerdes), features);
+    }
+
+    private static List<SerializerDeserializer> defaultSerdes(boolean generateClassSerdes) {
+        List<SerializerDeserializer> serializerDeserializers = Arrays.asList(
+                new NullSerde(),
+                new PrimitiveTypeSerde(),
+                new ArraySerde(Arrays.asList(new CommonMapSerde(), new CommonCollectionSerde(), new CollectionWrapperSerde(),
+                        new EnumSetSerde(), new EnumMapSerde(), new BitSetSerde())),
+                new CommonMapSerde(),
+                new CommonCollectionSerde(),
+                new CollectionWrapperSerde(),
+                new EnumSetSerde(),
+                new EnumMapSerde(),
+                new BitSetSerde(),
+                new CommonDateSerde(),
+                new ClassSerde(),
+                new AtomicNumbersSerde(),
+                new BigNumbersSerde(),
+                new EnumSerde(),
+                new StringSerde(),
+                new NumericSerde(),
+                new BooleanSerde()
+        );
+        return withObjectSerdes(serializerDeserializers, generateClassSerdes);
+    }
+
+    private static List<SerializerDeserializer> withObjectSerdes(List<SerializerDeserializer> serdes, boolean generateClassSerdes) {
+        List<SerializerDeserializer> serializerDeserializers = new ArrayList<>(serdes);
+        serializerDeserializers.addAll(CompiledSerdes.SERDES);
+        serializerDeserializers.add(new LambdaSerde(new ObjectSerde()));
+        serializerDeserializers.add(new ObjectSerde(generateClassSerdes));
+        return serializerDeserializers;
+    }
+
+    /**
+     * The serdes generated at compile time by json-serde-processor, loaded once.
+     */
+    private static final class CompiledSerdes {
+        private static final List<SerializerDeserializer> SERDES = load();
+
+        private static List<SerializerDeserializer> load() {
+            List<SerializerDeserializer> serdes = new ArrayList<>();
+            for (SerializerDeserializer serde : ServiceLoader.load(SerializerDeserializer.class)) {
+                serdes.add(serde);
+            }
+            return Collections.unmodifiableList(serdes);
+        }
+    }
+}
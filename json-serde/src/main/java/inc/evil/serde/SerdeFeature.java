@@ -0,0 +1,36 @@
+package inc.evil.serde;
+
+public enum SerdeFeature {
+    SERIALIZE_COMMON_MAPS_AS_ARRAYS,
+    SERIALIZE_COMMON_COLLECTIONS_AS_ARRAYS,
+    /**
+     * Generates a dedicated serializer/deserializer for every class on its first use instead of going through
+     * its fields reflectively for each instance. The produced json is the same.
+     */
+    GENERATE_CLASS_SERDES,
+    /**
+     * Doesn't keep track of the serialized instances, so objects get no {@code __id} and are never written as
+     * references. Meant for object graphs which are trees: an instance reachable through several paths is written
+     * several times, and a cyclic graph fails fast once an instance is met again inside itself, past a few dozen
+     * levels.
+     */
+    DISABLE_REFERENCE_TRACKING,
+    /**
+     * Leaves out the type information of field values and array elements whose class is exactly the declared one:
+     * such objects get no {@code targetClass} and values like dates, enums or arrays aren't wrapped into a
+     * {@code type}/{@code value} pair. The reader restores the type from the declaration, so json written with this
+     * feature must be read with it too.
+     */
+    OMIT_DECLARED_TYPES,
+    /**
+     * Writes every class name (the {@code targetClass} and {@code type} values) and every field name once, into a
+     * {@code names} table at the start of the document, and refers to them by their index in that table everywhere
+     * else. Json written with this feature must be read with it too.
+     */
+    NAME_DICTIONARY,
+    /**
+     * Writes the json without indentation and line breaks. The reader accepts both forms, so this feature is not
+     * needed to read the json back.
+     */
+    COMPACT_OUTPUT,
+}
@@ -0,0 +1,163 @@
+package inc.evil.serde;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An ordered list of serdes together with the resolved dispatch of classes to serdes. The first serde which can
+ * consume a class is looked up once per class and cached, so dispatching a value by its class doesn't probe
+ * {@link SerializerDeserializer#canConsume(Class)} of every serde again. Likewise, json objects carrying a
+ * {@code type} or a {@code targetClass} are dispatched by that name, which is probed against the serdes only the
+ * first time it is seen.
+ */
+final class SerdeRegistry {
+    private static final JsonNode EMPTY_OBJECT = new ObjectNode(JsonNodeFactory.instance);
+    private static final JsonNode EMPTY_ARRAY = new ArrayNode(JsonNodeFactory.instance);
+    private static final int MAX_CACHED_TYPE_NAMES = 4096;
+
+    private final SerializerDeserializer[] serializerDeserializers;
+    private final int nullSerdeIndex;
+    private final int objectShapeSerdeIndex;
+    private final int arrayShapeSerdeIndex;
+    private final ClassValue<Integer> serdeIndexes = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return findSerdeIndex(type);
+        }
+    };
+    private final ConcurrentMap<String, Integer> serdeIndexesByType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> serdeIndexesByTargetClass = new ConcurrentHashMap<>();
+    private final SerdeContextPool contextPool = new SerdeContextPool(this);
+    private final Set<SerdeFeature> features;
+
+    SerdeRegistry(List<SerializerDeserializer> serializerDeserializers) {
+        this(serializerDeserializers, EnumSet.noneOf(SerdeFeature.class));
+    }
+
+    SerdeRegistry(List<SerializerDeserializer> serializerDeserializers, Set<SerdeFeature> features) {
+        this.features = features;
+        this.serializerDeserializers = serializerDeserializers.toArray(new SerializerDeserializer[0]);
+        this.nullSerdeIndex = findSerdeIndex((Class<?>) null);
+        this.objectShapeSerdeIndex = findSerdeIndex(EMPTY_OBJECT);
+        this.arrayShapeSerdeIndex = findSerdeIndex(EMPTY_ARRAY);
+    }
+
+    boolean isTrackingReferences() {
+        return !features.contains(SerdeFeature.DISABLE_REFERENCE_TRACKING);
+    }
+
+    boolean isOmittingDeclaredTypes() {
+        return features.contains(SerdeFeature.OMIT_DECLARED_TYPES);
+    }
+
+    boolean isUsingNameDictionary() {
+        return features.contains(SerdeFeature.NAME_DICTIONARY);
+    }
+
+    boolean isWritingCompactOutput() {
+        return features.contains(SerdeFeature.COMPACT_OUTPUT);
+    }
+
+    /**
+     * Takes a reset context from the pool of this registry, or creates one. It must be {@link #release(JsonSerde)
+     * released} once the call it was taken for is done.
+     */
+    JsonSerde acquire() {
+        return contextPool.acquire();
+    }
+
+    void release(JsonSerde context) {
+        contextPool.release(context);
+    }
+
+    /**
+     * Returns the first serde which can consume the given class (which can be {@code null}), or {@code null}.
+     */
+    SerializerDeserializer serdeFor(Class<?> type) {
+        return serdeAt(indexOf(type));
+    }
+
+    /**
+     * Returns the first serde which can consume either the given class or a value of the given shape (an object
+     * when {@code isObject} is true, an array otherwise), or {@code null}.
+     */
+    SerializerDeserializer serdeFor(Class<?> type, boolean isObject) {
+        return serdeAt(Math.min(indexOf(type), isObject ? objectShapeSerdeIndex : arrayShapeSerdeIndex));
+    }
+
+    /**
+     * Returns the first serde which can consume either the given class or the given json node, or {@code null}.
+     * Only the serdes preceding the one of the class have their {@link SerializerDeserializer#canConsume(JsonNode)}
+     * probed.
+     */
+    SerializerDeserializer serdeFor(Class<?> type, JsonNode node) {
+        int classSerdeIndex = indexOf(type);
+        for (int i = 0; i < classSerdeIndex; ++i) {
+            if (serializerDeserializers[i].canConsume(node)) {
+                return serializerDeserializers[i];
+            }
+        }
+        return serdeAt(classSerdeIndex);
+    }
+
+    /**
+     * Returns the first serde which can consume the given json node, or {@code null}. For objects with either a
+     * {@code type} or a {@code targetClass} the result is cached by that name.
+     */
+    SerializerDeserializer serdeFor(JsonNode node) {
+        if (node.isObject()) {
+            JsonNode type = node.get("type");
+            JsonNode targetClass = node.get("targetClass");
+            if (type != null && type.isTextual() && targetClass == null) {
+                return serdeAt(findSerdeIndex(serdeIndexesByType, type.asText(), node));
+            } else if (targetClass != null && targetClass.isTextual() && type == null) {
+                return serdeAt(findSerdeIndex(serdeIndexesByTargetClass, targetClass.asText(), node));
+            }
+        }
+        return serdeAt(findSerdeIndex(node));
+    }
+
+    private int indexOf(Class<?> type) {
+        return type == null ? nullSerdeIndex : serdeIndexes.get(type);
+    }
+
+    private SerializerDeserializer serdeAt(int index) {
+        return index < serializerDeserializers.length ? serializerDeserializers[index] : null;
+    }
+
+    private int findSerdeIndex(Class<?> type) {
+        int index = 0;
+        while (index < serializerDeserializers.length && !serializerDeserializers[index].canConsume(type)) {
+            ++index;
+        }
+        return index;
+    }
+
+    private int findSerdeIndex(ConcurrentMap<String, Integer> serdeIndexes, String typeName, JsonNode node) {
+        Integer index = serdeIndexes.get(typeName);
+        if (index == null) {
+            index = findSerdeIndex(node);
+            // names come from the json, don't let arbitrary payloads grow the cache without bounds
+            if (serdeIndexes.size() < MAX_CACHED_TYPE_NAMES) {
+                serdeIndexes.putIfAbsent(typeName, index);
+            }
+        }
+        return index;
+    }
+
+    private int findSerdeIndex(JsonNode node) {
+        int index = 0;
+        while (index < serializerDeserializers.length && !serializerDeserializers[index].canConsume(node)) {
+            ++index;
+        }
+        return index;
+    }
+}
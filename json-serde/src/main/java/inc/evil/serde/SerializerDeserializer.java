@@ -0,0 +1,69 @@
+package inc.evil.serde;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+
+public interface SerializerDeserializer {
+
+    void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException;
+
+    default void serialize(Object instance, Class<?> type, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        serialize(instance, generator, serdeContext);
+    }
+
+    /**
+     * Writes {@code instance} without the type information (the {@code type} wrapper or the {@code targetClass}) which
+     * the reader restores from the declared type of the field or array holding it. Only called when the class of the
+     * instance is exactly the declared one and {@link SerdeFeature#OMIT_DECLARED_TYPES} is enabled. Serdes which don't
+     * write any type information can keep the default.
+     */
+    default void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        serialize(instance, generator, serdeContext);
+    }
+
+    default JsonNode serialize(Object instance, SerdeContext serdeContext) {
+        return JsonTrees.write(generator -> serialize(instance, generator, serdeContext));
+    }
+
+    default JsonNode serialize(Object instance, Class<?> type, SerdeContext serdeContext) {
+        return JsonTrees.write(generator -> serialize(instance, type, generator, serdeContext));
+    }
+
+    boolean canConsume(Class<?> clazz);
+
+    /**
+     * For json objects having a textual {@code type} or {@code targetClass} field (but not both), the answer must
+     * depend only on the value of that field, since it is cached by that name.
+     */
+    default boolean canConsume(JsonNode node) {
+        return false;
+    }
+
+    Object deserialize(Class<?> resultingClass, JsonNode node, SerdeContext serdeContext) throws Exception;
+
+    default Object deserialize(JsonNode node, SerdeContext serdeContext) throws Exception {
+        return null;
+    }
+
+    /**
+     * Streaming counterpart of {@link #deserialize(Class, JsonNode, SerdeContext)}. The parser is positioned on the
+     * first token of the value and must be left on its last token.
+     */
+    default Object deserialize(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        return deserialize(resultingClass, (JsonNode) parser.readValueAsTree(), serdeContext);
+    }
+
+    /**
+     * Streaming counterpart of {@link #deserialize(JsonNode, SerdeContext)}. The first field of the json object was
+     * already read into {@code header} (which is what {@link #canConsume(JsonNode)} was asked about), the parser is
+     * positioned on the last token of that field (or already on the name of the next one) and must be left on the
+     * closing token of the object.
+     */
+    default Object deserialize(ObjectNode header, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        return deserialize(JsonTrees.readRemainingFields(header, parser), serdeContext);
+    }
+}
@@ -0,0 +1,67 @@
+package inc.evil.serde;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves the class names found in json ({@code type} and {@code targetClass} values) to classes. Every name is
+ * looked up with {@link Class#forName(String, boolean, ClassLoader)} once per class loader and then served from a
+ * cache. The cache holds its loaders weakly and their classes through weak references, so it can't keep the classes
+ * of other class loaders alive. Names which can't be resolved aren't cached.
+ * <p>
+ * The names resolved by the class loader of this library, which every mapper uses, and by the last other loader seen
+ * are looked up without locking. Only the loaders which take turns take the lock of the weak map of loaders.
+ */
+final class TypeNames {
+    private static final ClassLoader LIBRARY_LOADER = TypeNames.class.getClassLoader();
+    private static final ConcurrentMap<String, WeakReference<Class<?>>> LIBRARY_CLASSES = new ConcurrentHashMap<>();
+    private static final Map<ClassLoader, ConcurrentMap<String, WeakReference<Class<?>>>> CLASSES_BY_LOADER = new WeakHashMap<>();
+    private static volatile LoaderClasses lastLoaderClasses;
+
+    private TypeNames() {
+    }
+
+    static Class<?> forName(String className) throws ClassNotFoundException {
+        return forName(className, LIBRARY_LOADER);
+    }
+
+    static Class<?> forName(String className, ClassLoader classLoader) throws ClassNotFoundException {
+        ConcurrentMap<String, WeakReference<Class<?>>> classes = classesOf(classLoader);
+        WeakReference<Class<?>> reference = classes.get(className);
+        Class<?> type = reference != null ? reference.get() : null;
+        if (type == null) {
+            type = Class.forName(className, true, classLoader);
+            classes.put(className, new WeakReference<>(type));
+        }
+        return type;
+    }
+
+    private static ConcurrentMap<String, WeakReference<Class<?>>> classesOf(ClassLoader classLoader) {
+        if (classLoader == LIBRARY_LOADER) {
+            return LIBRARY_CLASSES;
+        }
+        LoaderClasses last = lastLoaderClasses;
+        if (last != null && classLoader != null && last.loader.get() == classLoader) {
+            return last.classes;
+        }
+        ConcurrentMap<String, WeakReference<Class<?>>> classes;
+        synchronized (CLASSES_BY_LOADER) {
+            classes = CLASSES_BY_LOADER.computeIfAbsent(classLoader, loader -> new ConcurrentHashMap<>());
+        }
+        lastLoaderClasses = new LoaderClasses(classLoader, classes);
+        return classes;
+    }
+
+    private static final class LoaderClasses {
+        private final WeakReference<ClassLoader> loader;
+        private final ConcurrentMap<String, WeakReference<Class<?>>> classes;
+
+        private LoaderClasses(ClassLoader loader, ConcurrentMap<String, WeakReference<Class<?>>> classes) {
+            this.loader = new WeakReference<>(loader);
+            this.classes = classes;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package inc.evil.serde;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Counts the bytes the characters written through it take once encoded as UTF-8.
+ */
+final class Utf8CountingWriter extends FilterWriter {
+    private long count;
+
+    Utf8CountingWriter(Writer out) {
+        super(out);
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        out.write(c);
+        count += utf8Length((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        out.write(cbuf, off, len);
+        for (int i = off; i < off + len; ++i) {
+            count += utf8Length(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        out.write(str, off, len);
+        for (int i = off; i < off + len; ++i) {
+            count += utf8Length(str.charAt(i));
+        }
+    }
+
+    /**
+     * A surrogate pair takes 4 bytes, so each of its halves counts for 2.
+     */
+    private static int utf8Length(char c) {
+        if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800 || Character.isSurrogate(c)) {
+            return 2;
+        }
+        return 3;
+    }
+}
@@ -12,8 +12,8 @@ public class PrimitiveTypeCaster {
         CASTING_FUNCTION.put(Boolean.class, (value) -> (boolean) value);
         CASTING_FUNCTION.put(byte.class, (value) -> ((Number) value).byteValue());
         CASTING_FUNCTION.put(Byte.class, (value) -> ((Number) value).byteValue());
-        CASTING_FUNCTION.put(char.class, (value) -> (char) (((Number) value).intValue()));
-        CASTING_FUNCTION.put(Character.class, (value) -> (char) (((Number) value).intValue()));
+        CASTING_FUNCTION.put(char.class, PrimitiveTypeCaster::toChar);
+        CASTING_FUNCTION.put(Character.class, PrimitiveTypeCaster::toChar);
         CASTING_FUNCTION.put(short.class, (value) -> ((Number) value).shortValue());
         CASTING_FUNCTION.put(Short.class, (value) -> ((Number) value).shortValue());
         CASTING_FUNCTION.put(int.class, (value) -> ((Number) value).intValue());
@@ -26,6 +26,10 @@ public class PrimitiveTypeCaster {
         CASTING_FUNCTION.put(Double.class, (value) -> ((Number) value).doubleValue());
     }
 
+    private static Object toChar(Object value) {
+        return value instanceof Character ? value : (char) ((Number) value).intValue();
+    }
+
     @SuppressWarnings("unchecked")
     public <T> T castValueTo(Object instance, Class<T> targetType) {
         if (instance == null)
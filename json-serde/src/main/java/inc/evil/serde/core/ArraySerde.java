@@ -0,0 +1,243 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.SerializerDeserializer;
+import inc.evil.serde.cast.PrimitiveTypeCaster;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ArraySerde implements ContainerSerde {
+    private static final Class<?>[][] WRAPPER_TYPES = {
+            {Boolean.class, boolean.class},
+            {Byte.class, byte.class},
+            {Character.class, char.class},
+            {Short.class, short.class},
+            {Integer.class, int.class},
+            {Long.class, long.class},
+            {Float.class, float.class},
+            {Double.class, double.class},
+    };
+
+    private final List<SerializerDeserializer> delegates;
+    private final PrimitiveTypeCaster primitiveTypeCaster = new PrimitiveTypeCaster();
+
+    public ArraySerde(List<SerializerDeserializer> delegates) {
+        this.delegates = delegates;
+    }
+
+    @Override
+    public void serialize(Object array, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (array == null) {
+            generator.writeNull();
+            return;
+        }
+        ContainerSerde.writeElements(writeStartOfContainer(array, false, generator, serdeContext), generator, serdeContext);
+    }
+
+    @Override
+    public void serializeUntyped(Object array, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        ContainerSerde.writeElements(writeStartOfContainer(array, true, generator, serdeContext), generator, serdeContext);
+    }
+
+    /**
+     * Arrays of primitives and of their wrappers are written whole, any other array one item at a time.
+     */
+    @Override
+    public ElementWriter writeStartOfContainer(Object array, boolean untyped, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (!untyped) {
+            generator.writeStartObject();
+            generator.writeStringField("type", array.getClass().getName());
+            generator.writeFieldName("value");
+        }
+        generator.writeStartArray();
+        Class<?> componentType = array.getClass().getComponentType();
+        if (!isPrimitiveArray(componentType)) {
+            return new ItemWriter((Object[]) array, untyped);
+        }
+        for (int i = 0; i < Array.getLength(array); ++i) {
+            serdeContext.serializeValue(Array.get(array, i), generator);
+        }
+        generator.writeEndArray();
+        if (!untyped) {
+            generator.writeEndObject();
+        }
+        return null;
+    }
+
+    /**
+     * Writes the item, wrapped into its type unless it's exactly of the component type, and returns whether that
+     * wrapper is left open.
+     */
+    private boolean serializeArrayItem(Object currentItem, Class<?> componentType, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (serdeContext.isOmittingDeclaredTypes() && currentItem != null && currentItem.getClass() == componentType) {
+            serdeContext.serializeDeclaredValue(currentItem, componentType, generator);
+        } else if (currentItem != null && (!isWrapperOf(currentItem.getClass(), componentType))) {
+            generator.writeStartObject();
+            generator.writeStringField("type", currentItem.getClass().getName());
+            generator.writeFieldName("value");
+            serdeContext.serializeValue(currentItem, generator);
+            return true;
+        } else {
+            serdeContext.serializeValue(currentItem, generator);
+        }
+        return false;
+    }
+
+    private boolean isPrimitiveArray(Class<?> componentType) {
+        Class<?> currentComponentType = componentType;
+        while (currentComponentType.isArray()) {
+            currentComponentType = currentComponentType.getComponentType();
+        }
+        return isPrimitiveOrWrapper(currentComponentType);
+    }
+
+    private boolean isPrimitiveOrWrapper(Class<?> clazz) {
+        for (Class<?>[] wrapperType : WRAPPER_TYPES) {
+            if (clazz == wrapperType[0] || clazz == wrapperType[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean canConsume(Class<?> clazz) {
+        return clazz.isArray();
+    }
+
+    @Override
+    public boolean canConsume(JsonNode node) {
+        return node.isArray();
+    }
+
+    /**
+     * The arrays themselves are read whole, since they can only be created once their length is known.
+     */
+    @Override
+    public ElementReader readStartOfContainer(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        for (SerializerDeserializer serde : delegates) {
+            if (serde.canConsume(resultingClass)) {
+                return serde instanceof ContainerSerde
+                        ? ((ContainerSerde) serde).readStartOfContainer(resultingClass, parser, serdeContext)
+                        : new WholeContainer(serde.deserialize(resultingClass, parser, serdeContext));
+            }
+        }
+        return new WholeContainer(deserialize(resultingClass, parser, serdeContext));
+    }
+
+    @Override
+    public Object deserialize(JsonNode node, SerdeContext serdeContext) throws Exception {
+        for (SerializerDeserializer serde : delegates) {
+            if (serde.canConsume(node)) {
+                return serde.deserialize(node, serdeContext);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonNode node, SerdeContext serdeContext) throws Exception {
+        for (SerializerDeserializer serde : delegates) {
+            if (serde.canConsume(resultingClass)) {
+                return serde.deserialize(resultingClass, node, serdeContext);
+            }
+        }
+        ArrayNode arrayNode = (ArrayNode) node;
+        Object resultingArray = Array.newInstance(resultingClass.getComponentType(), arrayNode.size());
+        int length = arrayNode.size();
+        Class<?> componentType = resultingClass.getComponentType();
+        for (int i = 0; i < length; ++i) {
+            Object value = deserializeArrayItem(componentType, arrayNode.get(i), serdeContext);
+            Array.set(resultingArray, i, shouldCastArrayElement(componentType, value) ? primitiveTypeCaster.castValueTo(value, componentType) : value);
+        }
+        return resultingArray;
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        for (SerializerDeserializer serde : delegates) {
+            if (serde.canConsume(resultingClass)) {
+                return serde.deserialize(resultingClass, parser, serdeContext);
+            }
+        }
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            return deserialize(resultingClass, (JsonNode) parser.readValueAsTree(), serdeContext);
+        }
+        Class<?> componentType = resultingClass.getComponentType();
+        List<Object> items = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            Object value = deserializeArrayItem(componentType, parser, serdeContext);
+            items.add(shouldCastArrayElement(componentType, value) ? primitiveTypeCaster.castValueTo(value, componentType) : value);
+        }
+        Object resultingArray = Array.newInstance(componentType, items.size());
+        for (int i = 0; i < items.size(); ++i) {
+            Array.set(resultingArray, i, items.get(i));
+        }
+        return resultingArray;
+    }
+
+    private Object deserializeArrayItem(Class<?> componentType, JsonNode node, SerdeContext serdeContext) throws Exception {
+        if (serdeContext.isOmittingDeclaredTypes()) {
+            return serdeContext.deserializeDeclaredValue(componentType, node);
+        }
+        return serdeContext.deserialize(node, Object.class);
+    }
+
+    private Object deserializeArrayItem(Class<?> componentType, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (serdeContext.isOmittingDeclaredTypes()) {
+            return serdeContext.deserializeDeclaredValue(componentType, parser);
+        }
+        return serdeContext.deserialize(parser, Object.class);
+    }
+
+    private boolean shouldCastArrayElement(Class<?> componentType, Object value) {
+        return componentType.isPrimitive() || (value != null && isWrapperOf(value.getClass(), componentType)) ||
+               (value != null && componentType != value.getClass());
+    }
+
+    private boolean isWrapperOf(Class<?> wrapperType, Class<?> checkedType) {
+        for (Class<?>[] wrapper : WRAPPER_TYPES) {
+            if (wrapperType == wrapper[0] && checkedType == wrapper[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class ItemWriter implements ElementWriter {
+        private final Object[] items;
+        private final boolean untyped;
+        private int index;
+        private boolean itemWrapperOpen;
+
+        private ItemWriter(Object[] items, boolean untyped) {
+            this.items = items;
+            this.untyped = untyped;
+        }
+
+        @Override
+        public boolean writeNextElement(JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+            if (itemWrapperOpen) {
+                generator.writeEndObject();
+                itemWrapperOpen = false;
+            }
+            if (index < items.length) {
+                itemWrapperOpen = serializeArrayItem(items[index++], items.getClass().getComponentType(), generator, serdeContext);
+                return true;
+            }
+            generator.writeEndArray();
+            if (!untyped) {
+                generator.writeEndObject();
+            }
+            return false;
+        }
+    }
+}
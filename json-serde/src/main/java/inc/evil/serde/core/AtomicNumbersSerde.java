@@ -1,24 +1,27 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.LongNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 
+import java.io.IOException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class AtomicNumbersSerde implements SerializerDeserializer {
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
         Number number = (Number) instance;
-        ObjectNode objectNode = new ObjectNode(JsonNodeFactory.instance);
-        objectNode.set("type", new TextNode(instance.getClass().getName()));
-        objectNode.set("value", new LongNode(number.longValue()));
-        return objectNode;
+        generator.writeStartObject();
+        generator.writeStringField("type", instance.getClass().getName());
+        generator.writeNumberField("value", number.longValue());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeNumber(((Number) instance).longValue());
     }
 
     @Override
@@ -33,7 +36,7 @@ public class AtomicNumbersSerde implements SerializerDeserializer {
     @Override
     public Object deserialize(JsonNode node, SerdeContext serdeContext) throws Exception {
         String typeName = node.get("type").asText();
-        return deserialize(Class.forName(typeName), node.get("value"), serdeContext);
+        return deserialize(serdeContext.classForName(typeName), node.get("value"), serdeContext);
     }
 
     @Override
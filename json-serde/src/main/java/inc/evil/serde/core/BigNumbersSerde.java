@@ -1,22 +1,26 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
 public class BigNumbersSerde implements SerializerDeserializer {
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
-        ObjectNode objectNode = new ObjectNode(JsonNodeFactory.instance);
-        objectNode.set("type", new TextNode(instance.getClass().getName()));
-        objectNode.set("value", new TextNode(instance.toString()));
-        return objectNode;
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", instance.getClass().getName());
+        generator.writeStringField("value", instance.toString());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeString(instance.toString());
     }
 
     @Override
@@ -29,7 +33,7 @@ public class BigNumbersSerde implements SerializerDeserializer {
     public Object deserialize(JsonNode node, SerdeContext serdeContext) throws Exception {
         String className = node.get("type").asText();
         JsonNode value = node.get("value");
-        return deserialize(Class.forName(className), value, serdeContext);
+        return deserialize(serdeContext.classForName(className), value, serdeContext);
     }
 
     @Override
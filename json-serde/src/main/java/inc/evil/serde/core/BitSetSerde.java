@@ -0,0 +1,76 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.SerializerDeserializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Serializer and deserializer of {@link BitSet}s, written as the array of 64-bit words of {@link BitSet#toLongArray()}
+ * instead of their internal state:
+ * <pre>
+ * {"type": "java.util.BitSet", "value": [37]}
+ * </pre>
+ * The same words hold the ordinals of the constants of enum sets and the keys of enum maps.
+ */
+public class BitSetSerde implements SerializerDeserializer {
+    @Override
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", instance.getClass().getName());
+        generator.writeFieldName("value");
+        writeWords((BitSet) instance, generator);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        writeWords((BitSet) instance, generator);
+    }
+
+    static void writeWords(BitSet bits, JsonGenerator generator) throws IOException {
+        long[] words = bits.toLongArray();
+        generator.writeArray(words, 0, words.length);
+    }
+
+    static BitSet readWords(JsonNode node) {
+        long[] words = new long[node.size()];
+        for (int i = 0; i < words.length; ++i) {
+            words[i] = node.get(i).asLong();
+        }
+        return BitSet.valueOf(words);
+    }
+
+    static BitSet readWords(JsonParser parser) throws IOException {
+        long[] words = new long[1];
+        int length = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (length == words.length) {
+                words = Arrays.copyOf(words, length * 2);
+            }
+            words[length++] = parser.getLongValue();
+        }
+        return BitSet.valueOf(length == words.length ? words : Arrays.copyOf(words, length));
+    }
+
+    @Override
+    public boolean canConsume(Class<?> type) {
+        return type == BitSet.class;
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonNode node, SerdeContext serdeContext) throws Exception {
+        return node.isArray() ? readWords(node) : serdeContext.deserializeValue(node);
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        return parser.currentToken() == JsonToken.START_ARRAY ? readWords(parser) : serdeContext.deserializeValue(parser);
+    }
+}
@@ -1,28 +1,36 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.BooleanNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 
+import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public class BooleanSerde implements SerializerDeserializer {
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
         if (instance instanceof Boolean) {
-            return BooleanNode.valueOf((Boolean) instance);
+            generator.writeBoolean((Boolean) instance);
         } else if (instance instanceof AtomicBoolean) {
-            ObjectNode objectNode = new ObjectNode(JsonNodeFactory.instance);
-            objectNode.set("type", new TextNode(instance.getClass().getName()));
-            objectNode.set("value", BooleanNode.valueOf(((AtomicBoolean) instance).get()));
-            return objectNode;
+            generator.writeStartObject();
+            generator.writeStringField("type", instance.getClass().getName());
+            generator.writeBooleanField("value", ((AtomicBoolean) instance).get());
+            generator.writeEndObject();
+        } else {
+            throw new IllegalArgumentException(instance.getClass().getName() +
+                                               " can't be serialized by " + getClass().getCanonicalName());
+        }
+    }
+
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (instance instanceof AtomicBoolean) {
+            generator.writeBoolean(((AtomicBoolean) instance).get());
+        } else {
+            serialize(instance, generator, serdeContext);
         }
-        throw new IllegalArgumentException(instance.getClass().getName() +
-                                           " can't be serialized by " + getClass().getCanonicalName());
     }
 
     @Override
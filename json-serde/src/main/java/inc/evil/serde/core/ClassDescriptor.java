@@ -0,0 +1,89 @@
+package inc.evil.serde.core;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Reflection metadata of a class, computed once per class and shared by serialization and deserialization:
+ * the serializable fields in serialization order together with their json names and accessors, and a lookup
+ * of fields by the names they can appear under in json.
+ */
+final class ClassDescriptor {
+    private static final ClassValue<ClassDescriptor> DESCRIPTORS = new ClassValue<ClassDescriptor>() {
+        @Override
+        protected ClassDescriptor computeValue(Class<?> type) {
+            return new ClassDescriptor(type);
+        }
+    };
+
+    private final List<FieldDescriptor> serializableFields = new ArrayList<>();
+    private final Map<String, FieldDescriptor> fieldsByJsonName = new HashMap<>();
+
+    private ClassDescriptor(Class<?> type) {
+        boolean shouldQualifyFieldNames = shouldQualifyFieldNamesFor(type);
+        Class<?> currentClass = type;
+        do {
+            for (Field field : currentClass.getDeclaredFields()) {
+                FieldDescriptor descriptor = new FieldDescriptor(makeFieldName(field, shouldQualifyFieldNames), field);
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    serializableFields.add(descriptor);
+                }
+                fieldsByJsonName.putIfAbsent(field.getName(), descriptor);
+                fieldsByJsonName.put(makeFieldName(field, true), descriptor);
+            }
+        } while ((currentClass = currentClass.getSuperclass()) != null);
+    }
+
+    static ClassDescriptor of(Class<?> type) {
+        return DESCRIPTORS.get(type);
+    }
+
+    List<FieldDescriptor> getSerializableFields() {
+        return serializableFields;
+    }
+
+    FieldDescriptor findField(String jsonName) {
+        return fieldsByJsonName.get(jsonName);
+    }
+
+    private static String makeFieldName(Field field, boolean shouldQualify) {
+        return shouldQualify ? field.getDeclaringClass().getName() + "." + field.getName() : field.getName();
+    }
+
+    private static boolean shouldQualifyFieldNamesFor(Class<?> clazz) {
+        Set<String> fieldNames = new HashSet<>();
+        do {
+            for (Field field : clazz.getDeclaredFields()) {
+                if (!fieldNames.add(field.getName())) {
+                    return true;
+                }
+            }
+        } while ((clazz = clazz.getSuperclass()) != null);
+        return false;
+    }
+
+    static final class FieldDescriptor {
+        private final String jsonName;
+        private final Field field;
+        private final FieldAccessor accessor;
+
+        private FieldDescriptor(String jsonName, Field field) {
+            this.jsonName = jsonName;
+            this.field = field;
+            this.accessor = FieldAccessor.of(field);
+        }
+
+        String getJsonName() {
+            return jsonName;
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        FieldAccessor getAccessor() {
+            return accessor;
+        }
+    }
+}
@@ -1,22 +1,27 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 
+import java.io.IOException;
+
 public class ClassSerde implements SerializerDeserializer {
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
-        if (instance instanceof Class) {
-            ObjectNode objectNode = new ObjectNode(JsonNodeFactory.instance);
-            objectNode.set("type", new TextNode(Class.class.getName()));
-            objectNode.set("value", new TextNode(((Class<?>) instance).getName()));
-            return objectNode;
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (!(instance instanceof Class)) {
+            throw new IllegalArgumentException(instance.getClass().getName() + " can't be serialized by " + getClass().getName());
         }
-        throw new IllegalArgumentException(instance.getClass().getName() + " can't be serialized by " + getClass().getName());
+        generator.writeStartObject();
+        generator.writeStringField("type", Class.class.getName());
+        generator.writeStringField("value", ((Class<?>) instance).getName());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeString(((Class<?>) instance).getName());
     }
 
     @Override
@@ -29,7 +34,7 @@ public class ClassSerde implements SerializerDeserializer {
         if (node.get("value").isNull()) {
             return null;
         }
-        return Class.forName(node.get("value").asText());
+        return serdeContext.classForName(node.get("value").asText());
     }
 
     @Override
@@ -43,6 +48,6 @@ public class ClassSerde implements SerializerDeserializer {
             return deserialize(node, serdeContext);
         }
         String className = node.asText();
-        return Class.forName(className);
+        return serdeContext.classForName(className);
     }
 }
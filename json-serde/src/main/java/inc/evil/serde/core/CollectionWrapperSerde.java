@@ -0,0 +1,407 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import inc.evil.serde.JsonTrees;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.SerializerDeserializer;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Serializer and deserializer of the collections and maps which the JDK hands out from its factory methods instead of
+ * public constructors: the unmodifiable and synchronized wrappers of {@link Collections}, its empty and singleton
+ * collections, {@link Arrays#asList}, {@link Collections#newSetFromMap} and, when running on Java 9 or later, the
+ * immutable collections of {@code List.of}, {@code Set.of} and {@code Map.of}. Rather than their internal state, they
+ * are written with the kind of the wrapper, named after its factory method rather than its internal class, and the value
+ * of a plain collection or map holding the same elements:
+ * <pre>
+ * {"type": "Collections.unmodifiableList", "value": ["Mike", "Dennis"]}
+ * </pre>
+ * and are rebuilt by handing a copy of those elements to the same factory method. The elements are copied into a
+ * {@link java.util.ArrayList}, a {@link java.util.LinkedList} (for lists without random access), a
+ * {@link java.util.LinkedHashSet} or a {@link java.util.LinkedHashMap}, which keep their iteration order, or into a
+ * {@link java.util.TreeSet} or {@link java.util.TreeMap} along with the comparator of sorted ones. Sets built from a
+ * map are written as an object with the class of the {@code map} and the {@code elements}, and the lists of
+ * {@link Arrays#asList} as the array they're backed by, which keeps its component type. The wrappers written with
+ * their class name instead of their kind are still read.
+ */
+public class CollectionWrapperSerde implements SerializerDeserializer {
+    private static final CommonCollectionSerde COLLECTION_SERDE = new CommonCollectionSerde();
+    private static final CommonMapSerde MAP_SERDE = new CommonMapSerde();
+    private static final Map<Class<?>, WrapperType> WRAPPER_TYPES = new HashMap<>();
+    private static final Map<String, Class<?>> WRAPPER_CLASSES = new HashMap<>();
+    private static final Class<?> SET_FROM_MAP = Collections.newSetFromMap(new HashMap<>()).getClass();
+    private static final Class<?> ARRAY_AS_LIST = Arrays.asList().getClass();
+    private static final String SET_FROM_MAP_KIND = "Collections.newSetFromMap";
+
+    static {
+        register("Collections.unmodifiableCollection", Collections.unmodifiableCollection(new ArrayList<>()), ArrayList.class, false, contents -> Collections.unmodifiableCollection((Collection<?>) contents));
+        register("Collections.unmodifiableList", Collections.unmodifiableList(new ArrayList<>()), ArrayList.class, false, contents -> Collections.unmodifiableList((List<?>) contents));
+        register("Collections.unmodifiableList(LinkedList)", Collections.unmodifiableList(new LinkedList<>()), LinkedList.class, false, contents -> Collections.unmodifiableList((List<?>) contents));
+        register("Collections.unmodifiableSet", Collections.unmodifiableSet(new HashSet<>()), LinkedHashSet.class, false, contents -> Collections.unmodifiableSet((Set<?>) contents));
+        register("Collections.unmodifiableSortedSet", Collections.unmodifiableSortedSet(new TreeSet<>()), TreeSet.class, false, contents -> Collections.unmodifiableSortedSet((TreeSet<?>) contents));
+        register("Collections.unmodifiableNavigableSet", Collections.unmodifiableNavigableSet(new TreeSet<>()), TreeSet.class, false, contents -> Collections.unmodifiableNavigableSet((TreeSet<?>) contents));
+        register("Collections.unmodifiableMap", Collections.unmodifiableMap(new HashMap<>()), LinkedHashMap.class, false, contents -> Collections.unmodifiableMap((Map<?, ?>) contents));
+        register("Collections.unmodifiableSortedMap", Collections.unmodifiableSortedMap(new TreeMap<>()), TreeMap.class, false, contents -> Collections.unmodifiableSortedMap((TreeMap<?, ?>) contents));
+        register("Collections.unmodifiableNavigableMap", Collections.unmodifiableNavigableMap(new TreeMap<>()), TreeMap.class, false, contents -> Collections.unmodifiableNavigableMap((TreeMap<?, ?>) contents));
+
+        register("Collections.synchronizedCollection", Collections.synchronizedCollection(new ArrayList<>()), ArrayList.class, true, contents -> Collections.synchronizedCollection((Collection<?>) contents));
+        register("Collections.synchronizedList", Collections.synchronizedList(new ArrayList<>()), ArrayList.class, true, contents -> Collections.synchronizedList((List<?>) contents));
+        register("Collections.synchronizedList(LinkedList)", Collections.synchronizedList(new LinkedList<>()), LinkedList.class, true, contents -> Collections.synchronizedList((List<?>) contents));
+        register("Collections.synchronizedSet", Collections.synchronizedSet(new HashSet<>()), LinkedHashSet.class, true, contents -> Collections.synchronizedSet((Set<?>) contents));
+        register("Collections.synchronizedSortedSet", Collections.synchronizedSortedSet(new TreeSet<>()), TreeSet.class, true, contents -> Collections.synchronizedSortedSet((TreeSet<?>) contents));
+        register("Collections.synchronizedNavigableSet", Collections.synchronizedNavigableSet(new TreeSet<>()), TreeSet.class, true, contents -> Collections.synchronizedNavigableSet((TreeSet<?>) contents));
+        register("Collections.synchronizedMap", Collections.synchronizedMap(new HashMap<>()), LinkedHashMap.class, true, contents -> Collections.synchronizedMap((Map<?, ?>) contents));
+        register("Collections.synchronizedSortedMap", Collections.synchronizedSortedMap(new TreeMap<>()), TreeMap.class, true, contents -> Collections.synchronizedSortedMap((TreeMap<?, ?>) contents));
+        register("Collections.synchronizedNavigableMap", Collections.synchronizedNavigableMap(new TreeMap<>()), TreeMap.class, true, contents -> Collections.synchronizedNavigableMap((TreeMap<?, ?>) contents));
+
+        register("Collections.emptyList", Collections.emptyList(), ArrayList.class, false, contents -> Collections.emptyList());
+        register("Collections.emptySet", Collections.emptySet(), ArrayList.class, false, contents -> Collections.emptySet());
+        register("Collections.emptyMap", Collections.emptyMap(), LinkedHashMap.class, false, contents -> Collections.emptyMap());
+        register("Collections.singletonList", Collections.singletonList(null), ArrayList.class, false, contents -> Collections.singletonList(((List<?>) contents).get(0)));
+        register("Collections.singleton", Collections.singleton(null), ArrayList.class, false, contents -> Collections.singleton(((List<?>) contents).get(0)));
+        register("Collections.singletonMap", Collections.singletonMap(null, null), LinkedHashMap.class, false, contents -> {
+            Map.Entry<?, ?> entry = ((Map<?, ?>) contents).entrySet().iterator().next();
+            return Collections.singletonMap(entry.getKey(), entry.getValue());
+        });
+        register("Arrays.asList", Arrays.asList(), ArrayList.class, false, contents -> Arrays.asList(((List<?>) contents).toArray()));
+        registerImmutableCollections();
+        WRAPPER_CLASSES.put(SET_FROM_MAP_KIND, SET_FROM_MAP);
+    }
+
+    /**
+     * Registers the class of {@code sample} as a wrapper of the given kind. The factory methods handing out several
+     * classes, like the immutable collections of Java 9, register each of them under one kind, whose first class is
+     * the one its name is read as.
+     */
+    private static void register(String kind, Object sample, Class<?> contentType, boolean synchronizedAccess, Rebuilder rebuilder) {
+        Class<?> wrapperClass = WRAPPER_CLASSES.computeIfAbsent(kind, name -> sample.getClass());
+        WrapperType wrapperType = WRAPPER_TYPES.computeIfAbsent(wrapperClass, type -> new WrapperType(kind, contentType, synchronizedAccess, rebuilder));
+        WRAPPER_TYPES.putIfAbsent(sample.getClass(), wrapperType);
+    }
+
+    /**
+     * Returns the wrapper class written as the given kind, or {@code null} when it isn't the kind of any wrapper.
+     */
+    public static Class<?> wrapperClassOf(String kind) {
+        return WRAPPER_CLASSES.get(kind);
+    }
+
+    /**
+     * The immutable collections of Java 9 are looked up by reflection, since this library still runs on Java 8.
+     * {@code List.of} rejects nulls, so lists holding some (made by {@code Stream.toList} of Java 16) are rebuilt with
+     * that method instead.
+     */
+    private static void registerImmutableCollections() {
+        Method listOf;
+        Method setOf;
+        Method mapOfEntries;
+        try {
+            listOf = List.class.getMethod("of", Object[].class);
+            setOf = Set.class.getMethod("of", Object[].class);
+            mapOfEntries = Map.class.getMethod("ofEntries", Map.Entry[].class);
+        } catch (NoSuchMethodException e) {
+            return;
+        }
+        Method streamToList = findStreamToList();
+        Rebuilder listRebuilder = contents -> {
+            List<?> list = (List<?>) contents;
+            return streamToList != null && list.contains(null)
+                    ? streamToList.invoke(list.stream())
+                    : listOf.invoke(null, (Object) list.toArray());
+        };
+        Rebuilder setRebuilder = contents -> setOf.invoke(null, (Object) ((List<?>) contents).toArray());
+        Rebuilder mapRebuilder = contents -> mapOfEntries.invoke(null, (Object) ((Map<?, ?>) contents).entrySet().stream()
+                .map(entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()))
+                .toArray(Map.Entry[]::new));
+        try {
+            for (Object[] elements : Arrays.asList(new Object[0], new Object[]{1}, new Object[]{1, 2, 3})) {
+                register("List.of", listOf.invoke(null, (Object) elements), ArrayList.class, false, listRebuilder);
+                register("Set.of", setOf.invoke(null, (Object) elements), ArrayList.class, false, setRebuilder);
+            }
+            register("Map.of", mapOfEntries.invoke(null, (Object) new Map.Entry[0]), LinkedHashMap.class, false, mapRebuilder);
+            register("Map.of", mapOfEntries.invoke(null, (Object) new Map.Entry[]{new AbstractMap.SimpleImmutableEntry<>(1, 1)}),
+                    LinkedHashMap.class, false, mapRebuilder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Method findStreamToList() {
+        try {
+            return java.util.stream.Stream.class.getMethod("toList");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        try {
+            Field field = type.getDeclaredField(name);
+            field.setAccessible(true);
+            return field;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The only state of a set built from a map which its public methods don't tell is the class of that map, so it's
+     * read from its field, as long as {@code java.base} is open to this library. The field is only made accessible
+     * once the first such set is written, since Java 9 to 15 warn of that access.
+     */
+    private static final class SetFromMapField {
+        private static final Field BACKING_MAP = findField(SET_FROM_MAP, "m");
+    }
+
+    /**
+     * Likewise, the array a list of {@link Arrays#asList} is backed by. Java 8 hands out that array itself from
+     * {@link List#toArray()}, later versions an array of objects.
+     */
+    private static final class ArrayAsListField {
+        private static final Field ARRAY = findField(ARRAY_AS_LIST, "a");
+    }
+
+    @Override
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", instance.getClass() == SET_FROM_MAP ? SET_FROM_MAP_KIND : WRAPPER_TYPES.get(instance.getClass()).kind);
+        generator.writeFieldName("value");
+        if (instance.getClass() == SET_FROM_MAP) {
+            serializeSetFromMap((Set<?>) instance, generator, serdeContext);
+        } else if (instance.getClass() == ARRAY_AS_LIST) {
+            serializeArrayAsList((List<?>) instance, generator, serdeContext);
+        } else if (WRAPPER_TYPES.get(instance.getClass()).synchronizedAccess) {
+            // like any iteration over a synchronized collection, which locks the wrapper itself by default
+            synchronized (instance) {
+                serializeContents(instance, generator, serdeContext);
+            }
+        } else {
+            serializeContents(instance, generator, serdeContext);
+        }
+        generator.writeEndObject();
+    }
+
+    private void serializeContents(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (instance instanceof Map) {
+            Comparator<?> comparator = instance instanceof SortedMap ? ((SortedMap<?, ?>) instance).comparator() : null;
+            MAP_SERDE.serializeValue((Map<?, ?>) instance, comparator, generator, serdeContext);
+        } else {
+            Comparator<?> comparator = instance instanceof SortedSet ? ((SortedSet<?>) instance).comparator() : null;
+            COLLECTION_SERDE.serializeValue((Collection<?>) instance, comparator, generator, serdeContext);
+        }
+    }
+
+    /**
+     * Maps which can't be recreated empty, or which would need their comparator, are replaced by a linked hash map,
+     * which keeps the iteration order of the set. So are the maps which can't be read from the set.
+     */
+    private void serializeSetFromMap(Set<?> set, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        Map<?, ?> backingMap = backingMapOf(set);
+        ContainerType mapType = ContainerType.of(backingMap != null ? backingMap.getClass() : null);
+        boolean recreatable = mapType.isSupported() && mapType.comparatorOf(backingMap) == null;
+        generator.writeStartObject();
+        generator.writeStringField("map", recreatable ? backingMap.getClass().getName() : LinkedHashMap.class.getName());
+        generator.writeFieldName("elements");
+        COLLECTION_SERDE.serializeValue(set, null, generator, serdeContext);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Lists backed by an array of objects are written as their elements alone, any other one along with the component
+     * type of its array.
+     */
+    private void serializeArrayAsList(List<?> list, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        Class<?> componentType = backingArrayOf(list).getClass().getComponentType();
+        if (componentType == Object.class) {
+            COLLECTION_SERDE.serializeValue(list, null, generator, serdeContext);
+            return;
+        }
+        generator.writeStartObject();
+        generator.writeStringField("componentType", componentType.getName());
+        generator.writeFieldName("elements");
+        COLLECTION_SERDE.serializeValue(list, null, generator, serdeContext);
+        generator.writeEndObject();
+    }
+
+    private static Map<?, ?> backingMapOf(Set<?> set) {
+        if (SetFromMapField.BACKING_MAP == null) {
+            return null;
+        }
+        try {
+            return (Map<?, ?>) SetFromMapField.BACKING_MAP.get(set);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object[] backingArrayOf(List<?> list) {
+        if (ArrayAsListField.ARRAY == null) {
+            return list.toArray();
+        }
+        try {
+            return (Object[]) ArrayAsListField.ARRAY.get(list);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean canConsume(Class<?> type) {
+        return type != null && (WRAPPER_TYPES.containsKey(type) || type == SET_FROM_MAP);
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonNode node, SerdeContext serdeContext) throws Exception {
+        if (resultingClass == SET_FROM_MAP) {
+            if (!node.isObject() || !node.has("map")) {
+                return serdeContext.deserializeValue(node);
+            }
+            Class<?> mapType = serdeContext.classForName(node.get("map").asText());
+            return newSetFromMap(mapType, (Collection<?>) COLLECTION_SERDE.deserialize(ArrayList.class, node.get("elements"), serdeContext));
+        } else if (resultingClass == ARRAY_AS_LIST && node.isObject() && node.has("componentType")) {
+            Class<?> componentType = serdeContext.classForName(node.get("componentType").asText());
+            return newArrayAsList(componentType, (Collection<?>) COLLECTION_SERDE.deserialize(ArrayList.class, node.get("elements"), serdeContext));
+        }
+        WrapperType wrapperType = WRAPPER_TYPES.get(resultingClass);
+        return rebuild(wrapperType, wrapperType.contentSerde().deserialize(wrapperType.contentType, node, serdeContext));
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (resultingClass == SET_FROM_MAP) {
+            return deserializeSetFromMap(parser, serdeContext);
+        } else if (resultingClass == ARRAY_AS_LIST && parser.currentToken() == JsonToken.START_OBJECT) {
+            return deserializeArrayAsList(parser, serdeContext);
+        }
+        WrapperType wrapperType = WRAPPER_TYPES.get(resultingClass);
+        return rebuild(wrapperType, wrapperType.contentSerde().deserialize(wrapperType.contentType, parser, serdeContext));
+    }
+
+    private Object deserializeSetFromMap(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return serdeContext.deserializeValue(parser);
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.FIELD_NAME && !isSetFromMapField(parser.getCurrentName())) {
+            // the set wrapped into its type once more, like the items of object arrays are
+            return serdeContext.deserializeValue(JsonTrees.readRemainingFields(new ObjectNode(JsonNodeFactory.instance), parser));
+        }
+        Class<?> mapType = LinkedHashMap.class;
+        Collection<?> elements = Collections.emptyList();
+        while (token == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (fieldName.equals("map")) {
+                mapType = serdeContext.classForName(parser.getText());
+            } else if (fieldName.equals("elements")) {
+                elements = (Collection<?>) COLLECTION_SERDE.deserialize(ArrayList.class, parser, serdeContext);
+            } else {
+                parser.skipChildren();
+            }
+            token = parser.nextToken();
+        }
+        return newSetFromMap(mapType, elements);
+    }
+
+    private static boolean isSetFromMapField(String fieldName) {
+        return fieldName.equals("map") || fieldName.equals("elements");
+    }
+
+    private Object deserializeArrayAsList(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.FIELD_NAME && !isArrayAsListField(parser.getCurrentName())) {
+            // the list wrapped into its type once more, like the items of object arrays are
+            return serdeContext.deserializeValue(JsonTrees.readRemainingFields(new ObjectNode(JsonNodeFactory.instance), parser));
+        }
+        Class<?> componentType = Object.class;
+        Collection<?> elements = Collections.emptyList();
+        while (token == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (fieldName.equals("componentType")) {
+                componentType = serdeContext.classForName(parser.getText());
+            } else if (fieldName.equals("elements")) {
+                elements = (Collection<?>) COLLECTION_SERDE.deserialize(ArrayList.class, parser, serdeContext);
+            } else {
+                parser.skipChildren();
+            }
+            token = parser.nextToken();
+        }
+        return newArrayAsList(componentType, elements);
+    }
+
+    private static boolean isArrayAsListField(String fieldName) {
+        return fieldName.equals("componentType") || fieldName.equals("elements");
+    }
+
+    private static List<?> newArrayAsList(Class<?> componentType, Collection<?> elements) {
+        return Arrays.asList(elements.toArray((Object[]) Array.newInstance(componentType, elements.size())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Object> newSetFromMap(Class<?> mapType, Collection<?> elements) throws ReflectiveOperationException {
+        Set<Object> set = Collections.newSetFromMap((Map<Object, Boolean>) ContainerType.of(mapType).newInstance(elements.size(), null));
+        set.addAll(elements);
+        return set;
+    }
+
+    /**
+     * A wrapper wrapped into its type once more, like the items of object arrays are, comes back already rebuilt.
+     */
+    private static Object rebuild(WrapperType wrapperType, Object contents) throws Exception {
+        if (contents == null || WRAPPER_TYPES.get(contents.getClass()) == wrapperType) {
+            return contents;
+        }
+        return wrapperType.rebuilder.rebuild(contents);
+    }
+
+    private static final class WrapperType {
+        private final String kind;
+        private final Class<?> contentType;
+        private final boolean synchronizedAccess;
+        private final Rebuilder rebuilder;
+
+        private WrapperType(String kind, Class<?> contentType, boolean synchronizedAccess, Rebuilder rebuilder) {
+            this.kind = kind;
+            this.contentType = contentType;
+            this.synchronizedAccess = synchronizedAccess;
+            this.rebuilder = rebuilder;
+        }
+
+        private SerializerDeserializer contentSerde() {
+            return Map.class.isAssignableFrom(contentType) ? MAP_SERDE : COLLECTION_SERDE;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Rebuilder {
+        Object rebuild(Object contents) throws Exception;
+    }
+}
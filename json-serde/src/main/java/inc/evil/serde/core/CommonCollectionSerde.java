@@ -0,0 +1,249 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import inc.evil.serde.JsonTrees;
+import inc.evil.serde.SerdeContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Serializer and deserializer of the collections of {@code java.util} and {@code java.util.concurrent} which can be
+ * recreated from their elements (see {@link ContainerType}), written as a flat array of their elements rather than
+ * field by field. Sorted sets and priority queues holding a comparator are written as an object with the
+ * {@code comparator} and the {@code elements}.
+ */
+public class CommonCollectionSerde implements ContainerSerde {
+    @Override
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        ContainerSerde.writeElements(writeStartOfContainer(instance, false, generator, serdeContext), generator, serdeContext);
+    }
+
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        ContainerSerde.writeElements(writeStartOfContainer(instance, true, generator, serdeContext), generator, serdeContext);
+    }
+
+    @Override
+    public ElementWriter writeStartOfContainer(Object instance, boolean untyped, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (!untyped) {
+            generator.writeStartObject();
+            generator.writeStringField("type", instance.getClass().getName());
+            generator.writeFieldName("value");
+        }
+        Comparator<?> comparator = ContainerType.of(instance.getClass()).comparatorOf(instance);
+        return writeStartOfValue((Collection<?>) instance, comparator, untyped ? 0 : 1, generator, serdeContext);
+    }
+
+    /**
+     * Writes the elements of any collection, along with the given comparator when it isn't {@code null}, the way the
+     * collections of this serde are written.
+     */
+    void serializeValue(Collection<?> collection, Comparator<?> comparator, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        ContainerSerde.writeElements(writeStartOfValue(collection, comparator, 0, generator, serdeContext), generator, serdeContext);
+    }
+
+    private ElementWriter writeStartOfValue(Collection<?> collection, Comparator<?> comparator, int enclosingObjects,
+                                            JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (comparator != null) {
+            generator.writeStartObject();
+            generator.writeFieldName("comparator");
+            serdeContext.serializeValue(comparator, generator);
+            generator.writeFieldName("elements");
+        }
+        generator.writeStartArray();
+        return new ItemWriter(collection.iterator(), comparator != null ? enclosingObjects + 1 : enclosingObjects);
+    }
+
+    @Override
+    public boolean canConsume(Class<?> type) {
+        return type != null && Collection.class.isAssignableFrom(type) && ContainerType.of(type).isSupported();
+    }
+
+    /**
+     * Collections written as an array, or as an object whose comparator (if any can be held) precedes the elements,
+     * are created before their elements are read and get all of them once they're read, so that hashed and sorted
+     * collections only get elements whose state is complete. Any other collection is read whole.
+     */
+    @Override
+    public ElementReader readStartOfContainer(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        ContainerType collectionType = ContainerType.of(resultingClass);
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            return new ItemReader(newCollection(collectionType, null), false);
+        } else if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return new WholeContainer(deserialize(resultingClass, parser, serdeContext));
+        }
+        ObjectNode node = new ObjectNode(JsonNodeFactory.instance);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (fieldName.equals("elements") && token == JsonToken.START_ARRAY && node.size() <= 1
+                    && (node.has("comparator") || (node.size() == 0 && !collectionType.isSorted()))) {
+                Comparator<?> comparator = node.has("comparator")
+                        ? (Comparator<?>) serdeContext.deserialize(node.get("comparator"), Object.class)
+                        : null;
+                return new ItemReader(newCollection(collectionType, comparator), true);
+            }
+            node.set(fieldName, parser.readValueAsTree());
+        }
+        return new WholeContainer(deserialize(resultingClass, node, serdeContext));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> newCollection(ContainerType collectionType, Comparator<?> comparator) throws ReflectiveOperationException {
+        return (Collection<Object>) collectionType.newInstance(0, comparator);
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonNode node, SerdeContext serdeContext) throws Exception {
+        ContainerType collectionType = ContainerType.of(resultingClass);
+        if (node.isArray()) {
+            return deserializeItems(collectionType, null, (ArrayNode) node, serdeContext);
+        } else if (node.isObject() && (node.path("elements").isArray() || (node.size() == 1 && node.has("comparator")))) {
+            Comparator<?> comparator = (Comparator<?>) serdeContext.deserialize(node.get("comparator"), Object.class);
+            ArrayNode elements = node.has("elements") ? (ArrayNode) node.get("elements") : JsonNodeFactory.instance.arrayNode();
+            return deserializeItems(collectionType, comparator, elements, serdeContext);
+        }
+        return serdeContext.deserializeValue(node);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Object> deserializeItems(ContainerType collectionType, Comparator<?> comparator, ArrayNode arrayNode,
+                                                SerdeContext serdeContext) throws Exception {
+        Collection<Object> items = collectionType.isCopyOnWrite()
+                ? new ArrayList<>(arrayNode.size())
+                : (Collection<Object>) collectionType.newInstance(arrayNode.size(), comparator);
+        for (int i = 0; i < arrayNode.size(); ++i) {
+            items.add(serdeContext.deserialize(arrayNode.get(i), Object.class));
+        }
+        return collectionType.isCopyOnWrite() ? copyOf(collectionType, items) : items;
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        ContainerType collectionType = ContainerType.of(resultingClass);
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            return collectionOf(collectionType, null, readItems(parser, serdeContext));
+        } else if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return serdeContext.deserializeValue(parser);
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.FIELD_NAME && !isSortedCollectionField(parser.getCurrentName())) {
+            // the collection wrapped into its type once more, like the items of object arrays are
+            return serdeContext.deserializeValue(JsonTrees.readRemainingFields(new ObjectNode(JsonNodeFactory.instance), parser));
+        }
+        Comparator<?> comparator = null;
+        List<Object> items = new ArrayList<>();
+        while (token == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (fieldName.equals("comparator")) {
+                comparator = (Comparator<?>) serdeContext.deserialize(parser, Object.class);
+            } else if (fieldName.equals("elements")) {
+                items = readItems(parser, serdeContext);
+            } else {
+                parser.skipChildren();
+            }
+            token = parser.nextToken();
+        }
+        return collectionOf(collectionType, comparator, items);
+    }
+
+    private static boolean isSortedCollectionField(String fieldName) {
+        return fieldName.equals("comparator") || fieldName.equals("elements");
+    }
+
+    /**
+     * The length of a streamed array isn't known until its end, so its elements are read into a list first, and the
+     * collection is created with room for all of them.
+     */
+    private static List<Object> readItems(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        List<Object> items = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            items.add(serdeContext.deserialize(parser, Object.class));
+        }
+        return items;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> collectionOf(ContainerType collectionType, Comparator<?> comparator, List<Object> items) throws Exception {
+        if (collectionType.isCopyOnWrite()) {
+            return copyOf(collectionType, items);
+        }
+        Collection<Object> collection = (Collection<Object>) collectionType.newInstance(items.size(), comparator);
+        collection.addAll(items);
+        return collection;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> copyOf(ContainerType collectionType, Collection<Object> items) throws Exception {
+        Collection<Object> collection = (Collection<Object>) collectionType.newInstance(0, null);
+        collection.addAll(items);
+        return collection;
+    }
+
+    private static final class ItemWriter implements ElementWriter {
+        private final Iterator<?> items;
+        private final int enclosingObjects;
+
+        private ItemWriter(Iterator<?> items, int enclosingObjects) {
+            this.items = items;
+            this.enclosingObjects = enclosingObjects;
+        }
+
+        @Override
+        public boolean writeNextElement(JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+            if (items.hasNext()) {
+                serdeContext.serializeValue(items.next(), generator);
+                return true;
+            }
+            generator.writeEndArray();
+            for (int i = 0; i < enclosingObjects; ++i) {
+                generator.writeEndObject();
+            }
+            return false;
+        }
+    }
+
+    private static final class ItemReader implements ElementReader {
+        private final Collection<Object> collection;
+        private final boolean elementsOfObject;
+        private final List<Object> items = new ArrayList<>();
+
+        private ItemReader(Collection<Object> collection, boolean elementsOfObject) {
+            this.collection = collection;
+            this.elementsOfObject = elementsOfObject;
+        }
+
+        @Override
+        public Object getContainer() {
+            return collection;
+        }
+
+        @Override
+        public boolean readNextElement(JsonParser parser, SerdeContext serdeContext) throws Exception {
+            if (parser.nextToken() != JsonToken.END_ARRAY) {
+                items.add(serdeContext.deserializeDeclaredValue(Object.class, parser));
+                return true;
+            }
+            if (elementsOfObject) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+            }
+            collection.addAll(items);
+            return false;
+        }
+    }
+}
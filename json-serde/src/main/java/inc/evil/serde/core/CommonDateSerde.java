@@ -1,12 +1,11 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.time.*;
 import java.util.Arrays;
@@ -23,11 +22,16 @@ public class CommonDateSerde implements SerializerDeserializer {
     };
 
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
-        ObjectNode objectNode = new ObjectNode(JsonNodeFactory.instance);
-        objectNode.set("type", new TextNode(instance.getClass().getName()));
-        objectNode.set("value", new TextNode(instance.toString()));
-        return objectNode;
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", instance.getClass().getName());
+        generator.writeStringField("value", instance.toString());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeString(instance.toString());
     }
 
     @Override
@@ -40,7 +44,7 @@ public class CommonDateSerde implements SerializerDeserializer {
 
     @Override
     public Object deserialize(JsonNode node, SerdeContext serdeContext) throws Exception {
-        return deserialize(Class.forName(node.get("type").asText()), node.get("value"), serdeContext);
+        return deserialize(serdeContext.classForName(node.get("type").asText()), node.get("value"), serdeContext);
     }
 
     @Override
@@ -0,0 +1,492 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import inc.evil.serde.JsonTrees;
+import inc.evil.serde.SerdeContext;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Serializer and deserializer of the maps of {@code java.util} and {@code java.util.concurrent} which can be recreated
+ * from their entries (see {@link ContainerType}). When every key is a string, a number or a constant of one enum, and no
+ * two keys have the same name, the entries are written as a json object with the keys as field names, and the class of
+ * keys other than strings as {@code keyType}:
+ * <pre>
+ * {"keyType": "java.lang.Integer", "entries": {"1": "one", "2": "two"}}
+ * </pre>
+ * Any other map is written as an array of key and value pairs. The comparator of sorted maps is written as
+ * {@code comparator}, next to the entries, and so is {@code "accessOrder": true} for the linked hash maps ordered by
+ * access rather than by insertion.
+ */
+public class CommonMapSerde implements ContainerSerde {
+    private static final Map<Class<?>, Function<String, Object>> KEY_PARSERS = new HashMap<>();
+    // these names are taken for class names and object states by the name dictionary, so they can't be used as keys
+    private static final List<String> RESERVED_KEYS = Arrays.asList("type", "targetClass", "state");
+
+    static {
+        KEY_PARSERS.put(String.class, key -> key);
+        KEY_PARSERS.put(Byte.class, Byte::valueOf);
+        KEY_PARSERS.put(Short.class, Short::valueOf);
+        KEY_PARSERS.put(Integer.class, Integer::valueOf);
+        KEY_PARSERS.put(Long.class, Long::valueOf);
+        KEY_PARSERS.put(Float.class, Float::valueOf);
+        KEY_PARSERS.put(Double.class, Double::valueOf);
+        KEY_PARSERS.put(BigInteger.class, BigInteger::new);
+        KEY_PARSERS.put(BigDecimal.class, BigDecimal::new);
+    }
+
+    @Override
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        ContainerSerde.writeElements(writeStartOfContainer(instance, false, generator, serdeContext), generator, serdeContext);
+    }
+
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        ContainerSerde.writeElements(writeStartOfContainer(instance, true, generator, serdeContext), generator, serdeContext);
+    }
+
+    @Override
+    public ElementWriter writeStartOfContainer(Object instance, boolean untyped, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (!untyped) {
+            generator.writeStartObject();
+            generator.writeStringField("type", instance.getClass().getName());
+            generator.writeFieldName("value");
+        }
+        Comparator<?> comparator = ContainerType.of(instance.getClass()).comparatorOf(instance);
+        return writeStartOfValue((Map<?, ?>) instance, comparator, isAccessOrdered(instance), untyped ? 0 : 1, generator, serdeContext);
+    }
+
+    /**
+     * Writes the entries of any map, along with the given comparator when it isn't {@code null}, the way the maps of
+     * this serde are written.
+     */
+    void serializeValue(Map<?, ?> map, Comparator<?> comparator, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        ContainerSerde.writeElements(writeStartOfValue(map, comparator, false, 0, generator, serdeContext), generator, serdeContext);
+    }
+
+    private ElementWriter writeStartOfValue(Map<?, ?> map, Comparator<?> comparator, boolean accessOrder, int enclosingObjects,
+                                            JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        Class<?> keyType = keyTypeOf(map);
+        if (comparator == null && keyType == null && !accessOrder) {
+            generator.writeStartArray();
+            return new EntryWriter(map.entrySet().iterator(), false, enclosingObjects);
+        }
+        generator.writeStartObject();
+        if (comparator != null) {
+            generator.writeFieldName("comparator");
+            serdeContext.serializeValue(comparator, generator);
+        }
+        if (accessOrder) {
+            generator.writeBooleanField("accessOrder", true);
+        }
+        if (keyType != null && keyType != String.class) {
+            generator.writeStringField("keyType", keyType.getName());
+        }
+        generator.writeFieldName("entries");
+        if (keyType != null) {
+            generator.writeStartObject();
+        } else {
+            generator.writeStartArray();
+        }
+        return new EntryWriter(map.entrySet().iterator(), keyType != null, enclosingObjects + 1);
+    }
+
+    /**
+     * Returns the class shared by all the keys of the map when they can be written as distinct field names, {@code null}
+     * otherwise (and for empty maps, which are smaller as an array). Identity maps may hold equal keys, which would be
+     * parsed back into one, so their keys are never written as field names.
+     */
+    private static Class<?> keyTypeOf(Map<?, ?> map) {
+        if (map instanceof IdentityHashMap) {
+            return null;
+        }
+        Class<?> keyType = null;
+        Set<String> keyNames = new HashSet<>();
+        for (Object key : map.keySet()) {
+            Class<?> type = key instanceof Enum ? ((Enum<?>) key).getDeclaringClass() : key != null ? key.getClass() : null;
+            if (type == null || (keyType != null && type != keyType) || (!type.isEnum() && !KEY_PARSERS.containsKey(type))
+                    || RESERVED_KEYS.contains(keyName(key)) || !keyNames.add(keyName(key))) {
+                return null;
+            }
+            keyType = type;
+        }
+        return keyType;
+    }
+
+    /**
+     * Linked hash maps may be ordered by access rather than by insertion, which their public methods don't tell. It's
+     * read from their field, as long as {@code java.base} is open to this library, or else probed on a clone of the
+     * map, which keeps that order once emptied.
+     */
+    @SuppressWarnings("unchecked")
+    private static boolean isAccessOrdered(Object map) {
+        if (map.getClass() != LinkedHashMap.class) {
+            return false;
+        } else if (AccessOrderField.ACCESS_ORDER != null) {
+            try {
+                return AccessOrderField.ACCESS_ORDER.getBoolean(map);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        Map<Object, Object> probe = (Map<Object, Object>) ((LinkedHashMap<?, ?>) map).clone();
+        probe.clear();
+        Object eldest = new Object();
+        probe.put(eldest, null);
+        probe.put(new Object(), null);
+        probe.get(eldest);
+        return probe.keySet().iterator().next() != eldest;
+    }
+
+    /**
+     * The field is only made accessible once the first linked hash map is written, since Java 9 to 15 warn of that
+     * access.
+     */
+    private static final class AccessOrderField {
+        private static final Field ACCESS_ORDER = findAccessOrderField();
+
+        private static Field findAccessOrderField() {
+            try {
+                Field field = LinkedHashMap.class.getDeclaredField("accessOrder");
+                field.setAccessible(true);
+                return field;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    private static String keyName(Object key) {
+        return key instanceof Enum ? ((Enum<?>) key).name() : key.toString();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parseKey(Class<?> keyType, String name) {
+        if (keyType.isEnum()) {
+            return Enum.valueOf((Class<Enum>) keyType, name);
+        }
+        return KEY_PARSERS.get(keyType).apply(name);
+    }
+
+    @Override
+    public boolean canConsume(Class<?> type) {
+        return type != null && Map.class.isAssignableFrom(type) && ContainerType.of(type).isSupported();
+    }
+
+    /**
+     * Maps written as an array of entries, or as an object whose comparator (if any can be held) and class of keys
+     * precede the entries, are created before their entries are read and get all of them once they're read, so that
+     * hashed and sorted maps only get keys whose state is complete. Any other map is read whole.
+     */
+    @Override
+    public ElementReader readStartOfContainer(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        ContainerType mapType = ContainerType.of(resultingClass);
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            return new EntryReader(newMap(mapType, 0, null, false), null, false);
+        } else if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return new WholeContainer(deserialize(resultingClass, parser, serdeContext));
+        }
+        ObjectNode node = new ObjectNode(JsonNodeFactory.instance);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (fieldName.equals("entries") && (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT)
+                    && precedesStreamedEntries(node, mapType)) {
+                Comparator<?> comparator = node.has("comparator")
+                        ? (Comparator<?>) serdeContext.deserialize(node.get("comparator"), Object.class)
+                        : null;
+                Class<?> keyType = token == JsonToken.START_OBJECT
+                        ? node.has("keyType") ? serdeContext.classForName(node.get("keyType").asText()) : String.class
+                        : null;
+                return new EntryReader(newMap(mapType, 0, comparator, node.path("accessOrder").asBoolean()), keyType, true);
+            }
+            node.set(fieldName, parser.readValueAsTree());
+        }
+        return new WholeContainer(deserialize(resultingClass, node, serdeContext));
+    }
+
+    private static boolean precedesStreamedEntries(ObjectNode node, ContainerType mapType) {
+        Iterator<String> fieldNames = node.fieldNames();
+        while (fieldNames.hasNext()) {
+            String fieldName = fieldNames.next();
+            if (!fieldName.equals("comparator") && !fieldName.equals("keyType") && !fieldName.equals("accessOrder")) {
+                return false;
+            }
+        }
+        return node.has("comparator") || !mapType.isSorted();
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonNode node, SerdeContext serdeContext) throws Exception {
+        ContainerType mapType = ContainerType.of(resultingClass);
+        if (node.isArray()) {
+            return deserializeEntries(newMap(mapType, node.size(), null, false), (ArrayNode) node, serdeContext);
+        } else if (!node.isObject() || !node.has("entries")) {
+            return serdeContext.deserializeValue(node);
+        }
+        Comparator<?> comparator = node.has("comparator")
+                ? (Comparator<?>) serdeContext.deserialize(node.get("comparator"), Object.class)
+                : null;
+        boolean accessOrder = node.path("accessOrder").asBoolean();
+        JsonNode entries = node.get("entries");
+        if (entries.isArray()) {
+            return deserializeEntries(newMap(mapType, entries.size(), comparator, accessOrder), (ArrayNode) entries, serdeContext);
+        }
+        Class<?> keyType = node.has("keyType") ? serdeContext.classForName(node.get("keyType").asText()) : String.class;
+        Map<Object, Object> map = newMap(mapType, entries.size(), comparator, accessOrder);
+        Iterator<Map.Entry<String, JsonNode>> fields = entries.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            map.put(parseKey(keyType, field.getKey()), serdeContext.deserialize(field.getValue(), Object.class));
+        }
+        return map;
+    }
+
+    private Map<Object, Object> deserializeEntries(Map<Object, Object> map, ArrayNode arrayNode, SerdeContext serdeContext) throws Exception {
+        for (int i = 0; i < arrayNode.size(); ++i) {
+            JsonNode currentNode = arrayNode.get(i);
+            Object key = serdeContext.deserialize(currentNode.get("key"), Object.class);
+            Object value = serdeContext.deserialize(currentNode.get("value"), Object.class);
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        ContainerType mapType = ContainerType.of(resultingClass);
+        if (parser.currentToken() == JsonToken.START_ARRAY) {
+            return deserializeEntries(newMap(mapType, 0, null, false), parser, serdeContext);
+        } else if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return serdeContext.deserializeValue(parser);
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.FIELD_NAME && !isMapField(parser.getCurrentName())) {
+            // the map wrapped into its type once more, like the items of object arrays are
+            return serdeContext.deserializeValue(JsonTrees.readRemainingFields(new ObjectNode(JsonNodeFactory.instance), parser));
+        }
+        Comparator<?> comparator = null;
+        Class<?> keyType = String.class;
+        boolean accessOrder = false;
+        Map<Object, Object> map = null;
+        while (token == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (fieldName.equals("comparator")) {
+                comparator = (Comparator<?>) serdeContext.deserialize(parser, Object.class);
+            } else if (fieldName.equals("keyType")) {
+                keyType = serdeContext.classForName(parser.getText());
+            } else if (fieldName.equals("accessOrder")) {
+                accessOrder = parser.getBooleanValue();
+            } else if (fieldName.equals("entries") && parser.currentToken() == JsonToken.START_ARRAY) {
+                map = deserializeEntries(newMap(mapType, 0, comparator, accessOrder), parser, serdeContext);
+            } else if (fieldName.equals("entries")) {
+                map = deserializeFields(newMap(mapType, 0, comparator, accessOrder), keyType, parser, serdeContext);
+            } else {
+                parser.skipChildren();
+            }
+            token = parser.nextToken();
+        }
+        if (map != null && accessOrder && !isAccessOrdered(map)) {
+            // the order came after the entries, which are copied in the order they were read
+            Map<Object, Object> accessOrderedMap = newMap(mapType, map.size(), null, true);
+            accessOrderedMap.putAll(map);
+            return accessOrderedMap;
+        }
+        return map;
+    }
+
+    private static boolean isMapField(String fieldName) {
+        return fieldName.equals("comparator") || fieldName.equals("keyType") || fieldName.equals("accessOrder")
+                || fieldName.equals("entries");
+    }
+
+    private Map<Object, Object> deserializeEntries(Map<Object, Object> map, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            Object key = null;
+            Object value = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (fieldName.equals("key")) {
+                    key = serdeContext.deserialize(parser, Object.class);
+                } else if (fieldName.equals("value")) {
+                    value = serdeContext.deserialize(parser, Object.class);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            map.put(key, value);
+        }
+        return map;
+    }
+
+    private Map<Object, Object> deserializeFields(Map<Object, Object> map, Class<?> keyType, JsonParser parser,
+                                                  SerdeContext serdeContext) throws Exception {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Object key = parseKey(keyType, parser.getCurrentName());
+            parser.nextToken();
+            map.put(key, serdeContext.deserialize(parser, Object.class));
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> newMap(ContainerType mapType, int size, Comparator<?> comparator, boolean accessOrder) throws ReflectiveOperationException {
+        if (accessOrder) {
+            return new LinkedHashMap<>((int) (size / 0.75f) + 1, 0.75f, true);
+        }
+        return (Map<Object, Object>) mapType.newInstance(size, comparator);
+    }
+
+    private static final class EntryWriter implements ElementWriter {
+        private final Iterator<? extends Map.Entry<?, ?>> entries;
+        private final boolean keysAsFieldNames;
+        private final int enclosingObjects;
+        private Map.Entry<?, ?> entry;
+        private boolean keyWritten;
+
+        private EntryWriter(Iterator<? extends Map.Entry<?, ?>> entries, boolean keysAsFieldNames, int enclosingObjects) {
+            this.entries = entries;
+            this.keysAsFieldNames = keysAsFieldNames;
+            this.enclosingObjects = enclosingObjects;
+        }
+
+        /**
+         * The key and the value of an entry written as a pair are written one at a time, closing the pair on the next
+         * call.
+         */
+        @Override
+        public boolean writeNextElement(JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+            if (keyWritten) {
+                keyWritten = false;
+                generator.writeFieldName("value");
+                serdeContext.serializeValue(entry.getValue(), generator);
+                return true;
+            } else if (entry != null && !keysAsFieldNames) {
+                generator.writeEndObject();
+            }
+            if (!entries.hasNext()) {
+                entry = null;
+                if (keysAsFieldNames) {
+                    generator.writeEndObject();
+                } else {
+                    generator.writeEndArray();
+                }
+                for (int i = 0; i < enclosingObjects; ++i) {
+                    generator.writeEndObject();
+                }
+                return false;
+            }
+            entry = entries.next();
+            if (keysAsFieldNames) {
+                generator.writeFieldName(keyName(entry.getKey()));
+                serdeContext.serializeValue(entry.getValue(), generator);
+            } else {
+                generator.writeStartObject();
+                generator.writeFieldName("key");
+                serdeContext.serializeValue(entry.getKey(), generator);
+                keyWritten = true;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads the entries written as pairs one key or value at a time, or the entries written as fields one value at a
+     * time, and puts them into the map once they're all read.
+     */
+    private static final class EntryReader implements ElementReader {
+        private final Map<Object, Object> map;
+        private final Class<?> keyType;
+        private final boolean entriesOfObject;
+        private final List<Object> keysAndValues = new ArrayList<>();
+        private boolean inPair;
+        private Object key;
+        private Object value;
+
+        private EntryReader(Map<Object, Object> map, Class<?> keyType, boolean entriesOfObject) {
+            this.map = map;
+            this.keyType = keyType;
+            this.entriesOfObject = entriesOfObject;
+        }
+
+        @Override
+        public Object getContainer() {
+            return map;
+        }
+
+        @Override
+        public boolean readNextElement(JsonParser parser, SerdeContext serdeContext) throws Exception {
+            if (keyType != null) {
+                if (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    keysAndValues.add(parseKey(keyType, parser.getCurrentName()));
+                    parser.nextToken();
+                    keysAndValues.add(serdeContext.deserializeDeclaredValue(Object.class, parser));
+                    return true;
+                }
+                return readEnd(parser);
+            }
+            while (true) {
+                if (!inPair) {
+                    if (parser.nextToken() != JsonToken.START_OBJECT) {
+                        return readEnd(parser);
+                    }
+                    inPair = true;
+                }
+                if (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    parser.nextToken();
+                    if (fieldName.equals("key")) {
+                        key = serdeContext.deserializeDeclaredValue(Object.class, parser);
+                        return true;
+                    } else if (fieldName.equals("value")) {
+                        value = serdeContext.deserializeDeclaredValue(Object.class, parser);
+                        return true;
+                    }
+                    parser.skipChildren();
+                } else {
+                    keysAndValues.add(key);
+                    keysAndValues.add(value);
+                    key = null;
+                    value = null;
+                    inPair = false;
+                }
+            }
+        }
+
+        private boolean readEnd(JsonParser parser) throws IOException {
+            if (entriesOfObject) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    parser.nextToken();
+                    parser.skipChildren();
+                }
+            }
+            for (int i = 0; i < keysAndValues.size(); i += 2) {
+                map.put(keysAndValues.get(i), keysAndValues.get(i + 1));
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.cast.PrimitiveTypeCaster;
+
+import java.io.IOException;
+
+/**
+ * Base class of the serdes generated at compile time for classes marked with {@link inc.evil.serde.GenerateSerde}.
+ * The json layout (object ids, references, field names) is inherited from {@link ObjectSerde}, the generated
+ * subclass only writes and reads the fields of its class. Fields which the generated code can't access directly
+ * (like private or final ones) go through a {@link FieldHandle}.
+ */
+public abstract class CompiledObjectSerde<T> extends ObjectSerde {
+    private static final PrimitiveTypeCaster PRIMITIVE_TYPE_CASTER = new PrimitiveTypeCaster();
+    private static final NumericSerde NUMERIC_SERDE = new NumericSerde();
+
+    private final Class<T> type;
+
+    protected CompiledObjectSerde(Class<T> type) {
+        this.type = type;
+    }
+
+    @Override
+    public boolean canConsume(Class<?> clazz) {
+        return clazz == type;
+    }
+
+    @Override
+    public boolean canConsume(JsonNode node) {
+        return node.isObject() && node.has("targetClass") && node.get("targetClass").asText().equals(type.getName());
+    }
+
+    @Override
+    protected final void serializeFields(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        writeFields(type.cast(instance), generator, serdeContext);
+    }
+
+    @Override
+    protected final Object makeInstance(Class<?> clazz) {
+        return clazz == type ? newInstance() : super.makeInstance(clazz);
+    }
+
+    @Override
+    protected final void deserializeField(Object instance, String fieldName, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (!readField(type.cast(instance), fieldName, parser, serdeContext)) {
+            super.deserializeField(instance, fieldName, parser, serdeContext);
+        }
+    }
+
+    protected abstract void writeFields(T instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException;
+
+    /**
+     * Reads the field with the given json name and returns {@code true}, or returns {@code false} if the name isn't
+     * one the generated code knows about.
+     */
+    protected abstract boolean readField(T instance, String fieldName, JsonParser parser, SerdeContext serdeContext) throws Exception;
+
+    protected T newInstance() {
+        return type.cast(super.makeInstance(type));
+    }
+
+    protected final FieldHandle field(String declaringClass, String fieldName) {
+        ClassDescriptor.FieldDescriptor field = ClassDescriptor.of(type).findField(declaringClass + "." + fieldName);
+        if (field == null) {
+            throw new IllegalStateException("Field " + fieldName + " was not found in class " + declaringClass);
+        }
+        return new FieldHandle(field.getAccessor());
+    }
+
+    /**
+     * Writes the value straight to the generator, unless the values are being counted, in which case it goes through
+     * the {@link SerdeContext} like any other value.
+     */
+    protected static void writeString(JsonGenerator generator, SerdeContext serdeContext, String value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (serdeContext.isMeasuringValues()) {
+            serdeContext.serializeDeclaredValue(value, String.class, generator);
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    protected static void writeNumber(JsonGenerator generator, SerdeContext serdeContext, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (serdeContext.isMeasuringValues()) {
+            serdeContext.serializeDeclaredValue(value, value.getClass(), generator);
+        } else {
+            NUMERIC_SERDE.serialize(value, generator, null);
+        }
+    }
+
+    protected static void writeBoolean(JsonGenerator generator, SerdeContext serdeContext, Boolean value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (serdeContext.isMeasuringValues()) {
+            serdeContext.serializeDeclaredValue(value, Boolean.class, generator);
+        } else {
+            generator.writeBoolean(value);
+        }
+    }
+
+    protected static int readInt(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return (int) parser.getLongValue();
+        } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return (int) parser.getDoubleValue();
+        }
+        return readValue(parser, serdeContext, int.class);
+    }
+
+    protected static short readShort(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        return (short) readInt(parser, serdeContext);
+    }
+
+    protected static byte readByte(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        return (byte) readInt(parser, serdeContext);
+    }
+
+    protected static char readChar(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        return (char) readInt(parser, serdeContext);
+    }
+
+    protected static long readLong(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return (long) parser.getDoubleValue();
+        }
+        return readValue(parser, serdeContext, long.class);
+    }
+
+    protected static float readFloat(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return (float) parser.getLongValue();
+        } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return (float) parser.getDoubleValue();
+        }
+        return readValue(parser, serdeContext, float.class);
+    }
+
+    protected static double readDouble(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        return readValue(parser, serdeContext, double.class);
+    }
+
+    protected static boolean readBoolean(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (parser.currentToken().isBoolean()) {
+            return parser.getBooleanValue();
+        }
+        return readValue(parser, serdeContext, boolean.class);
+    }
+
+    protected static String readString(JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        return readValue(parser, serdeContext, String.class);
+    }
+
+    protected static <V> V readValue(JsonParser parser, SerdeContext serdeContext, Class<V> valueType) throws Exception {
+        return PRIMITIVE_TYPE_CASTER.castValueTo(serdeContext.deserializeDeclaredValue(valueType, parser), valueType);
+    }
+
+    /**
+     * Access to a field which the generated code can't reach directly.
+     */
+    public static final class FieldHandle {
+        private final FieldAccessor accessor;
+
+        private FieldHandle(FieldAccessor accessor) {
+            this.accessor = accessor;
+        }
+
+        public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+            accessor.serialize(instance, generator, serdeContext);
+        }
+
+        public void deserialize(Object instance, JsonParser parser, SerdeContext serdeContext) throws Exception {
+            accessor.deserialize(instance, parser, serdeContext);
+        }
+    }
+}
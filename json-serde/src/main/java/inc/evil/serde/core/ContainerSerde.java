@@ -0,0 +1,79 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.SerializerDeserializer;
+
+import java.io.IOException;
+
+/**
+ * A serializer and deserializer of containers which can be written and read one element at a time. Past some depth the
+ * context walks them with the same stack of frames as the objects of the {@link ObjectSerde}, so that object graphs
+ * nested through collections, maps and arrays aren't bounded by the size of the call stack either.
+ */
+public interface ContainerSerde extends SerializerDeserializer {
+
+    /**
+     * Writes the container up to its first element and returns the writer of its elements, or writes the whole
+     * container and returns {@code null} when its elements aren't written one at a time.
+     */
+    ElementWriter writeStartOfContainer(Object instance, boolean untyped, JsonGenerator generator, SerdeContext serdeContext) throws IOException;
+
+    /**
+     * Reads the container up to its first element, the parser being on the first token of its value, and returns the
+     * reader of its elements. Containers whose elements can't be read one at a time are read whole.
+     */
+    ElementReader readStartOfContainer(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception;
+
+    static void writeElements(ElementWriter elements, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (elements != null) {
+            while (elements.writeNextElement(generator, serdeContext)) {
+                // the elements are written one at a time
+            }
+        }
+    }
+
+    interface ElementWriter {
+        /**
+         * Writes the next element, whose value is the last thing written, and returns {@code true}, or writes the end of
+         * the container and returns {@code false} when there are no more elements.
+         */
+        boolean writeNextElement(JsonGenerator generator, SerdeContext serdeContext) throws IOException;
+    }
+
+    interface ElementReader {
+        /**
+         * The container being read. It holds its elements once {@link #readNextElement} returned {@code false}.
+         */
+        Object getContainer();
+
+        /**
+         * Reads the next element, whose value is the last thing read, and returns {@code true}, or reads up to the last
+         * token of the container, adds the elements read to it and returns {@code false} when there are no more
+         * elements.
+         */
+        boolean readNextElement(JsonParser parser, SerdeContext serdeContext) throws Exception;
+    }
+
+    /**
+     * The reader of a container which was read whole.
+     */
+    final class WholeContainer implements ElementReader {
+        private final Object container;
+
+        public WholeContainer(Object container) {
+            this.container = container;
+        }
+
+        @Override
+        public Object getContainer() {
+            return container;
+        }
+
+        @Override
+        public boolean readNextElement(JsonParser parser, SerdeContext serdeContext) {
+            return false;
+        }
+    }
+}
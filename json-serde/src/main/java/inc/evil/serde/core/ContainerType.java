@@ -0,0 +1,146 @@
+package inc.evil.serde.core;
+
+import inc.evil.serde.ObjectFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * How the collections or maps of one class of {@code java.util} or {@code java.util.concurrent} are recreated from
+ * their elements: with the no-arg constructor, with the initial capacity when the number of elements is known, or with
+ * the comparator of the sorted ones. Views, wrappers, abstract classes, classes without a public no-arg constructor,
+ * the blocking queues whose capacity is bounded and the properties holding defaults aren't supported, since their state
+ * is more than their elements.
+ */
+final class ContainerType {
+    static final ContainerType UNSUPPORTED = new ContainerType(null, null, null, null);
+
+    private static final List<String> PACKAGES = Arrays.asList("java.util", "java.util.concurrent");
+    private static final List<Class<?>> STATEFUL_TYPES = Arrays.asList(LinkedBlockingQueue.class, LinkedBlockingDeque.class, Properties.class);
+    private static final ClassValue<ContainerType> CONTAINER_TYPES = new ClassValue<ContainerType>() {
+        @Override
+        protected ContainerType computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+    private static final ObjectFactory OBJECT_FACTORY = new ObjectFactory();
+
+    private final Class<?> type;
+    private final Constructor<?> sizedConstructor;
+    private final Constructor<?> comparatorConstructor;
+    private final Method comparatorMethod;
+    private final boolean hashed;
+    private final boolean copyOnWrite;
+
+    private ContainerType(Class<?> type, Constructor<?> sizedConstructor, Constructor<?> comparatorConstructor, Method comparatorMethod) {
+        this.type = type;
+        this.sizedConstructor = sizedConstructor;
+        this.comparatorConstructor = comparatorConstructor;
+        this.comparatorMethod = comparatorMethod;
+        this.hashed = type != null && (HashSet.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type));
+        this.copyOnWrite = type == CopyOnWriteArrayList.class || type == CopyOnWriteArraySet.class;
+    }
+
+    static ContainerType of(Class<?> type) {
+        return type != null ? CONTAINER_TYPES.get(type) : UNSUPPORTED;
+    }
+
+    private static ContainerType resolve(Class<?> type) {
+        boolean container = Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type);
+        if (!container || !PACKAGES.contains(packageOf(type)) || STATEFUL_TYPES.contains(type)
+                || !Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())
+                || findConstructor(type) == null) {
+            return UNSUPPORTED;
+        }
+        Method comparatorMethod = findComparatorMethod(type);
+        Constructor<?> comparatorConstructor = null;
+        if (comparatorMethod != null) {
+            comparatorConstructor = findConstructor(type, Comparator.class);
+            if (comparatorConstructor == null) {
+                comparatorConstructor = findConstructor(type, int.class, Comparator.class);
+            }
+            if (comparatorConstructor == null) {
+                return UNSUPPORTED;
+            }
+        }
+        return new ContainerType(type, findConstructor(type, int.class), comparatorConstructor, comparatorMethod);
+    }
+
+    private static String packageOf(Class<?> type) {
+        int lastDot = type.getName().lastIndexOf('.');
+        return lastDot > 0 ? type.getName().substring(0, lastDot) : "";
+    }
+
+    private static Constructor<?> findConstructor(Class<?> type, Class<?>... parameterTypes) {
+        try {
+            return type.getConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Method findComparatorMethod(Class<?> type) {
+        try {
+            Method method = type.getMethod("comparator");
+            return Comparator.class.isAssignableFrom(method.getReturnType()) ? method : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    boolean isSupported() {
+        return this != UNSUPPORTED;
+    }
+
+    /**
+     * Copy-on-write collections copy their whole array on every single addition, so they're better filled at once.
+     */
+    boolean isCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    /**
+     * Whether the containers of this class may hold a comparator, which must then be known before any element is added.
+     */
+    boolean isSorted() {
+        return comparatorMethod != null;
+    }
+
+    Comparator<?> comparatorOf(Object container) {
+        if (comparatorMethod == null) {
+            return null;
+        }
+        try {
+            return (Comparator<?>) comparatorMethod.invoke(container);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates an empty container able to hold {@code size} elements without growing, {@code 0} meaning that the size
+     * isn't known.
+     */
+    Object newInstance(int size, Comparator<?> comparator) throws ReflectiveOperationException {
+        if (comparator != null) {
+            return comparatorConstructor.getParameterCount() == 1
+                    ? comparatorConstructor.newInstance(comparator)
+                    : comparatorConstructor.newInstance(Math.max(size, 1), comparator);
+        } else if (size > 0 && sizedConstructor != null) {
+            return sizedConstructor.newInstance(hashed ? (int) (size / 0.75f) + 1 : size);
+        }
+        return OBJECT_FACTORY.makeInstance(type);
+    }
+}
@@ -0,0 +1,47 @@
+package inc.evil.serde.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The constants of one enum, by ordinal and by name, looked up once per enum class instead of through
+ * {@code values()} or {@code valueOf} on every read.
+ */
+final class EnumConstants {
+    private static final ClassValue<EnumConstants> ENUM_CONSTANTS = new ClassValue<EnumConstants>() {
+        @Override
+        protected EnumConstants computeValue(Class<?> type) {
+            return new EnumConstants((Enum<?>[]) type.getEnumConstants());
+        }
+    };
+
+    private final Enum<?>[] constants;
+    private final Map<String, Enum<?>> constantsByName;
+
+    private EnumConstants(Enum<?>[] constants) {
+        this.constants = constants;
+        this.constantsByName = new HashMap<>();
+        for (Enum<?> constant : constants) {
+            constantsByName.put(constant.name(), constant);
+        }
+    }
+
+    static EnumConstants of(Class<?> enumClass) {
+        return ENUM_CONSTANTS.get(enumClass);
+    }
+
+    int size() {
+        return constants.length;
+    }
+
+    Enum<?> byOrdinal(int ordinal) {
+        return constants[ordinal];
+    }
+
+    /**
+     * Returns the constant with the given name, or {@code null} if there's none.
+     */
+    Enum<?> byName(String name) {
+        return constantsByName.get(name);
+    }
+}
@@ -0,0 +1,159 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import inc.evil.serde.JsonTrees;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.SerializerDeserializer;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializer and deserializer of {@link EnumMap}s, written as the class of their keys, the bitmask of the ordinals of
+ * the keys they hold, in the words of {@link BitSetSerde}, and the values of those keys in ordinal order:
+ * <pre>
+ * {"keyType": "inc.evil.serde.Season", "keys": [9], "values": [-5, 30]}
+ * </pre>
+ */
+public class EnumMapSerde implements SerializerDeserializer {
+
+    /**
+     * Empty maps have no key to tell the class of their keys, so it's read from their field, as long as
+     * {@code java.base} is open to this library. The field is only made accessible once the first empty map is
+     * written, since Java 9 to 15 warn of that access.
+     */
+    private static final class KeyTypeField {
+        private static final Field KEY_TYPE = findKeyTypeField();
+
+        private static Field findKeyTypeField() {
+            try {
+                Field field = EnumMap.class.getDeclaredField("keyType");
+                field.setAccessible(true);
+                return field;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", instance.getClass().getName());
+        generator.writeFieldName("value");
+        serializeValue((EnumMap<?, ?>) instance, generator, serdeContext);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        serializeValue((EnumMap<?, ?>) instance, generator, serdeContext);
+    }
+
+    private void serializeValue(EnumMap<?, ?> map, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        BitSet keys = new BitSet();
+        for (Enum<?> key : map.keySet()) {
+            keys.set(key.ordinal());
+        }
+        generator.writeStartObject();
+        generator.writeStringField("keyType", keyTypeOf(map).getName());
+        generator.writeFieldName("keys");
+        BitSetSerde.writeWords(keys, generator);
+        generator.writeFieldName("values");
+        generator.writeStartArray();
+        for (Object value : map.values()) {
+            serdeContext.serializeValue(value, generator);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static Class<?> keyTypeOf(EnumMap<?, ?> map) {
+        if (!map.isEmpty()) {
+            return map.keySet().iterator().next().getDeclaringClass();
+        }
+        if (KeyTypeField.KEY_TYPE == null) {
+            throw new IllegalStateException("The key type of an empty enum map can't be read");
+        }
+        try {
+            return (Class<?>) KeyTypeField.KEY_TYPE.get(map);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean canConsume(Class<?> type) {
+        return type == EnumMap.class;
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonNode node, SerdeContext serdeContext) throws Exception {
+        if (!node.isObject() || !node.has("keyType")) {
+            return serdeContext.deserializeValue(node);
+        }
+        JsonNode valueNodes = node.get("values");
+        List<Object> values = new ArrayList<>(valueNodes.size());
+        for (int i = 0; i < valueNodes.size(); ++i) {
+            values.add(serdeContext.deserialize(valueNodes.get(i), Object.class));
+        }
+        return newEnumMap(serdeContext.classForName(node.get("keyType").asText()), BitSetSerde.readWords(node.get("keys")), values);
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return serdeContext.deserializeValue(parser);
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.FIELD_NAME && !isEnumMapField(parser.getCurrentName())) {
+            // the map wrapped into its type once more, like the items of object arrays are
+            return serdeContext.deserializeValue(JsonTrees.readRemainingFields(new ObjectNode(JsonNodeFactory.instance), parser));
+        }
+        Class<?> keyType = null;
+        BitSet keys = new BitSet();
+        List<Object> values = new ArrayList<>();
+        while (token == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (fieldName.equals("keyType")) {
+                keyType = serdeContext.classForName(parser.getText());
+            } else if (fieldName.equals("keys")) {
+                keys = BitSetSerde.readWords(parser);
+            } else if (fieldName.equals("values")) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    values.add(serdeContext.deserialize(parser, Object.class));
+                }
+            } else {
+                parser.skipChildren();
+            }
+            token = parser.nextToken();
+        }
+        return newEnumMap(keyType, keys, values);
+    }
+
+    private static boolean isEnumMapField(String fieldName) {
+        return fieldName.equals("keyType") || fieldName.equals("keys") || fieldName.equals("values");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static EnumMap<?, ?> newEnumMap(Class<?> keyType, BitSet keys, List<Object> values) {
+        EnumConstants constants = EnumConstants.of(keyType);
+        Map map = new EnumMap<>((Class<Enum>) keyType);
+        int index = 0;
+        for (int ordinal = keys.nextSetBit(0); ordinal >= 0; ordinal = keys.nextSetBit(ordinal + 1)) {
+            map.put(constants.byOrdinal(ordinal), values.get(index++));
+        }
+        return (EnumMap<?, ?>) map;
+    }
+}
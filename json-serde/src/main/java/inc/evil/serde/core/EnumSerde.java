@@ -1,25 +1,28 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.JsonNodeFactory;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 
-import java.lang.reflect.Method;
+import java.io.IOException;
 
 public class EnumSerde implements SerializerDeserializer {
 
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
-        if (instance.getClass().isEnum()) {
-            ObjectNode enumNode = new ObjectNode(JsonNodeFactory.instance);
-            enumNode.set("type", new TextNode(instance.getClass().getName()));
-            enumNode.set("value", new TextNode(instance.toString()));
-            return enumNode;
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (!instance.getClass().isEnum()) {
+            throw new IllegalArgumentException(instance.getClass().getName() + " can't be serialized by " + getClass().getName());
         }
-        throw new IllegalArgumentException(instance.getClass().getName() + " can't be serialized by " + getClass().getName());
+        generator.writeStartObject();
+        generator.writeStringField("type", instance.getClass().getName());
+        generator.writeStringField("value", instance.toString());
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeString(instance.toString());
     }
 
     @Override
@@ -32,7 +35,7 @@ public class EnumSerde implements SerializerDeserializer {
         if (node.isObject()) {
             String className = node.get("type").asText();
             JsonNode enumValue = node.get("value");
-            return deserialize(Class.forName(className), enumValue, serdeContext);
+            return deserialize(serdeContext.classForName(className), enumValue, serdeContext);
         }
         String enumValue = node.asText();
         if (enumValue == null || enumValue.equals("null")) {
@@ -42,13 +45,11 @@ public class EnumSerde implements SerializerDeserializer {
     }
 
     private Enum<?> tryGetEnumValue(Class<?> enumClass, String enumValue, SerdeContext serdeContext) {
-        try {
-            Method valueOfMethod = enumClass.getDeclaredMethod("valueOf", String.class);
-            valueOfMethod.setAccessible(true);
-            return (Enum<?>) valueOfMethod.invoke(null, enumValue);
-        } catch (Exception e) {
+        Enum<?> constant = enumClass.isEnum() ? EnumConstants.of(enumClass).byName(enumValue) : null;
+        if (constant == null) {
             throw new EnumDeserializationException("No such enum constant " + enumClass.getName() + "." + enumValue);
         }
+        return constant;
     }
 
     public static class EnumDeserializationException extends RuntimeException {
@@ -0,0 +1,105 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import inc.evil.serde.JsonTrees;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.SerializerDeserializer;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.EnumSet;
+
+/**
+ * Serializer and deserializer of {@link EnumSet}s, written as the class of their constants and the bitmask of the
+ * ordinals of the constants they hold, in the words of {@link BitSetSerde}:
+ * <pre>
+ * {"type": "java.util.RegularEnumSet", "value": {"elementType": "inc.evil.serde.Season", "ordinals": [5]}}
+ * </pre>
+ */
+public class EnumSetSerde implements SerializerDeserializer {
+    @Override
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        EnumSet<?> enumSet = (EnumSet<?>) instance;
+        BitSet ordinals = new BitSet();
+        for (Enum<?> constant : enumSet) {
+            ordinals.set(constant.ordinal());
+        }
+        generator.writeStartObject();
+        generator.writeStringField("type", instance.getClass().getName());
+        generator.writeFieldName("value");
+        generator.writeStartObject();
+        generator.writeStringField("elementType", elementTypeOf(enumSet).getName());
+        generator.writeFieldName("ordinals");
+        BitSetSerde.writeWords(ordinals, generator);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Empty sets have no constant to tell their class, but their complement has all of them.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Class<?> elementTypeOf(EnumSet<?> enumSet) {
+        EnumSet<?> constants = enumSet.isEmpty() ? EnumSet.complementOf((EnumSet) enumSet) : enumSet;
+        return constants.iterator().next().getDeclaringClass();
+    }
+
+    @Override
+    public boolean canConsume(Class<?> type) {
+        return type != null && EnumSet.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonNode node, SerdeContext serdeContext) throws Exception {
+        if (!node.isObject() || !node.has("elementType")) {
+            return serdeContext.deserializeValue(node);
+        }
+        return newEnumSet(serdeContext.classForName(node.get("elementType").asText()), BitSetSerde.readWords(node.get("ordinals")));
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return serdeContext.deserializeValue(parser);
+        }
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.FIELD_NAME && !isEnumSetField(parser.getCurrentName())) {
+            // the set wrapped into its type once more, like the items of object arrays are
+            return serdeContext.deserializeValue(JsonTrees.readRemainingFields(new ObjectNode(JsonNodeFactory.instance), parser));
+        }
+        Class<?> elementType = null;
+        BitSet ordinals = new BitSet();
+        while (token == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (fieldName.equals("elementType")) {
+                elementType = serdeContext.classForName(parser.getText());
+            } else if (fieldName.equals("ordinals")) {
+                ordinals = BitSetSerde.readWords(parser);
+            } else {
+                parser.skipChildren();
+            }
+            token = parser.nextToken();
+        }
+        return newEnumSet(elementType, ordinals);
+    }
+
+    private static boolean isEnumSetField(String fieldName) {
+        return fieldName.equals("elementType") || fieldName.equals("ordinals");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static EnumSet<?> newEnumSet(Class<?> elementType, BitSet ordinals) {
+        EnumConstants constants = EnumConstants.of(elementType);
+        EnumSet enumSet = EnumSet.noneOf((Class<Enum>) elementType);
+        for (int ordinal = ordinals.nextSetBit(0); ordinal >= 0; ordinal = ordinals.nextSetBit(ordinal + 1)) {
+            enumSet.add(constants.byOrdinal(ordinal));
+        }
+        return enumSet;
+    }
+}
@@ -0,0 +1,372 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.cast.PrimitiveTypeCaster;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads and writes a single field through {@link MethodHandle}s. Fields of type int (and the narrower integral
+ * types), long, float, double and boolean get specialized accessors which copy the value between the json
+ * tokens and the field without boxing it. Values which aren't plain json numbers or booleans go through the
+ * generic, boxing path.
+ */
+class FieldAccessor {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final PrimitiveTypeCaster primitiveTypeCaster = new PrimitiveTypeCaster();
+    private final Class<?> type;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private FieldAccessor(Class<?> type, MethodHandle getter, MethodHandle setter) {
+        this.type = type;
+        this.getter = getter.asType(GETTER_TYPE);
+        this.setter = setter.asType(SETTER_TYPE);
+    }
+
+    static FieldAccessor of(Field field) {
+        field.setAccessible(true);
+        if (Modifier.isStatic(field.getModifiers())) {
+            return reflective(field);
+        }
+        MethodHandle getter;
+        MethodHandle setter;
+        try {
+            getter = LOOKUP.unreflectGetter(field);
+            setter = LOOKUP.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            return reflective(field);
+        }
+        Class<?> type = field.getType();
+        if (type == int.class || type == short.class || type == byte.class || type == char.class) {
+            return new IntFieldAccessor(type, getter, setter);
+        } else if (type == long.class) {
+            return new LongFieldAccessor(getter, setter);
+        } else if (type == double.class) {
+            return new DoubleFieldAccessor(getter, setter);
+        } else if (type == float.class) {
+            return new FloatFieldAccessor(getter, setter);
+        } else if (type == boolean.class) {
+            return new BooleanFieldAccessor(getter, setter);
+        }
+        return new FieldAccessor(type, getter, setter);
+    }
+
+    private static FieldAccessor reflective(Field field) {
+        try {
+            MethodHandle get = LOOKUP.findVirtual(Field.class, "get", GETTER_TYPE);
+            MethodHandle set = LOOKUP.findVirtual(Field.class, "set", SETTER_TYPE);
+            return new FieldAccessor(field.getType(), get.bindTo(field), set.bindTo(field));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    Object get(Object instance) {
+        try {
+            return (Object) getter.invokeExact(instance);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    void set(Object instance, Object value) {
+        try {
+            setter.invokeExact(instance, primitiveTypeCaster.castValueTo(value, type));
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        serdeContext.serializeDeclaredValue(get(instance), type, generator);
+    }
+
+    void deserialize(Object instance, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        set(instance, serdeContext.deserializeDeclaredValue(type, parser));
+    }
+
+    void deserialize(Object instance, JsonNode node, SerdeContext serdeContext) throws Exception {
+        set(instance, serdeContext.deserializeDeclaredValue(type, node));
+    }
+
+    static RuntimeException propagate(Throwable e) {
+        if (e instanceof Error) {
+            throw (Error) e;
+        } else if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        return new RuntimeException(e);
+    }
+
+    private static boolean isNumber(JsonToken token) {
+        return token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT;
+    }
+
+    private static final class IntFieldAccessor extends FieldAccessor {
+        private final MethodHandle intGetter;
+        private final MethodHandle intSetter;
+
+        private IntFieldAccessor(Class<?> type, MethodHandle getter, MethodHandle setter) {
+            super(type, getter, setter);
+            this.intGetter = getter.asType(MethodType.methodType(int.class, Object.class));
+            this.intSetter = MethodHandles.explicitCastArguments(setter, MethodType.methodType(void.class, Object.class, int.class));
+        }
+
+        @Override
+        void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+            try {
+                generator.writeNumber((int) intGetter.invokeExact(instance));
+            } catch (IOException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw propagate(e);
+            }
+        }
+
+        @Override
+        void deserialize(Object instance, JsonParser parser, SerdeContext serdeContext) throws Exception {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                setInt(instance, (int) parser.getLongValue());
+            } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                setInt(instance, (int) parser.getDoubleValue());
+            } else {
+                super.deserialize(instance, parser, serdeContext);
+            }
+        }
+
+        @Override
+        void deserialize(Object instance, JsonNode node, SerdeContext serdeContext) throws Exception {
+            if (node.isIntegralNumber()) {
+                setInt(instance, (int) node.asLong());
+            } else if (node.isNumber()) {
+                setInt(instance, (int) node.asDouble());
+            } else {
+                super.deserialize(instance, node, serdeContext);
+            }
+        }
+
+        private void setInt(Object instance, int value) {
+            try {
+                intSetter.invokeExact(instance, value);
+            } catch (Throwable e) {
+                throw propagate(e);
+            }
+        }
+    }
+
+    private static final class LongFieldAccessor extends FieldAccessor {
+        private final MethodHandle longGetter;
+        private final MethodHandle longSetter;
+
+        private LongFieldAccessor(MethodHandle getter, MethodHandle setter) {
+            super(long.class, getter, setter);
+            this.longGetter = getter.asType(MethodType.methodType(long.class, Object.class));
+            this.longSetter = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+        }
+
+        @Override
+        void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+            try {
+                generator.writeNumber((long) longGetter.invokeExact(instance));
+            } catch (IOException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw propagate(e);
+            }
+        }
+
+        @Override
+        void deserialize(Object instance, JsonParser parser, SerdeContext serdeContext) throws Exception {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                setLong(instance, parser.getLongValue());
+            } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                setLong(instance, (long) parser.getDoubleValue());
+            } else {
+                super.deserialize(instance, parser, serdeContext);
+            }
+        }
+
+        @Override
+        void deserialize(Object instance, JsonNode node, SerdeContext serdeContext) throws Exception {
+            if (node.isIntegralNumber()) {
+                setLong(instance, node.asLong());
+            } else if (node.isNumber()) {
+                setLong(instance, (long) node.asDouble());
+            } else {
+                super.deserialize(instance, node, serdeContext);
+            }
+        }
+
+        private void setLong(Object instance, long value) {
+            try {
+                longSetter.invokeExact(instance, value);
+            } catch (Throwable e) {
+                throw propagate(e);
+            }
+        }
+    }
+
+    private static final class DoubleFieldAccessor extends FieldAccessor {
+        private final MethodHandle doubleGetter;
+        private final MethodHandle doubleSetter;
+
+        private DoubleFieldAccessor(MethodHandle getter, MethodHandle setter) {
+            super(double.class, getter, setter);
+            this.doubleGetter = getter.asType(MethodType.methodType(double.class, Object.class));
+            this.doubleSetter = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+        }
+
+        @Override
+        void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+            try {
+                generator.writeNumber((double) doubleGetter.invokeExact(instance));
+            } catch (IOException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw propagate(e);
+            }
+        }
+
+        @Override
+        void deserialize(Object instance, JsonParser parser, SerdeContext serdeContext) throws Exception {
+            if (isNumber(parser.currentToken())) {
+                setDouble(instance, parser.getDoubleValue());
+            } else {
+                super.deserialize(instance, parser, serdeContext);
+            }
+        }
+
+        @Override
+        void deserialize(Object instance, JsonNode node, SerdeContext serdeContext) throws Exception {
+            if (node.isNumber()) {
+                setDouble(instance, node.asDouble());
+            } else {
+                super.deserialize(instance, node, serdeContext);
+            }
+        }
+
+        private void setDouble(Object instance, double value) {
+            try {
+                doubleSetter.invokeExact(instance, value);
+            } catch (Throwable e) {
+                throw propagate(e);
+            }
+        }
+    }
+
+    private static final class FloatFieldAccessor extends FieldAccessor {
+        private final MethodHandle floatGetter;
+        private final MethodHandle floatSetter;
+
+        private FloatFieldAccessor(MethodHandle getter, MethodHandle setter) {
+            super(float.class, getter, setter);
+            this.floatGetter = getter.asType(MethodType.methodType(float.class, Object.class));
+            this.floatSetter = setter.asType(MethodType.methodType(void.class, Object.class, float.class));
+        }
+
+        @Override
+        void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+            try {
+                generator.writeNumber((float) floatGetter.invokeExact(instance));
+            } catch (IOException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw propagate(e);
+            }
+        }
+
+        @Override
+        void deserialize(Object instance, JsonParser parser, SerdeContext serdeContext) throws Exception {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.VALUE_NUMBER_INT) {
+                setFloat(instance, (float) parser.getLongValue());
+            } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                setFloat(instance, (float) parser.getDoubleValue());
+            } else {
+                super.deserialize(instance, parser, serdeContext);
+            }
+        }
+
+        @Override
+        void deserialize(Object instance, JsonNode node, SerdeContext serdeContext) throws Exception {
+            if (node.isIntegralNumber()) {
+                setFloat(instance, (float) node.asLong());
+            } else if (node.isNumber()) {
+                setFloat(instance, (float) node.asDouble());
+            } else {
+                super.deserialize(instance, node, serdeContext);
+            }
+        }
+
+        private void setFloat(Object instance, float value) {
+            try {
+                floatSetter.invokeExact(instance, value);
+            } catch (Throwable e) {
+                throw propagate(e);
+            }
+        }
+    }
+
+    private static final class BooleanFieldAccessor extends FieldAccessor {
+        private final MethodHandle booleanGetter;
+        private final MethodHandle booleanSetter;
+
+        private BooleanFieldAccessor(MethodHandle getter, MethodHandle setter) {
+            super(boolean.class, getter, setter);
+            this.booleanGetter = getter.asType(MethodType.methodType(boolean.class, Object.class));
+            this.booleanSetter = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+        }
+
+        @Override
+        void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+            try {
+                generator.writeBoolean((boolean) booleanGetter.invokeExact(instance));
+            } catch (IOException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw propagate(e);
+            }
+        }
+
+        @Override
+        void deserialize(Object instance, JsonParser parser, SerdeContext serdeContext) throws Exception {
+            if (parser.currentToken().isBoolean()) {
+                setBoolean(instance, parser.getBooleanValue());
+            } else {
+                super.deserialize(instance, parser, serdeContext);
+            }
+        }
+
+        @Override
+        void deserialize(Object instance, JsonNode node, SerdeContext serdeContext) throws Exception {
+            if (node.isBoolean()) {
+                setBoolean(instance, node.booleanValue());
+            } else {
+                super.deserialize(instance, node, serdeContext);
+            }
+        }
+
+        private void setBoolean(Object instance, boolean value) {
+            try {
+                booleanSetter.invokeExact(instance, value);
+            } catch (Throwable e) {
+                throw propagate(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.SerializerDeserializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serializer and deserializer of the state of one class, generated on first use of that class. Every field gets a
+ * writer and a reader chosen up front from its declared type: primitive fields go through their specialized
+ * {@link FieldAccessor}, fields of final JDK types (strings, boxed numbers and booleans) are handed straight to
+ * the serde which handles that type (unless the values are being counted), and only the remaining fields go through
+ * the dynamic dispatch of the {@link SerdeContext}. The produced json is the same as the one produced by
+ * {@link ObjectSerde}.
+ */
+final class GeneratedClassSerde {
+    private static final ClassValue<GeneratedClassSerde> GENERATED = new ClassValue<GeneratedClassSerde>() {
+        @Override
+        protected GeneratedClassSerde computeValue(Class<?> type) {
+            return generate(type);
+        }
+    };
+    private static final GeneratedClassSerde NOT_GENERATED = new GeneratedClassSerde(new FieldWriter[0], new HashMap<>());
+    private static final List<Class<?>> NUMERIC_TYPES = Arrays.asList(
+            Byte.class, Short.class, Character.class, Integer.class, Long.class, Float.class, Double.class
+    );
+    private static final SerializerDeserializer STRING_SERDE = new StringSerde();
+    private static final SerializerDeserializer NUMERIC_SERDE = new NumericSerde();
+    private static final SerializerDeserializer BOOLEAN_SERDE = new BooleanSerde();
+
+    private final FieldWriter[] writers;
+    private final Map<String, FieldReader> readers;
+
+    private GeneratedClassSerde(FieldWriter[] writers, Map<String, FieldReader> readers) {
+        this.writers = writers;
+        this.readers = readers;
+    }
+
+    /**
+     * Returns the generated serde of the given class, or {@code null} when no serde could be generated for it,
+     * in which case the caller should fall back to reflection.
+     */
+    static GeneratedClassSerde of(Class<?> type) {
+        GeneratedClassSerde generatedSerde = GENERATED.get(type);
+        return generatedSerde != NOT_GENERATED ? generatedSerde : null;
+    }
+
+    private static GeneratedClassSerde generate(Class<?> type) {
+        try {
+            List<ClassDescriptor.FieldDescriptor> fields = ClassDescriptor.of(type).getSerializableFields();
+            FieldWriter[] writers = new FieldWriter[fields.size()];
+            Map<String, FieldReader> readers = new HashMap<>();
+            for (int i = 0; i < writers.length; ++i) {
+                ClassDescriptor.FieldDescriptor field = fields.get(i);
+                writers[i] = makeWriter(field);
+                readers.put(field.getJsonName(), makeReader(field));
+            }
+            return new GeneratedClassSerde(writers, readers);
+        } catch (RuntimeException e) {
+            return NOT_GENERATED;
+        }
+    }
+
+    private static FieldWriter makeWriter(ClassDescriptor.FieldDescriptor field) {
+        SerializableString name = new SerializedString(field.getJsonName());
+        FieldAccessor accessor = field.getAccessor();
+        Class<?> type = field.getField().getType();
+        if (type.isPrimitive()) {
+            return (instance, generator, serdeContext) -> {
+                generator.writeFieldName(name);
+                accessor.serialize(instance, generator, serdeContext);
+            };
+        }
+        SerializerDeserializer serde = serdeOfFinalType(type);
+        if (serde != null) {
+            return (instance, generator, serdeContext) -> {
+                generator.writeFieldName(name);
+                Object value = accessor.get(instance);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (serdeContext.isMeasuringValues()) {
+                    serdeContext.serializeDeclaredValue(value, type, generator);
+                } else {
+                    serde.serialize(value, generator, serdeContext);
+                }
+            };
+        }
+        return (instance, generator, serdeContext) -> {
+            generator.writeFieldName(name);
+            accessor.serialize(instance, generator, serdeContext);
+        };
+    }
+
+    private static FieldReader makeReader(ClassDescriptor.FieldDescriptor field) {
+        FieldAccessor accessor = field.getAccessor();
+        Class<?> type = field.getField().getType();
+        if (type == String.class) {
+            return (instance, parser, serdeContext) -> {
+                if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                    accessor.set(instance, parser.getText());
+                } else {
+                    accessor.deserialize(instance, parser, serdeContext);
+                }
+            };
+        } else if (NUMERIC_TYPES.contains(type)) {
+            return (instance, parser, serdeContext) -> {
+                JsonToken token = parser.currentToken();
+                if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+                    accessor.set(instance, parser.getLongValue());
+                } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    accessor.set(instance, parser.getDoubleValue());
+                } else {
+                    accessor.deserialize(instance, parser, serdeContext);
+                }
+            };
+        } else if (type == Boolean.class) {
+            return (instance, parser, serdeContext) -> {
+                if (parser.currentToken().isBoolean()) {
+                    accessor.set(instance, parser.getBooleanValue());
+                } else {
+                    accessor.deserialize(instance, parser, serdeContext);
+                }
+            };
+        }
+        return accessor::deserialize;
+    }
+
+    private static SerializerDeserializer serdeOfFinalType(Class<?> type) {
+        if (type == String.class) {
+            return STRING_SERDE;
+        } else if (NUMERIC_TYPES.contains(type)) {
+            return NUMERIC_SERDE;
+        } else if (type == Boolean.class) {
+            return BOOLEAN_SERDE;
+        }
+        return null;
+    }
+
+    void serializeFields(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        for (FieldWriter writer : writers) {
+            writer.write(instance, generator, serdeContext);
+        }
+    }
+
+    void serializeField(Object instance, int index, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        writers[index].write(instance, generator, serdeContext);
+    }
+
+    /**
+     * Returns the reader of the field with the given json name, or {@code null} if that name isn't one this serde
+     * writes (like the simple name of a field which gets qualified).
+     */
+    FieldReader getReader(String jsonName) {
+        return readers.get(jsonName);
+    }
+
+    @FunctionalInterface
+    interface FieldWriter {
+        void write(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException;
+    }
+
+    @FunctionalInterface
+    interface FieldReader {
+        void read(Object instance, JsonParser parser, SerdeContext serdeContext) throws Exception;
+    }
+}
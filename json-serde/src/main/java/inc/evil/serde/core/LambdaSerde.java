@@ -1,9 +1,11 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 
+import java.io.IOException;
 import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.Method;
 
@@ -15,15 +17,16 @@ public class LambdaSerde implements SerializerDeserializer {
     }
 
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        SerializedLambda serializedLambda;
         try {
             Method writeReplaceMethod = instance.getClass().getDeclaredMethod("writeReplace");
             writeReplaceMethod.setAccessible(true);
-            SerializedLambda serializedLambda = (SerializedLambda) writeReplaceMethod.invoke(instance);
-            return delegate.serialize(serializedLambda, serializedLambda.getClass(), serdeContext);
+            serializedLambda = (SerializedLambda) writeReplaceMethod.invoke(instance);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+        delegate.serialize(serializedLambda, serializedLambda.getClass(), generator, serdeContext);
     }
 
     @Override
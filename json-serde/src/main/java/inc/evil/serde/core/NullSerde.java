@@ -1,14 +1,16 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.NullNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 
+import java.io.IOException;
+
 public class NullSerde implements SerializerDeserializer {
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
-        return NullNode.getInstance();
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeNull();
     }
 
     @Override
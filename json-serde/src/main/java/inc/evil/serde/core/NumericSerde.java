@@ -1,14 +1,13 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.DoubleNode;
-import com.fasterxml.jackson.databind.node.FloatNode;
-import com.fasterxml.jackson.databind.node.IntNode;
-import com.fasterxml.jackson.databind.node.LongNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 import inc.evil.serde.cast.PrimitiveTypeCaster;
 
+import java.io.IOException;
+
 public class NumericSerde implements SerializerDeserializer {
     private static final Class<?>[] NUMERIC_WRAPPER_TYPES = {
             Byte.class,
@@ -21,18 +20,18 @@ public class NumericSerde implements SerializerDeserializer {
     };
 
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
         if (instance instanceof Double) {
-            return new DoubleNode((Double) instance);
+            generator.writeNumber((Double) instance);
         } else if (instance instanceof Float) {
-            return new FloatNode((Float) instance);
+            generator.writeNumber((Float) instance);
         } else if (instance instanceof Long) {
-            return new LongNode((Long) instance);
+            generator.writeNumber((Long) instance);
         } else if (instance instanceof Character) {
-            return new IntNode((Character) instance);
+            generator.writeNumber((Character) instance);
         } else {
             Number number = (Number) instance;
-            return new IntNode(number.intValue());
+            generator.writeNumber(number.intValue());
         }
     }
 
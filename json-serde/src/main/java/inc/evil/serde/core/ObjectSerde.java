@@ -0,0 +1,308 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import inc.evil.serde.JsonTrees;
+import inc.evil.serde.ObjectFactory;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.SerializerDeserializer;
+import inc.evil.serde.cast.PrimitiveTypeCaster;
+
+import java.io.IOException;
+import java.util.*;
+
+public class ObjectSerde implements SerializerDeserializer {
+    private static final String REFERENCE_TO_OBJECT = "__ref";
+    private static final String FIELD_ID = "__id";
+
+    private final ObjectFactory objectFactory = new ObjectFactory();
+    private final PrimitiveTypeCaster primitiveTypeCaster = new PrimitiveTypeCaster();
+    private final boolean generateClassSerdes;
+
+    public ObjectSerde() {
+        this(false);
+    }
+
+    /**
+     * @param generateClassSerdes whether to generate a dedicated serializer/deserializer for each class on its first
+     *                            use instead of going through its fields reflectively every time
+     */
+    public ObjectSerde(boolean generateClassSerdes) {
+        this.generateClassSerdes = generateClassSerdes;
+    }
+
+    @Override
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (writeStartOfObject(instance, false, generator, serdeContext)) {
+            serializeFields(instance, generator, serdeContext);
+            writeEndOfObject(generator);
+        }
+    }
+
+    /**
+     * Writes the object without its {@code targetClass}, which is restored from the declared type on read.
+     */
+    @Override
+    public void serializeUntyped(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (writeStartOfObject(instance, true, generator, serdeContext)) {
+            serializeFields(instance, generator, serdeContext);
+            writeEndOfObject(generator);
+        }
+    }
+
+    /**
+     * Writes the object up to the opening of its {@code state}, or writes a reference to it and returns {@code false}
+     * if it was already serialized. Followed by {@link #serializeField} for every field and by
+     * {@link #writeEndOfObject}, this writes the same json as {@link #serialize(Object, JsonGenerator, SerdeContext)},
+     * but one field at a time, which lets the context walk deep object graphs without recursing.
+     */
+    public boolean writeStartOfObject(Object instance, boolean untyped, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (serdeContext.isTrackingReferences() && serdeContext.wasSerialized(instance)) {
+            serdeContext.writePreviouslySerializedInstance(instance, generator);
+            return false;
+        }
+        generator.writeStartObject();
+        if (!untyped) {
+            generator.writeStringField("targetClass", instance.getClass().getName());
+        }
+        if (serdeContext.isTrackingReferences()) {
+            long objectId = serdeContext.generateObjectId();
+            serdeContext.addSerializedInstance(instance, objectId);
+            generator.writeNumberField(FIELD_ID, objectId);
+        }
+        generator.writeFieldName("state");
+        generator.writeStartObject();
+        return true;
+    }
+
+    public void writeEndOfObject(JsonGenerator generator) throws IOException {
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    public int getFieldCount(Class<?> clazz) {
+        return ClassDescriptor.of(clazz).getSerializableFields().size();
+    }
+
+    /**
+     * Writes the field at the given index, in the order in which {@link #serializeFields} writes them.
+     */
+    public void serializeField(Object instance, int index, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        GeneratedClassSerde generatedSerde = generatedSerdeOf(instance.getClass());
+        if (generatedSerde != null) {
+            generatedSerde.serializeField(instance, index, generator, serdeContext);
+            return;
+        }
+        ClassDescriptor.FieldDescriptor field = ClassDescriptor.of(instance.getClass()).getSerializableFields().get(index);
+        generator.writeFieldName(field.getJsonName());
+        field.getAccessor().serialize(instance, generator, serdeContext);
+    }
+
+    /**
+     * Writes the fields of {@code instance} into the already started {@code state} object.
+     */
+    protected void serializeFields(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        GeneratedClassSerde generatedSerde = generatedSerdeOf(instance.getClass());
+        if (generatedSerde != null) {
+            generatedSerde.serializeFields(instance, generator, serdeContext);
+            return;
+        }
+        for (ClassDescriptor.FieldDescriptor field : ClassDescriptor.of(instance.getClass()).getSerializableFields()) {
+            generator.writeFieldName(field.getJsonName());
+            field.getAccessor().serialize(instance, generator, serdeContext);
+        }
+    }
+
+    @Override
+    public void serialize(Object instance, Class<?> type, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", instance != null ? instance.getClass().getName() : type.getName());
+        generator.writeFieldName("value");
+        serdeContext.serializeValue(instance, generator);
+        generator.writeEndObject();
+    }
+
+    @Override
+    public boolean canConsume(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    public boolean canConsume(JsonNode node) {
+        return node.isObject() && (node.has("type") || node.has("targetClass"));
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonNode node, SerdeContext serdeContext) throws Exception {
+        return serdeContext.deserialize(node, resultingClass);
+    }
+
+    @Override
+    public Object deserialize(JsonNode node, SerdeContext serdeContext) throws Exception {
+        if (node.has("type")) {
+            String className = node.get("type").asText();
+            if (className.equals(REFERENCE_TO_OBJECT)) {
+                return serdeContext.getPreviouslyDeserializedInstance(node.get("value").asLong());
+            }
+            Class<?> resultingClass = serdeContext.classForName(className);
+            return serdeContext.deserialize(node, resultingClass);
+        } else if (node.has("targetClass")) {
+            String className = node.get("targetClass").asText();
+            if (className != null) {
+                Class<?> resultingClass = serdeContext.classForName(className);
+                return tryDeserialize(node, resultingClass, serdeContext);
+            }
+        }
+        throw new IllegalStateException("Could not deserialize node because of missing type information. Json node: " + node);
+    }
+
+    @Override
+    public Object deserialize(Class<?> resultingClass, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        return serdeContext.deserialize(parser, resultingClass);
+    }
+
+    @Override
+    public Object deserialize(ObjectNode header, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        Object instance = deserializeStartOfObject(header, parser, serdeContext);
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            while (deserializeNextField(instance, parser, serdeContext)) {
+                // the fields are read one at a time
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Reads the object up to the opening of its {@code state} and returns the new instance, already registered under
+     * its id, leaving the parser on the start of the state. Anything else (references, typed values, objects whose
+     * fields come in an unexpected order) is read entirely, leaving the parser on the closing token of the object.
+     * The fields of a started object are then read by {@link #deserializeNextField}.
+     */
+    public Object deserializeStartOfObject(ObjectNode header, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (header.has("type") && nextFieldIs("value", parser)) {
+            Object value = deserializeTypedValue(header.get("type").asText(), parser, serdeContext);
+            skipRemainingFields(parser);
+            return value;
+        } else if (header.has("targetClass") && nextField(parser) == JsonToken.FIELD_NAME) {
+            if (parser.getCurrentName().equals(FIELD_ID)) {
+                parser.nextToken();
+                header.set(FIELD_ID, parser.readValueAsTree());
+                parser.nextToken();
+            }
+            if (parser.currentToken() == JsonToken.FIELD_NAME && parser.getCurrentName().equals("state")) {
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    Object instance = makeInstance(serdeContext.classForName(header.get("targetClass").asText()));
+                    registerDeserializedInstance(header, instance, serdeContext);
+                    return instance;
+                }
+                header.set("state", parser.readValueAsTree());
+                parser.nextToken();
+            }
+        }
+        return deserializeBuffered(header, parser, serdeContext);
+    }
+
+    /**
+     * Reads the next field of an object started by {@link #deserializeStartOfObject} and returns {@code true}, or
+     * reads up to the closing token of the object and returns {@code false} when its state has no more fields.
+     */
+    public boolean deserializeNextField(Object instance, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            deserializeField(instance, fieldName, parser, serdeContext);
+            return true;
+        }
+        skipRemainingFields(parser);
+        return false;
+    }
+
+    private Object deserializeBuffered(ObjectNode header, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            JsonTrees.readRemainingFields(header, parser);
+        }
+        return deserialize(header, serdeContext);
+    }
+
+    private Object deserializeTypedValue(String className, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        parser.nextToken();
+        if (className.equals(REFERENCE_TO_OBJECT)) {
+            return serdeContext.getPreviouslyDeserializedInstance(parser.getValueAsLong());
+        }
+        return serdeContext.deserializeValue(serdeContext.classForName(className), parser);
+    }
+
+    protected Object makeInstance(Class<?> clazz) {
+        return objectFactory.makeInstance(clazz);
+    }
+
+    /**
+     * Reads the value of the field with the given json name. The parser is positioned on the first token of the value
+     * and must be left on its last token.
+     */
+    protected void deserializeField(Object instance, String fieldName, JsonParser parser, SerdeContext serdeContext) throws Exception {
+        GeneratedClassSerde generatedSerde = generatedSerdeOf(instance.getClass());
+        GeneratedClassSerde.FieldReader reader = generatedSerde != null ? generatedSerde.getReader(fieldName) : null;
+        if (reader != null) {
+            reader.read(instance, parser, serdeContext);
+        } else {
+            getDeclaredField(fieldName, instance.getClass()).deserialize(instance, parser, serdeContext);
+        }
+    }
+
+    private GeneratedClassSerde generatedSerdeOf(Class<?> clazz) {
+        return generateClassSerdes ? GeneratedClassSerde.of(clazz) : null;
+    }
+
+    private boolean nextFieldIs(String fieldName, JsonParser parser) throws Exception {
+        return parser.nextToken() == JsonToken.FIELD_NAME && parser.getCurrentName().equals(fieldName);
+    }
+
+    private JsonToken nextField(JsonParser parser) throws Exception {
+        return parser.currentToken() == JsonToken.FIELD_NAME ? JsonToken.FIELD_NAME : parser.nextToken();
+    }
+
+    private void skipRemainingFields(JsonParser parser) throws Exception {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    private <T> T tryDeserialize(JsonNode rootNode, Class<T> resultingType, SerdeContext serdeContext) throws Exception {
+        JsonNode stateNode = rootNode.get("state");
+        String resultingClassName = rootNode.get("targetClass").asText();
+        Class<?> resultingClass = serdeContext.classForName(resultingClassName);
+        Object instance = makeInstance(resultingClass);
+        registerDeserializedInstance(rootNode, instance, serdeContext);
+        Iterator<Map.Entry<String, JsonNode>> fields = stateNode.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> fieldEntry = fields.next();
+            JsonNode fieldNode = fieldEntry.getValue();
+            deserializeField(instance, fieldEntry.getKey(), fieldNode, serdeContext);
+        }
+        return primitiveTypeCaster.castValueTo(instance, resultingType);
+    }
+
+    private static void registerDeserializedInstance(JsonNode node, Object instance, SerdeContext serdeContext) {
+        JsonNode objectId = node.get(FIELD_ID);
+        if (objectId != null) {
+            serdeContext.addDeserializedInstance(objectId.asLong(), instance);
+        }
+    }
+
+    private void deserializeField(Object instance, String fieldName, JsonNode fieldNode, SerdeContext serdeContext) throws Exception {
+        getDeclaredField(fieldName, instance.getClass()).deserialize(instance, fieldNode, serdeContext);
+    }
+
+    private FieldAccessor getDeclaredField(String fieldName, Class<?> clazz) {
+        ClassDescriptor.FieldDescriptor field = ClassDescriptor.of(clazz).findField(fieldName);
+        if (field == null) {
+            throw new IllegalStateException("Field " + fieldName + " was not found present in class " + clazz.getName());
+        }
+        return field.getAccessor();
+    }
+}
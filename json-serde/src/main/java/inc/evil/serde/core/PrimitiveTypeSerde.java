@@ -1,14 +1,17 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 
+import java.io.IOException;
+
 public class PrimitiveTypeSerde implements SerializerDeserializer {
 
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
-        return serdeContext.serializeValue(instance);
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        serdeContext.serializeValue(instance, generator);
     }
 
     @Override
@@ -18,6 +21,6 @@ public class PrimitiveTypeSerde implements SerializerDeserializer {
 
     @Override
     public Object deserialize(Class<?> resultingClass, JsonNode node, SerdeContext serdeContext) throws Exception {
-        return serdeContext.deserialize(node.toString(), resultingClass);
+        return serdeContext.deserialize(node, resultingClass);
     }
 }
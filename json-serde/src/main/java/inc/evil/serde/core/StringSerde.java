@@ -1,19 +1,21 @@
 package inc.evil.serde.core;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 import inc.evil.serde.SerdeContext;
 import inc.evil.serde.SerializerDeserializer;
 
+import java.io.IOException;
+
 public class StringSerde implements SerializerDeserializer {
 
     @Override
-    public JsonNode serialize(Object instance, SerdeContext serdeContext) {
-        if (instance instanceof CharSequence) {
-            return new TextNode(instance.toString());
+    public void serialize(Object instance, JsonGenerator generator, SerdeContext serdeContext) throws IOException {
+        if (!(instance instanceof CharSequence)) {
+            throw new IllegalArgumentException(instance.getClass().getName() +
+                                               " can't be serialized by " + getClass().getName());
         }
-        throw new IllegalArgumentException(instance.getClass().getName() +
-                                           " can't be serialized by " + getClass().getName());
+        generator.writeString(instance.toString());
     }
 
     @Override
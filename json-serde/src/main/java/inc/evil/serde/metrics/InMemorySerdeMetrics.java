@@ -0,0 +1,130 @@
+package inc.evil.serde.metrics;
+
+import inc.evil.serde.SerializerDeserializer;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the metrics per class, per serde and over all the calls, in memory.
+ */
+public class InMemorySerdeMetrics implements SerdeMetrics {
+    private final ConcurrentMap<Class<?>, ClassMetrics> classMetrics = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<? extends SerializerDeserializer>, LongAdder> serdeNanos = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder valuesWritten = new LongAdder();
+    private final LongAdder referencesWritten = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    @Override
+    public void valueWritten(Class<?> type, Class<? extends SerializerDeserializer> serde, long nanos) {
+        ClassMetrics metrics = metricsOf(type);
+        metrics.values.increment();
+        metrics.nanos.add(nanos);
+        serdeNanos.computeIfAbsent(serde, key -> new LongAdder()).add(nanos);
+    }
+
+    @Override
+    public void referenceWritten(Class<?> type) {
+        metricsOf(type).references.increment();
+    }
+
+    @Override
+    public void objectSerdeFallback(Class<?> type) {
+        metricsOf(type).objectSerdeFallbacks.increment();
+    }
+
+    @Override
+    public void serializationCompleted(SerializationSummary summary) {
+        calls.increment();
+        valuesWritten.add(summary.getValuesWritten());
+        referencesWritten.add(summary.getReferencesWritten());
+        bytesWritten.add(summary.getBytesWritten());
+        nanos.add(summary.getNanos());
+    }
+
+    /**
+     * The metrics of the given class, which are all zero if no instance of it was written.
+     */
+    public ClassMetrics getClassMetrics(Class<?> type) {
+        return classMetrics.getOrDefault(type, new ClassMetrics());
+    }
+
+    public Map<Class<?>, ClassMetrics> getClassMetrics() {
+        return Collections.unmodifiableMap(classMetrics);
+    }
+
+    /**
+     * The time spent in every serde. Serdes of objects and containers include the time of their nested values.
+     */
+    public Map<Class<? extends SerializerDeserializer>, Long> getSerdeNanos() {
+        Map<Class<? extends SerializerDeserializer>, Long> result = new HashMap<>();
+        serdeNanos.forEach((serde, time) -> result.put(serde, time.sum()));
+        return result;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getValuesWritten() {
+        return valuesWritten.sum();
+    }
+
+    public long getReferencesWritten() {
+        return referencesWritten.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    private ClassMetrics metricsOf(Class<?> type) {
+        return classMetrics.computeIfAbsent(type, key -> new ClassMetrics());
+    }
+
+    public static final class ClassMetrics {
+        private final LongAdder values = new LongAdder();
+        private final LongAdder references = new LongAdder();
+        private final LongAdder objectSerdeFallbacks = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        public long getValuesWritten() {
+            return values.sum();
+        }
+
+        public long getReferencesWritten() {
+            return references.sum();
+        }
+
+        public long getObjectSerdeFallbacks() {
+            return objectSerdeFallbacks.sum();
+        }
+
+        /**
+         * The time spent writing instances of the class, including the values nested into them.
+         */
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "ClassMetrics{" +
+                    "valuesWritten=" + getValuesWritten() +
+                    ", referencesWritten=" + getReferencesWritten() +
+                    ", objectSerdeFallbacks=" + getObjectSerdeFallbacks() +
+                    ", nanos=" + getNanos() +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package inc.evil.serde.metrics;
+
+import inc.evil.serde.SerializerDeserializer;
+
+/**
+ * Receives what happens while serializing, to be forwarded to a metrics system. A {@code JsonMapper} created with a
+ * {@code SerdeMetrics} calls it from every thread which uses the mapper, so implementations must be thread-safe.
+ * Without one, nothing is measured at all. {@link InMemorySerdeMetrics} aggregates everything in memory.
+ */
+public interface SerdeMetrics {
+
+    /**
+     * A value of the given class was written by the given serde in {@code nanos}, which include the values nested
+     * into it. Not called for {@code null}s and for references to instances written earlier.
+     */
+    default void valueWritten(Class<?> type, Class<? extends SerializerDeserializer> serde, long nanos) {
+    }
+
+    /**
+     * An instance of the given class was written as a reference to its first occurrence.
+     */
+    default void referenceWritten(Class<?> type) {
+    }
+
+    /**
+     * No dedicated serde exists for the given class, so its instance was written field by field by
+     * {@code ObjectSerde}. These are the classes which may be worth a {@code @GenerateSerde}.
+     */
+    default void objectSerdeFallback(Class<?> type) {
+    }
+
+    /**
+     * A call to serialize has completed.
+     */
+    default void serializationCompleted(SerializationSummary summary) {
+    }
+}
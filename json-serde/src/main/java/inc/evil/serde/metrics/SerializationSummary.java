@@ -0,0 +1,45 @@
+package inc.evil.serde.metrics;
+
+/**
+ * What a single call to serialize did: the values written (not counting {@code null}s and references), the
+ * references written, the size of the json as UTF-8 bytes and the time the whole call took.
+ */
+public final class SerializationSummary {
+    private final long valuesWritten;
+    private final long referencesWritten;
+    private final long bytesWritten;
+    private final long nanos;
+
+    public SerializationSummary(long valuesWritten, long referencesWritten, long bytesWritten, long nanos) {
+        this.valuesWritten = valuesWritten;
+        this.referencesWritten = referencesWritten;
+        this.bytesWritten = bytesWritten;
+        this.nanos = nanos;
+    }
+
+    public long getValuesWritten() {
+        return valuesWritten;
+    }
+
+    public long getReferencesWritten() {
+        return referencesWritten;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SerializationSummary{" +
+                "valuesWritten=" + valuesWritten +
+                ", referencesWritten=" + referencesWritten +
+                ", bytesWritten=" + bytesWritten +
+                ", nanos=" + nanos +
+                '}';
+    }
+}
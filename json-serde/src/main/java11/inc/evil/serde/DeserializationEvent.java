@@ -0,0 +1,25 @@
+package inc.evil.serde;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("inc.evil.serde.Deserialization")
+@Label("JSON Deserialization")
+@Category("JSON SERDE")
+@Description("A call deserializing an object graph from json")
+final class DeserializationEvent extends jdk.jfr.Event {
+    @Label("Root Class")
+    Class<?> rootClass;
+
+    @Label("Objects Read")
+    @Description("The objects read with an identity, which is none of them without reference tracking")
+    long objectCount;
+
+    @Label("Payload Size")
+    @Description("The bytes read, or the characters when reading text")
+    @DataAmount
+    long payloadSize;
+}
@@ -0,0 +1,84 @@
+package inc.evil.serde;
+
+/**
+ * Emits the JDK Flight Recorder events of the serialization and deserialization calls. This is the Java 11 version
+ * of the class, packaged into {@code META-INF/versions/11} of the multi-release jar. The events are passed around as
+ * {@code Object}s, {@code null} when not recorded.
+ */
+final class FlightRecorderEvents {
+
+    private FlightRecorderEvents() {
+    }
+
+    static Object beginSerialization() {
+        SerializationEvent event = new SerializationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endSerialization(Object startedEvent, Class<?> rootClass, long valueCount, long payloadSize) {
+        if (startedEvent == null) {
+            return;
+        }
+        SerializationEvent event = (SerializationEvent) startedEvent;
+        event.end();
+        if (event.shouldCommit()) {
+            event.rootClass = rootClass;
+            event.valueCount = valueCount;
+            event.payloadSize = payloadSize;
+            event.commit();
+        }
+    }
+
+    static Object beginDeserialization() {
+        DeserializationEvent event = new DeserializationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endDeserialization(Object startedEvent, Class<?> rootClass, long objectCount, long payloadSize) {
+        if (startedEvent == null) {
+            return;
+        }
+        DeserializationEvent event = (DeserializationEvent) startedEvent;
+        event.end();
+        if (event.shouldCommit()) {
+            event.rootClass = rootClass;
+            event.objectCount = objectCount;
+            event.payloadSize = payloadSize;
+            event.commit();
+        }
+    }
+
+    static boolean isRecordingValues() {
+        return new SlowValueEvent().isEnabled();
+    }
+
+    static Object beginValue() {
+        SlowValueEvent event = new SlowValueEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endValue(Object startedEvent, Class<?> type, Class<?> serde) {
+        if (startedEvent == null) {
+            return;
+        }
+        SlowValueEvent event = (SlowValueEvent) startedEvent;
+        event.end();
+        if (event.shouldCommit()) {
+            event.valueClass = type;
+            event.serde = serde;
+            event.commit();
+        }
+    }
+}
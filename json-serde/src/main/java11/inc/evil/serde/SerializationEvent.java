@@ -0,0 +1,25 @@
+package inc.evil.serde;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("inc.evil.serde.Serialization")
+@Label("JSON Serialization")
+@Category("JSON SERDE")
+@Description("A call serializing an object graph to json")
+final class SerializationEvent extends jdk.jfr.Event {
+    @Label("Root Class")
+    Class<?> rootClass;
+
+    @Label("Values Written")
+    @Description("The values written, not counting nulls and references to instances written before")
+    long valueCount;
+
+    @Label("Payload Size")
+    @Description("The size of the json, as UTF-8")
+    @DataAmount
+    long payloadSize;
+}
@@ -0,0 +1,25 @@
+package inc.evil.serde;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Disabled by default: when enabled, every value written has its time measured, whether or not it ends up recorded.
+ */
+@Name("inc.evil.serde.SlowValueSerialization")
+@Label("Slow JSON Value Serialization")
+@Category("JSON SERDE")
+@Description("A value whose serialization, including the values nested into it, took longer than the threshold")
+@Enabled(false)
+@Threshold("10 ms")
+final class SlowValueEvent extends jdk.jfr.Event {
+    @Label("Value Class")
+    Class<?> valueClass;
+
+    @Label("Serde")
+    Class<?> serde;
+}
@@ -0,0 +1,192 @@
+package inc.evil.serde;
+
+import inc.evil.serde.CollectionsSerdeTest.ByLength;
+import inc.evil.serde.CollectionsSerdeTest.User;
+import inc.evil.serde.extension.JsonFile;
+import inc.evil.serde.extension.JsonFileParameterSupplier;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static inc.evil.serde.cast.TestUtils.assertJsonEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(JsonFileParameterSupplier.class)
+public class CollectionWrappersSerdeTest {
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldBeAbleToSerializeToJson_collectionWrappers(@JsonFile("/payloads/collection-wrappers.json") String expectedJson) {
+        WrapperFields wrapperFields = new WrapperFields(Collections.unmodifiableList(new ArrayList<>(Arrays.asList("Mike", "Dennis"))),
+                Collections.singletonMap("Mike", 42), Collections.emptySet());
+
+        String actualJson = jsonMapper.serialize(wrapperFields);
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_collectionWrappers(@JsonFile("/payloads/collection-wrappers.json") String json) {
+        WrapperFields actualInstance = jsonMapper.deserialize(json, WrapperFields.class);
+
+        WrapperFields expectedInstance = new WrapperFields(Collections.unmodifiableList(new ArrayList<>(Arrays.asList("Mike", "Dennis"))),
+                Collections.singletonMap("Mike", 42), Collections.emptySet());
+        assertEquals(expectedInstance, actualInstance);
+        assertEquals(expectedInstance.names.getClass(), actualInstance.names.getClass());
+        assertEquals(expectedInstance.ages.getClass(), actualInstance.ages.getClass());
+        assertEquals(expectedInstance.tags.getClass(), actualInstance.tags.getClass());
+        assertThrows(UnsupportedOperationException.class, () -> actualInstance.names.add("Robert"));
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_collectionWrappersWrittenWithTheirClassName(@JsonFile("/payloads/collection-wrappers-by-class-name.json") String json) {
+        WrapperFields actualInstance = jsonMapper.deserialize(json, WrapperFields.class);
+
+        WrapperFields expectedInstance = new WrapperFields(Collections.unmodifiableList(new ArrayList<>(Arrays.asList("Mike", "Dennis"))),
+                Collections.singletonMap("Mike", 42), Collections.emptySet());
+        assertEquals(expectedInstance, actualInstance);
+        assertEquals(expectedInstance.names.getClass(), actualInstance.names.getClass());
+    }
+
+    @Test
+    public void shouldKeepTheComponentTypeOfArraysAsLists() {
+        List<String> names = Arrays.asList("Mike", "John");
+
+        List<?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(names), List.class);
+
+        assertEquals(names.getClass(), actualInstance.getClass());
+        assertEquals(names, actualInstance);
+        assertThrows(ArrayStoreException.class, () -> ((List<Object>) actualInstance).set(0, 42));
+    }
+
+    @Test
+    public void shouldKeepTheClassAndElementsOfEveryCollectionWrapper() {
+        List<User> users = Arrays.asList(new User("Mike"), new User("John"), new User("Robert"));
+        List<Collection<User>> collections = Arrays.asList(
+                Collections.unmodifiableCollection(new ArrayList<>(users)),
+                Collections.unmodifiableList(new ArrayList<>(users)),
+                Collections.unmodifiableList(new LinkedList<>(users)),
+                Collections.unmodifiableSet(new HashSet<>(users)),
+                Collections.unmodifiableSortedSet(new TreeSet<>(users)),
+                Collections.unmodifiableNavigableSet(new TreeSet<>(users)),
+                Collections.synchronizedCollection(new ArrayList<>(users)),
+                Collections.synchronizedList(new ArrayList<>(users)),
+                Collections.synchronizedList(new LinkedList<>(users)),
+                Collections.synchronizedSet(new HashSet<>(users)),
+                Collections.synchronizedSortedSet(new TreeSet<>(users)),
+                Collections.synchronizedNavigableSet(new TreeSet<>(users)),
+                Collections.emptyList(),
+                Collections.emptySet(),
+                Collections.emptySortedSet(),
+                Collections.singletonList(new User("Mike")),
+                Collections.singleton(new User("Mike")),
+                Arrays.asList(new User("Mike"), new User("John")),
+                setFromMap(new ConcurrentHashMap<>(), users),
+                setFromMap(new TreeMap<>(), users));
+
+        for (Collection<User> collection : collections) {
+            Collection<?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(collection), Collection.class);
+
+            assertEquals(collection.getClass(), actualInstance.getClass());
+            assertEquals(collection instanceof Set ? collection : new ArrayList<>(collection),
+                    actualInstance instanceof Set ? actualInstance : new ArrayList<>(actualInstance));
+        }
+    }
+
+    @Test
+    public void shouldKeepTheClassAndEntriesOfEveryMapWrapper() {
+        Map<String, User> users = new HashMap<>();
+        users.put("mike", new User("Mike"));
+        users.put("john", new User("John"));
+        List<Map<String, User>> maps = Arrays.asList(
+                Collections.unmodifiableMap(new HashMap<>(users)),
+                Collections.unmodifiableSortedMap(new TreeMap<>(users)),
+                Collections.unmodifiableNavigableMap(new TreeMap<>(users)),
+                Collections.synchronizedMap(new LinkedHashMap<>(users)),
+                Collections.synchronizedSortedMap(new TreeMap<>(users)),
+                Collections.synchronizedNavigableMap(new TreeMap<>(users)),
+                Collections.emptyMap(),
+                Collections.singletonMap("mike", new User("Mike")));
+
+        for (Map<String, User> map : maps) {
+            Map<?, ?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(map), Map.class);
+
+            assertEquals(map.getClass(), actualInstance.getClass());
+            assertEquals(new ArrayList<>(map.entrySet()), new ArrayList<>(actualInstance.entrySet()));
+        }
+    }
+
+    @Test
+    public void shouldKeepTheComparatorOfSortedWrappers() {
+        SortedSet<String> names = Collections.unmodifiableSortedSet(new TreeSet<>(new ByLength()));
+        SortedMap<String, Integer> ages = Collections.synchronizedSortedMap(new TreeMap<>(new ByLength()));
+
+        SortedSet<?> actualNames = jsonMapper.deserialize(jsonMapper.serialize(names), SortedSet.class);
+        SortedMap<?, ?> actualAges = jsonMapper.deserialize(jsonMapper.serialize(ages), SortedMap.class);
+
+        assertEquals(ByLength.class, actualNames.comparator().getClass());
+        assertEquals(ByLength.class, actualAges.comparator().getClass());
+    }
+
+    @Test
+    public void shouldKeepTheMapBackingSetsBuiltFromMaps() throws Exception {
+        Set<String> names = setFromMap(new ConcurrentHashMap<>(), Arrays.asList("Mike", "John"));
+
+        Set<?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(names), Set.class);
+
+        Field backingMap = actualInstance.getClass().getDeclaredField("m");
+        backingMap.setAccessible(true);
+        assertEquals(ConcurrentHashMap.class, backingMap.get(actualInstance).getClass());
+    }
+
+    @Test
+    public void shouldKeepCollectionWrappersHeldByObjectArrays() {
+        Object[] wrappers = {Collections.unmodifiableList(new ArrayList<>(Arrays.asList("Mike", "John"))),
+                Collections.synchronizedMap(new HashMap<>(Collections.singletonMap("Mike", "Smith"))),
+                setFromMap(new HashMap<>(), Arrays.asList("Mike", "John")), Arrays.asList("Mike", "John")};
+
+        Object[] actualInstance = jsonMapper.deserialize(jsonMapper.serialize(wrappers), Object[].class);
+
+        for (int i = 0; i < wrappers.length; ++i) {
+            assertEquals(wrappers[i].getClass(), actualInstance[i].getClass());
+            assertEquals(wrappers[i], actualInstance[i]);
+        }
+    }
+
+    private static <T> Set<T> setFromMap(Map<T, Boolean> map, Collection<T> elements) {
+        Set<T> set = Collections.newSetFromMap(map);
+        set.addAll(elements);
+        return set;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class WrapperFields {
+        private final List<String> names;
+        private final Map<String, Integer> ages;
+        private final Set<String> tags;
+    }
+}
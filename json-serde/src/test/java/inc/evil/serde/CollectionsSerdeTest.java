@@ -0,0 +1,270 @@
+package inc.evil.serde;
+
+import inc.evil.serde.extension.JsonFile;
+import inc.evil.serde.extension.JsonFileParameterSupplier;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.Stack;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+
+import static inc.evil.serde.cast.TestUtils.assertJsonEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(JsonFileParameterSupplier.class)
+public class CollectionsSerdeTest {
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldBeAbleToSerializeToJson_ArrayListFields(@JsonFile("/payloads/array-list-fields.json") String expectedJson) {
+        List<User> users = new ArrayList<>();
+        users.add(new User("Mike"));
+        ArrayListFields arrayListFields = new ArrayListFields(users);
+
+        String actualJson = jsonMapper.serialize(arrayListFields);
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_ArrayListFields(@JsonFile("/payloads/array-list-fields.json") String json) {
+        ArrayListFields actualInstance = jsonMapper.deserialize(json, ArrayListFields.class);
+
+        List<User> users = new ArrayList<>();
+        users.add(new User("Mike"));
+        ArrayListFields expectedInstance = new ArrayListFields(users);
+        assertEquals(expectedInstance, actualInstance);
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeToJson_emptyArrayListFields(@JsonFile("/payloads/empty-array-list.json") String expectedJson) {
+        ArrayListFields arrayListFields = new ArrayListFields(new ArrayList<>());
+
+        String actualJson = jsonMapper.serialize(arrayListFields);
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_emptyArrayListFields(@JsonFile("/payloads/empty-array-list.json") String json) {
+        ArrayListFields actualInstance = jsonMapper.deserialize(json, ArrayListFields.class);
+
+        ArrayListFields expectedInstance = new ArrayListFields(new ArrayList<>());
+        assertEquals(expectedInstance, actualInstance);
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeToJson_HashSetFields(@JsonFile("/payloads/hash-set-fields.json") String expectedJson) {
+        Set<User> users = new HashSet<>();
+        users.add(new User("Mike"));
+        HashSetFields hashSetFields = new HashSetFields(users);
+
+        String actualJson = jsonMapper.serialize(hashSetFields);
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_HashSetFields(@JsonFile("/payloads/hash-set-fields.json") String json) {
+        HashSetFields actualInstance = jsonMapper.deserialize(json, HashSetFields.class);
+
+        Set<User> users = new HashSet<>();
+        users.add(new User("Mike"));
+        HashSetFields expectedInstance = new HashSetFields(users);
+        assertEquals(expectedInstance, actualInstance);
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeToJson_ArrayDequeFields(@JsonFile("/payloads/array-deque-fields.json") String expectedJson) {
+        Deque<User> users = new ArrayDeque<>(Arrays.asList(new User("Mike"), new User("John")));
+
+        String actualJson = jsonMapper.serialize(new ArrayDequeFields(users));
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_ArrayDequeFields(@JsonFile("/payloads/array-deque-fields.json") String json) {
+        ArrayDequeFields actualInstance = jsonMapper.deserialize(json, ArrayDequeFields.class);
+
+        assertEquals(ArrayDeque.class, actualInstance.users.getClass());
+        assertEquals(Arrays.asList(new User("Mike"), new User("John")), new ArrayList<>(actualInstance.users));
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeToJson_sortedSetsWithComparator(@JsonFile("/payloads/tree-set-with-comparator.json") String expectedJson) {
+        TreeSet<String> names = new TreeSet<>(new ByLength());
+        names.addAll(Arrays.asList("Mike", "Al"));
+
+        String actualJson = jsonMapper.serialize(new TreeSetFields(names));
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_sortedSetsWithComparator(@JsonFile("/payloads/tree-set-with-comparator.json") String json) {
+        TreeSetFields actualInstance = jsonMapper.deserialize(json, TreeSetFields.class);
+
+        assertEquals(ByLength.class, actualInstance.names.comparator().getClass());
+        actualInstance.names.add("Bob");
+        assertEquals(Arrays.asList("Al", "Bob", "Mike"), new ArrayList<>(actualInstance.names));
+    }
+
+    @Test
+    public void shouldSortElementsWhichPrecedeTheComparator(@JsonFile("/payloads/tree-set-with-comparator-after-elements.json") String json) {
+        TreeSetFields actualInstance = jsonMapper.deserialize(json, TreeSetFields.class);
+
+        assertEquals(ByLength.class, actualInstance.names.comparator().getClass());
+        actualInstance.names.add("Bob");
+        assertEquals(Arrays.asList("Al", "Bob", "Mike"), new ArrayList<>(actualInstance.names));
+    }
+
+    @Test
+    public void shouldReadSortedSetsHavingOnlyAComparator(@JsonFile("/payloads/tree-set-with-comparator-only.json") String json) {
+        TreeSetFields actualInstance = jsonMapper.deserialize(json, TreeSetFields.class);
+
+        assertEquals(ByLength.class, actualInstance.names.comparator().getClass());
+        assertTrue(actualInstance.names.isEmpty());
+    }
+
+    @Test
+    public void shouldReadTreesOfSortedSetsWhateverTheOrderOfTheirFields(@JsonFile("/payloads/object-array-of-tree-sets-with-comparators.json") String json) {
+        Object[] actualInstance = jsonMapper.deserialize(json, Object[].class);
+
+        TreeSet<?> names = (TreeSet<?>) actualInstance[0];
+        TreeSet<?> noNames = (TreeSet<?>) actualInstance[1];
+        assertEquals(ByLength.class, names.comparator().getClass());
+        assertEquals(Arrays.asList("Al", "Mike"), new ArrayList<>(names));
+        assertEquals(ByLength.class, noNames.comparator().getClass());
+        assertTrue(noNames.isEmpty());
+    }
+
+    @Test
+    public void shouldKeepTheClassAndElementsOfEveryCollection() {
+        List<Collection<User>> collections = Arrays.asList(new ArrayDeque<>(), new LinkedHashSet<>(), new TreeSet<>(),
+                new Vector<>(), new Stack<>(), new CopyOnWriteArrayList<>(), new CopyOnWriteArraySet<>(),
+                new ConcurrentLinkedQueue<>(), new ConcurrentLinkedDeque<>(), new ConcurrentSkipListSet<>());
+
+        for (Collection<User> collection : collections) {
+            collection.addAll(Arrays.asList(new User("Mike"), new User("John"), new User("Robert")));
+
+            Collection<?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(collection), Collection.class);
+
+            assertEquals(collection.getClass(), actualInstance.getClass());
+            assertEquals(new ArrayList<>(collection), new ArrayList<>(actualInstance));
+        }
+    }
+
+    @Test
+    public void shouldKeepTheComparatorOfPriorityQueues() {
+        List<Queue<String>> queues = Arrays.asList(new PriorityQueue<>(new ByLength()),
+                new PriorityBlockingQueue<>(11, new ByLength()));
+
+        for (Queue<String> queue : queues) {
+            queue.addAll(Arrays.asList("Robert", "Al", "Mike"));
+
+            String json = jsonMapper.serialize(new PriorityQueueFields(queue));
+            PriorityQueueFields actualInstance = jsonMapper.deserialize(json, PriorityQueueFields.class);
+
+            assertEquals(queue.getClass(), actualInstance.queue.getClass());
+            actualInstance.queue.add("Bob");
+            assertEquals("Al", actualInstance.queue.poll());
+            assertEquals("Bob", actualInstance.queue.poll());
+        }
+    }
+
+    @Test
+    public void shouldReadTreesOfSortedCollections() {
+        TreeSet<String> names = new TreeSet<>(new ByLength());
+        names.addAll(Arrays.asList("Robert", "Al", "Mike"));
+        List<TreeSet<String>> nestedNames = new ArrayList<>(Arrays.asList(names));
+
+        List<TreeSet<String>> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(nestedNames), List.class);
+
+        assertEquals(ByLength.class, actualInstance.get(0).comparator().getClass());
+        assertEquals(names, actualInstance.get(0));
+    }
+
+    @Test
+    public void shouldKeepTheCapacityOfBoundedQueues() {
+        LinkedBlockingQueue<String> queue = new LinkedBlockingQueue<>(2);
+        queue.add("Mike");
+
+        LinkedBlockingQueue<?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(queue), LinkedBlockingQueue.class);
+
+        assertEquals(1, actualInstance.remainingCapacity());
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class ArrayListFields {
+        private final List<User> strings;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class HashSetFields {
+        private final Set<User> strings;
+    }
+
+    @AllArgsConstructor
+    public static class ArrayDequeFields {
+        private final Deque<User> users;
+    }
+
+    @AllArgsConstructor
+    public static class TreeSetFields {
+        private final TreeSet<String> names;
+    }
+
+    @AllArgsConstructor
+    public static class PriorityQueueFields {
+        private final Queue<String> queue;
+    }
+
+    public static class ByLength implements Comparator<String> {
+        @Override
+        public int compare(String first, String second) {
+            return Integer.compare(first.length(), second.length());
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class User implements Comparable<User> {
+        private final String name;
+
+        @Override
+        public int compareTo(User other) {
+            return name.compareTo(other.name);
+        }
+    }
+}
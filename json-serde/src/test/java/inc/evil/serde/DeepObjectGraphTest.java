@@ -0,0 +1,269 @@
+package inc.evil.serde;
+
+import inc.evil.serde.metrics.InMemorySerdeMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeepObjectGraphTest {
+    private static final int MILLION = 1_000_000;
+    private static final int DEPTH = 100_000;
+    private static final int DEEP_CONTAINERS = 20_000;
+    private static final int SHALLOW_ARRAYS = 200;
+    private static final Set<SerdeFeature> COMPACT = EnumSet.of(SerdeFeature.COMPACT_OUTPUT);
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldSerializeAndDeserializeAMillionDeepChain() {
+        Link head = makeChain(MILLION);
+
+        byte[] json = jsonMapper.serializeToBytes(head);
+        Link actualInstance = jsonMapper.deserialize(json, Link.class, COMPACT);
+
+        assertChain(MILLION, actualInstance);
+    }
+
+    @Test
+    public void shouldWriteTheSameJsonAsForShallowChains() {
+        StringBuilder expectedJson = new StringBuilder();
+        for (int i = 1; i <= DEPTH; ++i) {
+            expectedJson.append("{\"targetClass\":\"").append(Link.class.getName()).append("\",\"__id\":").append(i)
+                    .append(",\"state\":{\"index\":").append(i).append(",\"next\":");
+        }
+        expectedJson.append("null");
+        for (int i = 0; i < DEPTH; ++i) {
+            expectedJson.append("}}");
+        }
+
+        assertEquals(expectedJson.toString(), jsonMapper.serialize(makeChain(DEPTH), COMPACT));
+    }
+
+    @Test
+    public void shouldSerializeDeepCyclicChains() {
+        Link head = makeChain(MILLION);
+        Link tail = head;
+        while (tail.next != null) {
+            tail = tail.next;
+        }
+        tail.next = head;
+
+        Link actualInstance = jsonMapper.deserialize(jsonMapper.serializeToBytes(head), Link.class, COMPACT);
+
+        Link actualTail = actualInstance;
+        for (int i = 1; i < MILLION; ++i) {
+            actualTail = actualTail.next;
+        }
+        assertEquals(MILLION, actualTail.index);
+        assertSame(actualInstance, actualTail.next);
+    }
+
+    @Test
+    public void shouldSerializeDeepChainsWithEveryFeature() {
+        Set<SerdeFeature> features = EnumSet.of(SerdeFeature.COMPACT_OUTPUT, SerdeFeature.OMIT_DECLARED_TYPES,
+                SerdeFeature.GENERATE_CLASS_SERDES, SerdeFeature.NAME_DICTIONARY);
+        Link head = makeChain(DEPTH);
+
+        byte[] json = jsonMapper.serializeToBytes(head, features);
+
+        assertChain(DEPTH, jsonMapper.deserialize(json, Link.class, features));
+    }
+
+    @Test
+    public void shouldSerializeDeepChainsOfObjectsHoldingContainers() {
+        Event head = null;
+        for (int i = 10_000; i > 0; --i) {
+            head = new Event(new String[]{"event" + i}, head);
+        }
+
+        Event actualInstance = jsonMapper.deserialize(jsonMapper.serialize(head, COMPACT), Event.class);
+
+        for (int i = 1; i <= 10_000; ++i) {
+            assertArrayEquals(new String[]{"event" + i}, actualInstance.tags);
+            actualInstance = actualInstance.previous;
+        }
+        assertNull(actualInstance);
+    }
+
+    @Test
+    public void shouldMeasureEveryValueOfDeepChains() {
+        InMemorySerdeMetrics metrics = new InMemorySerdeMetrics();
+
+        new JsonMapper(metrics).serializeToBytes(makeChain(DEPTH));
+
+        assertEquals(DEPTH, metrics.getClassMetrics(Link.class).getValuesWritten());
+        assertEquals(DEPTH, metrics.getClassMetrics(Link.class).getObjectSerdeFallbacks());
+        assertEquals(DEPTH, metrics.getValuesWritten());
+    }
+
+    @Test
+    public void shouldSerializeAndDeserializeDeepChainsThroughLists() {
+        Node root = new Node(0, new ArrayList<>());
+        Node node = root;
+        for (int i = 1; i < DEEP_CONTAINERS; ++i) {
+            Node kid = new Node(i, new ArrayList<>());
+            node.kids.add(kid);
+            node.kids.add(new Node(-i, Collections.emptyList()));
+            node = kid;
+        }
+
+        Node actualInstance = jsonMapper.deserialize(jsonMapper.serializeToBytes(root), Node.class, COMPACT);
+
+        for (int i = 0; i < DEEP_CONTAINERS - 1; ++i) {
+            assertEquals(i, actualInstance.index);
+            assertEquals(2, actualInstance.kids.size());
+            assertEquals(-(i + 1), actualInstance.kids.get(1).index);
+            actualInstance = actualInstance.kids.get(0);
+        }
+        assertEquals(DEEP_CONTAINERS - 1, actualInstance.index);
+        assertTrue(actualInstance.kids.isEmpty());
+    }
+
+    @Test
+    public void shouldSerializeAndDeserializeDeepChainsThroughMaps() {
+        Set<SerdeFeature> features = EnumSet.of(SerdeFeature.COMPACT_OUTPUT, SerdeFeature.OMIT_DECLARED_TYPES);
+        Branch root = new Branch(0);
+        Branch branch = root;
+        for (int i = 1; i < DEEP_CONTAINERS; ++i) {
+            Branch next = new Branch(i);
+            branch.branches.put("next", next);
+            branch.branches.put(next, null);
+            branch = next;
+        }
+
+        Branch actualInstance = jsonMapper.deserialize(jsonMapper.serializeToBytes(root, features), Branch.class, features);
+
+        for (int i = 0; i < DEEP_CONTAINERS - 1; ++i) {
+            assertEquals(i, actualInstance.index);
+            Branch next = (Branch) actualInstance.branches.get("next");
+            assertTrue(actualInstance.branches.containsKey(next));
+            actualInstance = next;
+        }
+        assertEquals(DEEP_CONTAINERS - 1, actualInstance.index);
+    }
+
+    @Test
+    public void shouldSerializeDeepChainsThroughArrays() {
+        Leaf root = new Leaf(0);
+        Leaf leaf = root;
+        for (int i = 1; i < DEEP_CONTAINERS; ++i) {
+            leaf.leaves = new Object[]{new Leaf(i), "leaf" + i};
+            leaf = (Leaf) leaf.leaves[0];
+        }
+
+        String json = jsonMapper.serialize(root, COMPACT);
+
+        assertTrue(json.contains("\"leaf" + (DEEP_CONTAINERS - 1) + "\""));
+        JsonDeserializationException exception = assertThrows(JsonDeserializationException.class,
+                () -> jsonMapper.deserialize(json, Leaf.class));
+        assertTrue(exception.getCause() instanceof StackOverflowError);
+    }
+
+    @Test
+    public void shouldDeserializeChainsThroughArraysNestedLessDeeply() {
+        Leaf root = new Leaf(0);
+        Leaf leaf = root;
+        for (int i = 1; i < SHALLOW_ARRAYS; ++i) {
+            leaf.leaves = new Object[]{new Leaf(i), "leaf" + i};
+            leaf = (Leaf) leaf.leaves[0];
+        }
+
+        Leaf actualInstance = jsonMapper.deserialize(jsonMapper.serialize(root, COMPACT), Leaf.class);
+
+        for (int i = 1; i < SHALLOW_ARRAYS; ++i) {
+            assertEquals("leaf" + i, actualInstance.leaves[1]);
+            actualInstance = (Leaf) actualInstance.leaves[0];
+            assertEquals(i, actualInstance.index);
+        }
+        assertNull(actualInstance.leaves);
+    }
+
+    @Test
+    public void shouldFailOnContainersHoldingThemselves() {
+        List<Object> list = new ArrayList<>();
+        list.add(list);
+        Map<String, Object> map = new HashMap<>();
+        map.put("self", map);
+        Object[] array = new Object[1];
+        array[0] = array;
+
+        for (Object container : new Object[]{list, map, array}) {
+            JsonSerializationException exception = assertThrows(JsonSerializationException.class, () -> jsonMapper.serialize(container));
+
+            assertTrue(exception.getMessage().contains("cyclic"));
+        }
+    }
+
+    private static Link makeChain(int depth) {
+        Link head = null;
+        for (int i = depth; i > 0; --i) {
+            head = new Link(i, head);
+        }
+        return head;
+    }
+
+    private static void assertChain(int depth, Link head) {
+        Link link = head;
+        for (int i = 1; i <= depth; ++i) {
+            assertEquals(i, link.index);
+            link = link.next;
+        }
+        assertNull(link);
+    }
+
+    static class Link {
+        private final int index;
+        private Link next;
+
+        Link(int index, Link next) {
+            this.index = index;
+            this.next = next;
+        }
+    }
+
+    static class Event {
+        private final String[] tags;
+        private final Event previous;
+
+        Event(String[] tags, Event previous) {
+            this.tags = tags;
+            this.previous = previous;
+        }
+    }
+
+    static class Node {
+        private final int index;
+        private final List<Node> kids;
+
+        Node(int index, List<Node> kids) {
+            this.index = index;
+            this.kids = kids;
+        }
+    }
+
+    static class Branch {
+        private final int index;
+        private final Map<Object, Branch> branches = new HashMap<>();
+
+        Branch(int index) {
+            this.index = index;
+        }
+    }
+
+    static class Leaf {
+        private final int index;
+        private Object[] leaves;
+
+        Leaf(int index) {
+            this.index = index;
+        }
+    }
+}
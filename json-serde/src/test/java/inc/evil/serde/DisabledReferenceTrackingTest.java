@@ -0,0 +1,119 @@
+package inc.evil.serde;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisabledReferenceTrackingTest {
+    private static final Set<SerdeFeature> UNTRACKED = EnumSet.of(SerdeFeature.DISABLE_REFERENCE_TRACKING);
+    private static final Set<SerdeFeature> UNTRACKED_COMPACT = EnumSet.of(SerdeFeature.DISABLE_REFERENCE_TRACKING, SerdeFeature.COMPACT_OUTPUT);
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldNotWriteObjectIds() {
+        Node tree = new Node("root", new Node("left", null, null), new Node("right", null, null));
+
+        String json = jsonMapper.serialize(tree, UNTRACKED);
+
+        assertFalse(json.contains("__id"));
+        assertEquals(tree, jsonMapper.deserialize(json, Node.class, UNTRACKED));
+        assertEquals(tree, jsonMapper.deserialize(json, Node.class));
+    }
+
+    @Test
+    public void shouldWriteSharedInstancesAsCopies() {
+        Node shared = new Node("shared", null, null);
+        Node root = new Node("root", shared, shared);
+
+        Node actualInstance = jsonMapper.deserialize(jsonMapper.serialize(root, UNTRACKED), Node.class, UNTRACKED);
+
+        assertEquals(root, actualInstance);
+        assertNotSame(actualInstance.left, actualInstance.right);
+    }
+
+    @Test
+    public void shouldFailFastOnCyclicGraphs() {
+        Node root = new Node("root", null, null);
+        root.left = root;
+
+        JsonSerializationException exception = assertThrows(JsonSerializationException.class, () -> jsonMapper.serialize(root, UNTRACKED));
+
+        assertTrue(exception.getMessage().contains("cyclic"));
+    }
+
+    @Test
+    public void shouldSerializeDeepTrees() {
+        Node root = null;
+        for (int i = 0; i < 300; ++i) {
+            root = new Node("node" + i, root, null);
+        }
+
+        assertEquals(root, jsonMapper.deserialize(jsonMapper.serialize(root, UNTRACKED), Node.class, UNTRACKED));
+    }
+
+    @Test
+    public void shouldSerializeTreesDeeperThanTheCallStack() {
+        Node root = null;
+        for (int i = 0; i < 10_000; ++i) {
+            root = new Node("node" + i, root, null);
+        }
+
+        Node actualInstance = jsonMapper.deserialize(jsonMapper.serialize(root, UNTRACKED_COMPACT), Node.class, UNTRACKED);
+
+        for (int i = 9_999; i >= 0; --i) {
+            assertEquals("node" + i, actualInstance.name);
+            actualInstance = actualInstance.left;
+        }
+        assertNull(actualInstance);
+    }
+
+    @Test
+    public void shouldFailFastOnDeepCyclicGraphs() {
+        Node root = new Node("root", null, null);
+        Node leaf = root;
+        for (int i = 0; i < 1000; ++i) {
+            leaf = leaf.left = new Node("node" + i, null, null);
+        }
+        leaf.left = root;
+
+        JsonSerializationException exception = assertThrows(JsonSerializationException.class, () -> jsonMapper.serialize(root, UNTRACKED));
+
+        assertTrue(exception.getMessage().contains("cyclic"));
+    }
+
+    static class Node {
+        private final String name;
+        private Node left;
+        private final Node right;
+
+        Node(String name, Node left, Node right) {
+            this.name = name;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Node node = (Node) o;
+
+            if (!name.equals(node.name)) return false;
+            if (left != null ? !left.equals(node.left) : node.left != null) return false;
+            return right != null ? right.equals(node.right) : node.right == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = name.hashCode();
+            result = 31 * result + (left != null ? left.hashCode() : 0);
+            result = 31 * result + (right != null ? right.hashCode() : 0);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package inc.evil.serde;
+
+import inc.evil.serde.extension.JsonFile;
+import inc.evil.serde.extension.JsonFileParameterSupplier;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static inc.evil.serde.cast.TestUtils.assertJsonEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(JsonFileParameterSupplier.class)
+public class EnumSetsAndBitSetsSerdeTest {
+    enum Season {SPRING, SUMMER, AUTUMN, WINTER}
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldBeAbleToSerializeToJson_enumSetsEnumMapsAndBitSets(@JsonFile("/payloads/enum-sets-and-bit-sets.json") String expectedJson) {
+        String actualJson = jsonMapper.serialize(makeBitmaskFields());
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_enumSetsEnumMapsAndBitSets(@JsonFile("/payloads/enum-sets-and-bit-sets.json") String json) {
+        BitmaskFields actualInstance = jsonMapper.deserialize(json, BitmaskFields.class);
+
+        assertEquals(makeBitmaskFields(), actualInstance);
+    }
+
+    @Test
+    public void shouldKeepTheElementTypeOfEmptyEnumSetsAndMaps() {
+        BitmaskFields bitmaskFields = new BitmaskFields(EnumSet.noneOf(Season.class), new EnumMap<>(Season.class), new BitSet());
+
+        BitmaskFields actualInstance = jsonMapper.deserialize(jsonMapper.serialize(bitmaskFields), BitmaskFields.class);
+
+        assertEquals(bitmaskFields, actualInstance);
+        assertEquals(EnumSet.allOf(Season.class), EnumSet.complementOf((EnumSet<Season>) actualInstance.seasons));
+        assertNull(actualInstance.temperatures.put(Season.SPRING, 12));
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeAndDeserializeEnumSetsOfMoreThan64Constants() {
+        EnumSet<Character.UnicodeScript> scripts = EnumSet.of(Character.UnicodeScript.LATIN, Character.UnicodeScript.UNKNOWN);
+        EnumMap<Character.UnicodeScript, String> names = new EnumMap<>(Character.UnicodeScript.class);
+        names.put(Character.UnicodeScript.UNKNOWN, "unknown");
+
+        Set<?> actualScripts = jsonMapper.deserialize(jsonMapper.serialize(scripts), Set.class);
+        Map<?, ?> actualNames = jsonMapper.deserialize(jsonMapper.serialize(names), Map.class);
+
+        assertEquals(scripts, actualScripts);
+        assertEquals(scripts.getClass(), actualScripts.getClass());
+        assertEquals(names, actualNames);
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeAndDeserializeBitSetsOfManyWords() {
+        BitSet bits = new BitSet();
+        bits.set(0);
+        bits.set(63);
+        bits.set(64, 200);
+        bits.set(1000);
+
+        BitSet actualInstance = jsonMapper.deserialize(jsonMapper.serialize(bits), BitSet.class);
+
+        assertEquals(bits, actualInstance);
+    }
+
+    @Test
+    public void shouldOmitTheDeclaredTypesOfEnumMapsAndBitSets() {
+        Set<SerdeFeature> features = EnumSet.of(SerdeFeature.OMIT_DECLARED_TYPES, SerdeFeature.COMPACT_OUTPUT);
+        BitmaskFields bitmaskFields = makeBitmaskFields();
+
+        String json = jsonMapper.serialize(bitmaskFields, features);
+        BitmaskFields actualInstance = jsonMapper.deserialize(json, BitmaskFields.class, features);
+
+        assertEquals(bitmaskFields, actualInstance);
+        assertEquals(-1, json.indexOf("java.util.EnumMap"));
+        assertEquals(-1, json.indexOf("java.util.BitSet"));
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeAndDeserializeBitmasksHeldByObjectArrays() {
+        Object[] values = {EnumSet.of(Season.WINTER), makeBitmaskFields().temperatures, BitSet.valueOf(new long[]{37})};
+
+        Object[] actualInstance = jsonMapper.deserialize(jsonMapper.serialize(values), Object[].class);
+
+        assertEquals(Arrays.asList(values), Arrays.asList(actualInstance));
+    }
+
+    private static BitmaskFields makeBitmaskFields() {
+        EnumMap<Season, Integer> temperatures = new EnumMap<>(Season.class);
+        temperatures.put(Season.WINTER, -5);
+        temperatures.put(Season.SUMMER, 30);
+        return new BitmaskFields(EnumSet.of(Season.SPRING, Season.AUTUMN), temperatures, BitSet.valueOf(new long[]{37, 1}));
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class BitmaskFields {
+        private final Set<Season> seasons;
+        private final EnumMap<Season, Integer> temperatures;
+        private final BitSet bits;
+    }
+}
@@ -0,0 +1,111 @@
+package inc.evil.serde;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class GeneratedClassSerdesTest {
+    private static final Set<SerdeFeature> GENERATED = EnumSet.of(SerdeFeature.GENERATE_CLASS_SERDES);
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldProduceTheSameJsonAsReflectiveSerialization() {
+        Employee employee = makeEmployee();
+
+        assertEquals(jsonMapper.serialize(employee), jsonMapper.serialize(employee, GENERATED));
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeAndDeserialize() {
+        Employee employee = makeEmployee();
+
+        Employee actualInstance = jsonMapper.deserialize(jsonMapper.serialize(employee, GENERATED), Employee.class, GENERATED);
+
+        assertEquals(employee, actualInstance);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeJsonProducedByReflectiveSerialization() {
+        Employee employee = makeEmployee();
+
+        Employee actualInstance = jsonMapper.deserialize(jsonMapper.serialize(employee), Employee.class, GENERATED);
+
+        assertEquals(employee, actualInstance);
+    }
+
+    @Test
+    public void shouldPreserveCircularReferences() {
+        Employee manager = makeEmployee();
+        manager.colleagues.add(manager);
+
+        Employee actualInstance = jsonMapper.deserialize(jsonMapper.serialize(manager, GENERATED), Employee.class, GENERATED);
+
+        assertSame(actualInstance, actualInstance.colleagues.get(0));
+    }
+
+    private Employee makeEmployee() {
+        return new Employee("Mike", 42, 'M', 1_000_000_000_000L, 3.5, 12.25f, true, (short) 7, (byte) -1,
+                "Smith", 66, null, 99.9, Boolean.FALSE, 'x', new ArrayList<>(Arrays.asList("Java", "SQL")),
+                new ArrayList<>());
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class Person {
+        protected String name;
+        protected int age;
+    }
+
+    @ToString(callSuper = true, exclude = "colleagues")
+    @EqualsAndHashCode(callSuper = true, exclude = "colleagues")
+    public static class Employee extends Person {
+        private final char initial;
+        private final long salary;
+        private final double rating;
+        private final float bonus;
+        private final boolean active;
+        private final short level;
+        private final byte flags;
+        private final String name;
+        private final Integer badge;
+        private final Long manager;
+        private final Double score;
+        private final Boolean remote;
+        private final Character grade;
+        private final List<String> skills;
+        private final List<Employee> colleagues;
+
+        public Employee(String personName, int age, char initial, long salary, double rating, float bonus,
+                        boolean active, short level, byte flags, String name, Integer badge, Long manager,
+                        Double score, Boolean remote, Character grade, List<String> skills, List<Employee> colleagues) {
+            super(personName, age);
+            this.initial = initial;
+            this.salary = salary;
+            this.rating = rating;
+            this.bonus = bonus;
+            this.active = active;
+            this.level = level;
+            this.flags = flags;
+            this.name = name;
+            this.badge = badge;
+            this.manager = manager;
+            this.score = score;
+            this.remote = remote;
+            this.grade = grade;
+            this.skills = skills;
+            this.colleagues = colleagues;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package inc.evil.serde;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdentityLongTableTest {
+    private final IdentityLongTable table = new IdentityLongTable();
+
+    @Test
+    public void shouldMapInstancesByIdentity() {
+        String first = new String("Mike");
+        String second = new String("Mike");
+
+        table.put(first, 1);
+
+        assertEquals(1, table.get(first));
+        assertEquals(IdentityLongTable.NO_ID, table.get(second));
+        assertTrue(table.contains(first));
+        assertFalse(table.contains(second));
+    }
+
+    @Test
+    public void shouldKeepAllTheEntriesWhenGrowing() {
+        List<Object> instances = new ArrayList<>();
+        for (int i = 0; i < 10_000; ++i) {
+            Object instance = new Object();
+            instances.add(instance);
+            table.put(instance, i);
+        }
+
+        assertEquals(10_000, table.size());
+        for (int i = 0; i < instances.size(); ++i) {
+            assertEquals(i, table.get(instances.get(i)));
+        }
+    }
+
+    @Test
+    public void shouldReplaceTheIdOfAnInstanceAlreadyPresent() {
+        Object instance = new Object();
+
+        table.put(instance, 1);
+        table.put(instance, 2);
+
+        assertEquals(2, table.get(instance));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void shouldBeEmptyAfterClear() {
+        Object instance = new Object();
+        for (int i = 0; i < 1000; ++i) {
+            table.put(new Object(), i);
+        }
+        table.put(instance, 1000);
+
+        table.clear(64);
+
+        assertEquals(0, table.size());
+        assertFalse(table.contains(instance));
+    }
+}
@@ -2,8 +2,16 @@ package inc.evil.serde;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
@@ -43,6 +51,123 @@ public class JsonMapperTest {
         assertThatSetDoesNotBreak(Collections.synchronizedSet(new TreeSet<>()));
     }
 
+    @Test
+    public void shouldStartEveryCallWithAFreshContext() {
+        User user = new User("Mike", "Smith");
+        List<User> sameUserTwice = Arrays.asList(user, user);
+
+        String json = jsonMapper.serialize(sameUserTwice);
+        jsonMapper.deserialize(json, List.class);
+
+        assertEquals(json, jsonMapper.serialize(sameUserTwice));
+        assertEquals(sameUserTwice, jsonMapper.deserialize(json, List.class));
+    }
+
+    @Test
+    public void shouldBeUsableFromSeveralThreadsAtOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<User>> results = new ArrayList<>();
+            for (int i = 0; i < 200; ++i) {
+                User user = new User("Mike" + i, "Smith" + i);
+                results.add(executor.submit(() -> jsonMapper.deserialize(jsonMapper.serialize(user), User.class)));
+            }
+
+            for (int i = 0; i < results.size(); ++i) {
+                assertEquals(new User("Mike" + i, "Smith" + i), results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldWriteTheSameJsonToAnOutputStream() {
+        Map<User, List<User>> users = new HashMap<>();
+        users.put(new User("Mike", "Smith"), singletonList(new User("Robert", "Martin")));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        jsonMapper.serialize(users, outputStream);
+
+        assertEquals(jsonMapper.serialize(users), new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldWriteTheSameJsonToAWriter() {
+        List<User> users = new ArrayList<>(Arrays.asList(new User("Mike", "Smith"), new User("Dennis", "Ritchie")));
+        StringWriter writer = new StringWriter();
+
+        jsonMapper.serialize(users, writer);
+
+        assertEquals(jsonMapper.serialize(users), writer.toString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldBeAbleToDeserializeFromAnInputStream() {
+        Map<User, List<User>> users = new HashMap<>();
+        users.put(new User("Mike", "Smith"), singletonList(new User("Robert", "Martin")));
+        byte[] json = jsonMapper.serialize(users).getBytes(StandardCharsets.UTF_8);
+
+        Map<User, List<User>> deserializedInstance = jsonMapper.deserialize(new ByteArrayInputStream(json), HashMap.class);
+
+        assertEquals(users, deserializedInstance);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldBeAbleToDeserializeFromAReader() {
+        List<User> users = new ArrayList<>(Arrays.asList(new User("Mike", "Smith"), new User("Dennis", "Ritchie")));
+        String json = jsonMapper.serialize(users);
+
+        List<User> deserializedInstance = jsonMapper.deserialize(new StringReader(json), ArrayList.class);
+
+        assertEquals(users, deserializedInstance);
+    }
+
+    @Test
+    public void shouldWriteCompactJson() {
+        List<User> users = new ArrayList<>(Arrays.asList(new User("Mike", "Smith"), new User("Dennis", "Ritchie")));
+
+        String json = jsonMapper.serialize(users, EnumSet.of(SerdeFeature.COMPACT_OUTPUT));
+
+        assertFalse(json.contains("\n"));
+        assertFalse(json.contains(" : "));
+        assertEquals(users, jsonMapper.deserialize(json, ArrayList.class));
+    }
+
+    @Test
+    public void shouldWriteCompactUtf8Bytes() {
+        List<User> users = new ArrayList<>(Arrays.asList(new User("Mike", "Smith"), new User("Jürgen", "Ëдуард")));
+
+        byte[] json = jsonMapper.serializeToBytes(users);
+
+        String expectedJson = jsonMapper.serialize(users, EnumSet.of(SerdeFeature.COMPACT_OUTPUT));
+        assertEquals(expectedJson, new String(json, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void shouldKeepTheOtherFeaturesWhenWritingBytes() {
+        Set<SerdeFeature> features = EnumSet.of(SerdeFeature.NAME_DICTIONARY);
+        User user = new User("Mike", "Smith");
+
+        byte[] json = jsonMapper.serializeToBytes(user, features);
+
+        assertEquals(user, jsonMapper.deserialize(json, User.class, features));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldBeAbleToDeserializeFromBytes() {
+        Map<User, List<User>> users = new HashMap<>();
+        users.put(new User("Mike", "Smith"), singletonList(new User("Jürgen", "Ëдуард 🙂")));
+
+        Map<User, List<User>> deserializedInstance = jsonMapper.deserialize(jsonMapper.serializeToBytes(users), HashMap.class);
+
+        assertEquals(users, deserializedInstance);
+        assertNull(jsonMapper.deserialize((byte[]) null, User.class));
+    }
+
     @SuppressWarnings("unchecked")
     private void assertThatMapDoesNotBreak(Map<User, List<User>> instanceToTest) {
         instanceToTest.put(new User("Mike", "Smith"), singletonList(new User("Robert", "Martin")));
@@ -17,6 +17,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import static inc.evil.serde.cast.TestUtils.assertJsonEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 @ExtendWith(JsonFileParameterSupplier.class)
 public class JsonSerdeTest {
@@ -271,6 +272,15 @@ public class JsonSerdeTest {
         assertEquals(actualInstance.circularInstance2.name, expectedInstance.circularInstance2.name);
     }
 
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_objectWithTextualReferences(@JsonFile("/payloads/circular-dependencies-textual-reference.json") String json) {
+
+        CircularInstance1 actualInstance = jsonSerde.deserialize(json, CircularInstance1.class);
+
+        assertEquals(42, actualInstance.age);
+        assertSame(actualInstance, actualInstance.circularInstance2.circularInstance1);
+    }
+
     @Test
     public void shouldBeAbleToSerializeToJson_objectWithCircularDependencies(@JsonFile("/payloads/circular-dependencies.json") String expectedJson) {
         CircularInstance1 instance1 = new CircularInstance1();
@@ -291,6 +301,14 @@ public class JsonSerdeTest {
         assertEquals(expectedDummy, actualDummy);
     }
 
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_listsWrittenFieldByField(@JsonFile("/payloads/list-of-strings-field-state.json") String json) {
+        ListOfStrings actualDummy = jsonSerde.deserialize(json, ListOfStrings.class);
+
+        ListOfStrings expectedDummy = new ListOfStrings(Arrays.asList("Funky", "shit"));
+        assertEquals(expectedDummy, actualDummy);
+    }
+
     @Test
     public void shouldBeAbleToDeserializeFromJson_objectWithStringFields(@JsonFile("/payloads/dto-string-fields.json") String json) {
         StringFields actualDeserializedInstance = jsonSerde.deserialize(json, StringFields.class);
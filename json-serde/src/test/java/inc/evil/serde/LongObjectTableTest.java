@@ -0,0 +1,57 @@
+package inc.evil.serde;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectTableTest {
+    private final LongObjectTable table = new LongObjectTable();
+
+    @Test
+    public void shouldMapSequentialIds() {
+        for (int i = 1; i <= 10_000; ++i) {
+            table.put(i, "instance" + i);
+        }
+
+        for (int i = 1; i <= 10_000; ++i) {
+            assertEquals("instance" + i, table.get(i));
+        }
+        assertNull(table.get(10_001));
+    }
+
+    @Test
+    public void shouldMapIdsOutsideOfTheSequentialRange() {
+        table.put(-5, "negative");
+        table.put(Long.MAX_VALUE, "huge");
+        table.put(3, "small");
+
+        assertEquals("negative", table.get(-5));
+        assertEquals("huge", table.get(Long.MAX_VALUE));
+        assertEquals("small", table.get(3));
+        assertNull(table.get(4));
+    }
+
+    @Test
+    public void shouldCountEveryIdOnce() {
+        table.put(1, "first");
+        table.put(1, "replaced");
+        table.put(Long.MAX_VALUE, "huge");
+        table.put(Long.MAX_VALUE, "replaced huge");
+
+        assertEquals(2, table.size());
+        assertEquals("replaced", table.get(1));
+        assertEquals("replaced huge", table.get(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldBeEmptyAfterClear() {
+        table.put(1, "first");
+        table.put(1_000_000_000L, "sparse");
+
+        table.clear(64);
+
+        assertNull(table.get(1));
+        assertNull(table.get(1_000_000_000L));
+        assertEquals(0, table.size());
+    }
+}
@@ -0,0 +1,255 @@
+package inc.evil.serde;
+
+import inc.evil.serde.extension.JsonFile;
+import inc.evil.serde.extension.JsonFileParameterSupplier;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static inc.evil.serde.cast.TestUtils.assertJsonEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(JsonFileParameterSupplier.class)
+public class MapsSerdeTest {
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldBeAbleToSerializeToJson_objectWithHashMapFields(@JsonFile("/payloads/hashmap-fields.json") String expectedJson) {
+        Map<String, User> users = new HashMap<>();
+        users.put("Mike", new User("Mike"));
+        users.put("John", new User("John"));
+        MapFields mapFields = new MapFields(users, null);
+
+        String actualJson = jsonMapper.serialize(mapFields);
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_objectWithHashMapFields(@JsonFile("/payloads/hashmap-fields.json") String json) {
+        MapFields actualInstance = jsonMapper.deserialize(json, MapFields.class);
+
+        Map<String, User> users = new HashMap<>();
+        users.put("Mike", new User("Mike"));
+        users.put("John", new User("John"));
+        MapFields expectedInstance = new MapFields(users, null);
+        assertEquals(expectedInstance, actualInstance);
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeToJson_objectWithHashMapFieldsWithObjectKeys(@JsonFile("/payloads/hashmap-object-key.json") String expectedJson) {
+        Map<User, String> users = new HashMap<>();
+        users.put(new User("Mike"), "Mike");
+        users.put(new User("John"), "John");
+        MapFields mapFields = new MapFields(null, users);
+
+        String actualJson = jsonMapper.serialize(mapFields);
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_objectWithHashMapFieldsWithObjectKeys(@JsonFile("/payloads/hashmap-object-key.json") String json) {
+        MapFields actualInstance = jsonMapper.deserialize(json, MapFields.class);
+
+        Map<User, String> users = new HashMap<>();
+        users.put(new User("Mike"), "Mike");
+        users.put(new User("John"), "John");
+        MapFields expectedInstance = new MapFields(null, users);
+        assertEquals(expectedInstance, actualInstance);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_entriesWrittenAsKeyValuePairs(@JsonFile("/payloads/hashmap-fields-entry-array.json") String json) {
+        MapFields actualInstance = jsonMapper.deserialize(json, MapFields.class);
+
+        Map<String, User> users = new HashMap<>();
+        users.put("Mike", new User("Mike"));
+        users.put("John", new User("John"));
+        assertEquals(new MapFields(users, null), actualInstance);
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeToJson_enumKeyedSortedMaps(@JsonFile("/payloads/enum-keyed-tree-map.json") String expectedJson) {
+        TreeMap<Season, Integer> temperatures = new TreeMap<>(new ReverseOrder());
+        temperatures.put(Season.SUMMER, 30);
+        temperatures.put(Season.WINTER, -5);
+
+        String actualJson = jsonMapper.serialize(new SeasonFields(temperatures));
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson_enumKeyedSortedMaps(@JsonFile("/payloads/enum-keyed-tree-map.json") String json) {
+        SeasonFields actualInstance = jsonMapper.deserialize(json, SeasonFields.class);
+
+        assertEquals(ReverseOrder.class, actualInstance.temperatures.comparator().getClass());
+        assertEquals(Arrays.asList(Season.WINTER, Season.SUMMER), new ArrayList<>(actualInstance.temperatures.keySet()));
+        assertEquals(Arrays.asList(-5, 30), new ArrayList<>(actualInstance.temperatures.values()));
+    }
+
+    @Test
+    public void shouldKeepTheClassAndEntriesOfEveryMap() {
+        List<Map<String, User>> maps = Arrays.asList(new LinkedHashMap<>(), new IdentityHashMap<>(), new Hashtable<>(),
+                new TreeMap<>(), new ConcurrentHashMap<>(), new ConcurrentSkipListMap<>());
+
+        for (Map<String, User> map : maps) {
+            map.put("Mike", new User("Mike"));
+            map.put("John", new User("John"));
+
+            Map<?, ?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(map), Map.class);
+
+            assertEquals(map.getClass(), actualInstance.getClass());
+            if (map instanceof IdentityHashMap) {
+                // the keys read are new strings, which identity maps iterate in another order
+                assertEquals(new HashMap<>(map), new HashMap<>(actualInstance));
+            } else {
+                assertEquals(new ArrayList<>(map.keySet()), new ArrayList<>(actualInstance.keySet()));
+                assertEquals(new ArrayList<>(map.values()), new ArrayList<>(actualInstance.values()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldKeepTheTypeOfNumericKeys() {
+        List<Map<Object, String>> maps = Arrays.asList(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        maps.get(0).put(42, "int");
+        maps.get(1).put(42L, "long");
+        maps.get(2).put(new BigDecimal("4.20"), "decimal");
+
+        for (Map<Object, String> map : maps) {
+            assertEquals(map, jsonMapper.deserialize(jsonMapper.serialize(map), Map.class));
+        }
+    }
+
+    @Test
+    public void shouldWriteKeysClashingWithTypeNamesAsKeyValuePairs() {
+        Set<SerdeFeature> features = EnumSet.of(SerdeFeature.NAME_DICTIONARY, SerdeFeature.OMIT_DECLARED_TYPES);
+        LinkedHashMap<String, String> attributes = new LinkedHashMap<>();
+        attributes.put("type", "java.lang.String");
+        attributes.put("state", "active");
+        LinkedHashMap<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("java.lang.String", 1);
+
+        String json = jsonMapper.serialize(new Attributes(attributes, counts), features);
+        Attributes actualInstance = jsonMapper.deserialize(json, Attributes.class, features);
+
+        assertEquals(new Attributes(attributes, counts), actualInstance);
+        assertTrue(json.contains("\"java.lang.String\" : 1"));
+    }
+
+    @Test
+    public void shouldKeepEqualKeysOfIdentityMaps() {
+        IdentityHashMap<String, Integer> names = new IdentityHashMap<>();
+        names.put(new String("Mike"), 1);
+        names.put(new String("Mike"), 2);
+        IdentityHashMap<Integer, String> numbers = new IdentityHashMap<>();
+        numbers.put(Integer.valueOf(1000), "one");
+        numbers.put(Integer.valueOf(1000), "two");
+
+        for (IdentityHashMap<?, ?> map : Arrays.asList(names, numbers)) {
+            Map<?, ?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(map), Map.class);
+
+            assertEquals(IdentityHashMap.class, actualInstance.getClass());
+            assertEquals(2, actualInstance.size());
+            assertEquals(new HashSet<>(map.values()), new HashSet<>(actualInstance.values()));
+        }
+    }
+
+    @Test
+    public void shouldKeepTheDefaultsOfProperties() {
+        Properties defaults = new Properties();
+        defaults.setProperty("timeout", "30");
+        Properties properties = new Properties(defaults);
+        properties.setProperty("host", "localhost");
+
+        Properties actualInstance = jsonMapper.deserialize(jsonMapper.serialize(properties), Properties.class);
+
+        assertEquals("localhost", actualInstance.getProperty("host"));
+        assertEquals("30", actualInstance.getProperty("timeout"));
+        assertFalse(actualInstance.containsKey("timeout"));
+    }
+
+    @Test
+    public void shouldKeepTheAccessOrderOfLinkedHashMaps() {
+        LinkedHashMap<String, Integer> ages = new LinkedHashMap<>(16, .75f, true);
+        ages.put("Mike", 42);
+        ages.put("John", 24);
+        ages.put("Robert", 33);
+        ages.get("Mike");
+
+        LinkedHashMap<?, ?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(ages), LinkedHashMap.class);
+
+        assertEquals(Arrays.asList("John", "Robert", "Mike"), new ArrayList<>(actualInstance.keySet()));
+        actualInstance.get("John");
+        assertEquals(Arrays.asList("Robert", "Mike", "John"), new ArrayList<>(actualInstance.keySet()));
+    }
+
+    @Test
+    public void shouldReadTheAccessOrderWrittenAfterTheEntries(@JsonFile("/payloads/linked-hash-map-with-access-order-after-entries.json") String json) {
+        LinkedHashMap<?, ?> actualInstance = jsonMapper.deserialize(json, LinkedHashMap.class);
+
+        actualInstance.get("John");
+        assertEquals(Arrays.asList("Mike", "John"), new ArrayList<>(actualInstance.keySet()));
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class MapFields {
+        private final Map<String, User> users;
+        private final Map<User, String> moreUsers;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class User {
+        private final String name;
+    }
+
+    @AllArgsConstructor
+    public static class SeasonFields {
+        private final TreeMap<Season, Integer> temperatures;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    public static class Attributes {
+        private final LinkedHashMap<String, String> attributes;
+        private final LinkedHashMap<String, Integer> counts;
+    }
+
+    public enum Season {
+        SUMMER, WINTER
+    }
+
+    public static class ReverseOrder implements Comparator<Season> {
+        @Override
+        public int compare(Season first, Season second) {
+            return second.compareTo(first);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package inc.evil.serde;
+
+import inc.evil.serde.extension.JsonFile;
+import inc.evil.serde.extension.JsonFileParameterSupplier;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.*;
+
+import static inc.evil.serde.cast.TestUtils.assertJsonEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(JsonFileParameterSupplier.class)
+public class NameDictionaryTest {
+    private static final Set<SerdeFeature> DICTIONARY = EnumSet.of(SerdeFeature.NAME_DICTIONARY);
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldBeAbleToSerializeToJson(@JsonFile("/payloads/name-dictionary.json") String expectedJson) {
+        Employee employee = new Employee("Mike", "Smith", new Employee("Dennis", "Ritchie", null, Role.LEAD), Role.DEVELOPER);
+
+        String actualJson = jsonMapper.serialize(employee, DICTIONARY);
+
+        assertJsonEquals(expectedJson, actualJson);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeFromJson(@JsonFile("/payloads/name-dictionary.json") String json) {
+        Employee actualInstance = jsonMapper.deserialize(json, Employee.class, DICTIONARY);
+
+        Employee expectedInstance = new Employee("Mike", "Smith", new Employee("Dennis", "Ritchie", null, Role.LEAD), Role.DEVELOPER);
+        assertEquals(expectedInstance, actualInstance);
+    }
+
+    @Test
+    public void shouldWriteEveryNameOnce() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            employees.add(new Employee("Mike" + i, "Smith", null, Role.DEVELOPER));
+        }
+        Team team = new Team(employees, new HashMap<>(), new Object[]{"Smith", new Employee("Dennis", "Ritchie", null, Role.LEAD)});
+
+        String json = jsonMapper.serialize(team, DICTIONARY);
+
+        assertEquals(1, occurrencesOf(Employee.class.getName() + "\"", json));
+        assertEquals(1, occurrencesOf(Role.class.getName(), json));
+        assertTrue(json.length() < jsonMapper.serialize(team).length() * 6 / 10);
+        assertEquals(team, jsonMapper.deserialize(json, Team.class, DICTIONARY));
+    }
+
+    @Test
+    public void shouldKeepReferences() {
+        Employee manager = new Employee("Dennis", "Ritchie", null, Role.LEAD);
+        Team team = new Team(Arrays.asList(manager, manager), Collections.singletonMap("lead", manager), new Object[0]);
+
+        Team actualInstance = jsonMapper.deserialize(jsonMapper.serialize(team, DICTIONARY), Team.class, DICTIONARY);
+
+        assertEquals(team, actualInstance);
+        assertSame(actualInstance.members.get(0), actualInstance.members.get(1));
+        assertSame(actualInstance.members.get(0), actualInstance.leads.get("lead"));
+    }
+
+    @Test
+    public void shouldNotConfuseFieldsNamedLikeTheMetadata() {
+        Metadata metadata = new Metadata(Employee.class.getName(), "state", new Metadata("type", "targetClass", null));
+
+        String json = jsonMapper.serialize(metadata, DICTIONARY);
+
+        assertEquals(metadata, jsonMapper.deserialize(json, Metadata.class, DICTIONARY));
+    }
+
+    @Test
+    public void shouldWorkWithTheOtherFeatures() {
+        Set<SerdeFeature> features = EnumSet.of(SerdeFeature.NAME_DICTIONARY, SerdeFeature.OMIT_DECLARED_TYPES,
+                SerdeFeature.GENERATE_CLASS_SERDES, SerdeFeature.DISABLE_REFERENCE_TRACKING);
+        Employee employee = new Employee("Mike", "Smith", new Employee("Dennis", "Ritchie", null, Role.LEAD), Role.DEVELOPER);
+
+        assertEquals(employee, jsonMapper.deserialize(jsonMapper.serialize(employee, features), Employee.class, features));
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeNull() {
+        assertNull(jsonMapper.deserialize(jsonMapper.serialize(null, DICTIONARY), Employee.class, DICTIONARY));
+    }
+
+    @Test
+    public void shouldRejectJsonWithoutTableOfNames() {
+        String json = jsonMapper.serialize(new Employee("Mike", "Smith", null, Role.DEVELOPER));
+
+        assertThrows(JsonDeserializationException.class, () -> jsonMapper.deserialize(json, Employee.class, DICTIONARY));
+    }
+
+    private static int occurrencesOf(String text, String json) {
+        return json.split(java.util.regex.Pattern.quote(text), -1).length - 1;
+    }
+
+    enum Role {
+        DEVELOPER, LEAD
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    static class Person {
+        private final String name;
+    }
+
+    @EqualsAndHashCode(callSuper = true)
+    @ToString(callSuper = true)
+    static class Employee extends Person {
+        private final String name;
+        private final Employee manager;
+        private final Role role;
+
+        Employee(String firstName, String lastName, Employee manager, Role role) {
+            super(lastName);
+            this.name = firstName;
+            this.manager = manager;
+            this.role = role;
+        }
+    }
+
+    @AllArgsConstructor
+    @ToString
+    static class Team {
+        private final List<Employee> members;
+        private final Map<String, Employee> leads;
+        private final Object[] extras;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Team)) return false;
+            Team team = (Team) o;
+            return members.equals(team.members) && leads.equals(team.leads) && Arrays.equals(extras, team.extras);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(members, leads);
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    static class Metadata {
+        private final String type;
+        private final String targetClass;
+        private final Metadata state;
+    }
+}
@@ -0,0 +1,82 @@
+package inc.evil.serde;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectFactoryTest {
+    private final ObjectFactory objectFactory = new ObjectFactory();
+
+    @Test
+    public void shouldInstantiateClassesThroughTheirNoArgConstructor() {
+        WithNoArgConstructor instance = (WithNoArgConstructor) objectFactory.makeInstance(WithNoArgConstructor.class);
+
+        assertEquals("initialized", instance.state);
+    }
+
+    @Test
+    public void shouldInstantiateClassesThroughTheirPrivateNoArgConstructor() {
+        WithPrivateConstructor instance = (WithPrivateConstructor) objectFactory.makeInstance(WithPrivateConstructor.class);
+
+        assertEquals(42, instance.value);
+    }
+
+    @Test
+    public void shouldInstantiateClassesWithoutNoArgConstructorWithoutInvokingAnyConstructor() {
+        WithoutNoArgConstructor first = (WithoutNoArgConstructor) objectFactory.makeInstance(WithoutNoArgConstructor.class);
+        WithoutNoArgConstructor second = (WithoutNoArgConstructor) objectFactory.makeInstance(WithoutNoArgConstructor.class);
+
+        assertNull(first.name);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void shouldPropagateExceptionsThrownByConstructors() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> objectFactory.makeInstance(WithFailingConstructor.class));
+
+        assertEquals("failed", exception.getCause().getMessage());
+    }
+
+    @Test
+    public void shouldRethrowErrorsThrownByConstructorsUnchanged() {
+        AssertionError error = assertThrows(AssertionError.class, () -> objectFactory.makeInstance(WithFailingAssertion.class));
+
+        assertEquals("broken", error.getMessage());
+    }
+
+    static class WithNoArgConstructor {
+        private final String state;
+
+        WithNoArgConstructor() {
+            this.state = "initialized";
+        }
+    }
+
+    static class WithPrivateConstructor {
+        private final int value;
+
+        private WithPrivateConstructor() {
+            this.value = 42;
+        }
+    }
+
+    static class WithoutNoArgConstructor {
+        private final String name;
+
+        WithoutNoArgConstructor(String name) {
+            this.name = name;
+        }
+    }
+
+    static class WithFailingConstructor {
+        WithFailingConstructor() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    static class WithFailingAssertion {
+        WithFailingAssertion() {
+            throw new AssertionError("broken");
+        }
+    }
+}
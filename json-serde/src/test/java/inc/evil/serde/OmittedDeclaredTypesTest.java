@@ -0,0 +1,213 @@
+package inc.evil.serde;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OmittedDeclaredTypesTest {
+    private static final Set<SerdeFeature> OMITTED = EnumSet.of(SerdeFeature.OMIT_DECLARED_TYPES);
+
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldOmitTypesMatchingTheDeclaredOnes() {
+        Order order = new Order(new Customer("Mike", Status.ACTIVE),
+                new Line[]{new Line("book", new BigDecimal("12.50")), new Line("pen", new BigDecimal("1.20"))},
+                LocalDate.of(2020, 12, 25), new AtomicLong(42), String.class);
+
+        String json = jsonMapper.serialize(order, OMITTED);
+
+        assertEquals(1, occurrencesOf("targetClass", json));
+        assertFalse(json.contains("\"type\""));
+        assertEquals(order, jsonMapper.deserialize(json, Order.class, OMITTED));
+    }
+
+    @Test
+    public void shouldBeSmallerThanTheTypedJson() {
+        Order order = new Order(new Customer("Mike", Status.ACTIVE),
+                new Line[]{new Line("book", new BigDecimal("12.50")), new Line("pen", new BigDecimal("1.20"))},
+                LocalDate.of(2020, 12, 25), new AtomicLong(42), String.class);
+
+        assertTrue(jsonMapper.serialize(order, OMITTED).length() < jsonMapper.serialize(order).length() / 2);
+    }
+
+    @Test
+    public void shouldKeepTypesOfSubclassesAndInterfaces() {
+        Holder holder = new Holder(new PremiumCustomer("John", Status.INACTIVE, 3), new ArrayList<>(Arrays.asList("a", "b")),
+                new HashMap<>(Collections.singletonMap("key", "value")), new Object[]{1L, "two"}, LocalDate.of(2021, 1, 1));
+
+        String json = jsonMapper.serialize(holder, OMITTED);
+
+        assertTrue(json.contains(PremiumCustomer.class.getName()));
+        assertTrue(json.contains(ArrayList.class.getName()));
+        assertEquals(holder, jsonMapper.deserialize(json, Holder.class, OMITTED));
+    }
+
+    @Test
+    public void shouldOmitTypesOfConcreteCollectionFields() {
+        Tags tags = new Tags(new ArrayList<>(Arrays.asList("a", "b")), new HashMap<>(Collections.singletonMap("k", "v")));
+
+        String json = jsonMapper.serialize(tags, OMITTED);
+
+        assertFalse(json.contains("\"type\""));
+        assertEquals(tags, jsonMapper.deserialize(json, Tags.class, OMITTED));
+    }
+
+    @Test
+    public void shouldOmitTypesOfSortedCollectionsAndKeyedMaps() {
+        TreeSet<String> names = new TreeSet<>(new CollectionsSerdeTest.ByLength());
+        names.addAll(Arrays.asList("Mike", "Al"));
+        TreeMap<Integer, String> ranks = new TreeMap<>(Collections.singletonMap(1, "first"));
+        SortedTags tags = new SortedTags(names, ranks, new HashMap<>(Collections.singletonMap(Status.ACTIVE, "two")));
+
+        String json = jsonMapper.serialize(tags, OMITTED);
+        SortedTags actualInstance = jsonMapper.deserialize(json, SortedTags.class, OMITTED);
+
+        assertFalse(json.contains("\"type\""));
+        assertEquals(Arrays.asList("Al", "Mike"), new ArrayList<>(actualInstance.names));
+        assertEquals(ranks, actualInstance.ranks);
+        assertEquals(tags.counts, actualInstance.counts);
+    }
+
+    @Test
+    public void shouldResolveReferencesToInstancesWrittenWithoutTargetClass() {
+        Customer customer = new Customer("Mike", Status.ACTIVE);
+        Pair pair = new Pair(customer, customer);
+
+        Pair actualInstance = jsonMapper.deserialize(jsonMapper.serialize(pair, OMITTED), Pair.class, OMITTED);
+
+        assertEquals(pair, actualInstance);
+        assertSame(actualInstance.first, actualInstance.second);
+    }
+
+    @Test
+    public void shouldWorkWithoutReferenceTracking() {
+        Set<SerdeFeature> features = EnumSet.of(SerdeFeature.OMIT_DECLARED_TYPES, SerdeFeature.DISABLE_REFERENCE_TRACKING);
+        Pair pair = new Pair(new Customer("Mike", Status.ACTIVE), null);
+
+        String json = jsonMapper.serialize(pair, features);
+
+        assertEquals(1, occurrencesOf("targetClass", json));
+        assertEquals(pair, jsonMapper.deserialize(json, Pair.class, features));
+    }
+
+    @Test
+    public void shouldWorkWithGeneratedClassSerdes() {
+        Set<SerdeFeature> features = EnumSet.of(SerdeFeature.OMIT_DECLARED_TYPES, SerdeFeature.GENERATE_CLASS_SERDES);
+        Pair pair = new Pair(new Customer("Mike", Status.ACTIVE), new PremiumCustomer("John", Status.INACTIVE, 3));
+
+        assertEquals(pair, jsonMapper.deserialize(jsonMapper.serialize(pair, features), Pair.class, features));
+    }
+
+    private static int occurrencesOf(String text, String json) {
+        return json.split(text, -1).length - 1;
+    }
+
+    enum Status {
+        ACTIVE, INACTIVE
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    static class Customer {
+        private final String name;
+        private final Status status;
+    }
+
+    @EqualsAndHashCode(callSuper = true)
+    @ToString(callSuper = true)
+    static class PremiumCustomer extends Customer {
+        private final int level;
+
+        PremiumCustomer(String name, Status status, int level) {
+            super(name, status);
+            this.level = level;
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    static class Line {
+        private final String product;
+        private final BigDecimal price;
+    }
+
+    @AllArgsConstructor
+    @ToString
+    static class Order {
+        private final Customer customer;
+        private final Line[] lines;
+        private final LocalDate date;
+        private final AtomicLong version;
+        private final Class<?> kind;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Order)) return false;
+            Order order = (Order) o;
+            return customer.equals(order.customer) && Arrays.equals(lines, order.lines) && date.equals(order.date) &&
+                   version.get() == order.version.get() && kind == order.kind;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customer, date);
+        }
+    }
+
+    @AllArgsConstructor
+    @ToString
+    static class Holder {
+        private final Customer customer;
+        private final List<String> strings;
+        private final Map<String, String> attributes;
+        private final Object[] objects;
+        private final Object value;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Holder)) return false;
+            Holder holder = (Holder) o;
+            return customer.equals(holder.customer) && strings.equals(holder.strings) && attributes.equals(holder.attributes) &&
+                   Arrays.equals(objects, holder.objects) && value.equals(holder.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customer, strings, attributes, value);
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    static class Tags {
+        private final ArrayList<String> names;
+        private final HashMap<String, String> attributes;
+    }
+
+    @AllArgsConstructor
+    static class SortedTags {
+        private final TreeSet<String> names;
+        private final TreeMap<Integer, String> ranks;
+        private final HashMap<Status, String> counts;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @ToString
+    static class Pair {
+        private final Customer first;
+        private final Customer second;
+    }
+}
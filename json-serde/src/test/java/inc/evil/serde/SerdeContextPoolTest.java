@@ -0,0 +1,41 @@
+package inc.evil.serde;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerdeContextPoolTest {
+    private final SerdeContextPool contextPool = new SerdeContextPool(new SerdeRegistry(Collections.emptyList()));
+
+    @Test
+    public void shouldReuseReleasedContexts() {
+        JsonSerde context = contextPool.acquire();
+        contextPool.release(context);
+
+        assertSame(context, contextPool.acquire());
+    }
+
+    @Test
+    public void shouldNotHandTheSameContextOutTwice() {
+        JsonSerde first = contextPool.acquire();
+        JsonSerde second = contextPool.acquire();
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void shouldResetReleasedContexts() {
+        JsonSerde context = contextPool.acquire();
+        Object instance = new Object();
+        context.addSerializedInstance(instance, context.generateObjectId());
+        context.addDeserializedInstance(1, instance);
+
+        contextPool.release(context);
+
+        assertFalse(context.wasSerialized(instance));
+        assertNull(context.getPreviouslyDeserializedInstance(1));
+        assertEquals(1, context.generateObjectId());
+    }
+}
@@ -0,0 +1,91 @@
+package inc.evil.serde;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import inc.evil.serde.core.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerdeRegistryTest {
+    private final NullSerde nullSerde = new NullSerde();
+    private final ArraySerde arraySerde = new ArraySerde(Collections.emptyList());
+    private final StringSerde stringSerde = new StringSerde();
+    private final NumericSerde numericSerde = new NumericSerde();
+    private final ObjectSerde objectSerde = new ObjectSerde();
+    private final SerdeRegistry serdeRegistry = new SerdeRegistry(Arrays.asList(nullSerde, arraySerde, stringSerde, numericSerde, objectSerde));
+
+    @Test
+    public void shouldDispatchClassesToTheFirstSerdeWhichCanConsumeThem() {
+        assertSame(nullSerde, serdeRegistry.serdeFor((Class<?>) null));
+        assertSame(arraySerde, serdeRegistry.serdeFor(int[].class));
+        assertSame(stringSerde, serdeRegistry.serdeFor(String.class));
+        assertSame(numericSerde, serdeRegistry.serdeFor(Integer.class));
+        assertSame(objectSerde, serdeRegistry.serdeFor(Object.class));
+        assertSame(stringSerde, serdeRegistry.serdeFor(String.class));
+    }
+
+    @Test
+    public void shouldReturnNullWhenNoSerdeCanConsumeTheClass() {
+        SerdeRegistry registry = new SerdeRegistry(Arrays.asList(nullSerde, stringSerde));
+
+        assertNull(registry.serdeFor(Object.class));
+    }
+
+    @Test
+    public void shouldPreferSerdesWhichPrecedeTheSerdeOfTheClassAndCanConsumeTheNode() {
+        assertSame(stringSerde, serdeRegistry.serdeFor(Object.class, new TextNode("Mike")));
+        assertSame(nullSerde, serdeRegistry.serdeFor(Integer.class, NullNode.getInstance()));
+        assertSame(stringSerde, serdeRegistry.serdeFor(String.class, new IntNode(42)));
+    }
+
+    @Test
+    public void shouldDispatchByClassOrByValueShape() {
+        assertSame(arraySerde, serdeRegistry.serdeFor(Object.class, false));
+        assertSame(objectSerde, serdeRegistry.serdeFor(Object.class, true));
+        assertSame(stringSerde, serdeRegistry.serdeFor(String.class, true));
+        assertSame(arraySerde, serdeRegistry.serdeFor(String.class, false));
+    }
+
+    @Test
+    public void shouldDispatchNodesToTheFirstSerdeWhichCanConsumeThem() {
+        assertSame(numericSerde, serdeRegistry.serdeFor(new IntNode(42)));
+        assertNull(new SerdeRegistry(Arrays.asList(nullSerde, stringSerde)).serdeFor(new IntNode(42)));
+    }
+
+    @Test
+    public void shouldProbeTypedNodesOnlyOnceForEveryTypeName() {
+        AtomicInteger probes = new AtomicInteger();
+        StringSerde probedSerde = new StringSerde() {
+            @Override
+            public boolean canConsume(JsonNode node) {
+                probes.incrementAndGet();
+                return super.canConsume(node);
+            }
+        };
+        SerdeRegistry registry = new SerdeRegistry(Arrays.asList(probedSerde, objectSerde));
+
+        probes.set(0);
+
+        for (int i = 0; i < 3; ++i) {
+            assertSame(objectSerde, registry.serdeFor(objectNode("type", "java.time.LocalDate")));
+            assertSame(objectSerde, registry.serdeFor(objectNode("targetClass", "java.lang.Object")));
+        }
+
+        assertEquals(2, probes.get());
+    }
+
+    private static ObjectNode objectNode(String fieldName, String value) {
+        ObjectNode node = new ObjectNode(JsonNodeFactory.instance);
+        node.put(fieldName, value);
+        return node;
+    }
+}
@@ -0,0 +1,44 @@
+package inc.evil.serde;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TypeNamesTest {
+
+    @Test
+    public void shouldResolveClassNames() throws Exception {
+        assertSame(LocalDate.class, TypeNames.forName("java.time.LocalDate"));
+        assertSame(LocalDate.class, TypeNames.forName("java.time.LocalDate"));
+        assertSame(int[].class, TypeNames.forName("[I"));
+        assertSame(Inner.class, TypeNames.forName("inc.evil.serde.TypeNamesTest$Inner"));
+    }
+
+    @Test
+    public void shouldFailForUnknownClassNames() {
+        assertThrows(ClassNotFoundException.class, () -> TypeNames.forName("inc.evil.serde.Missing"));
+        assertThrows(ClassNotFoundException.class, () -> TypeNames.forName("inc.evil.serde.Missing"));
+    }
+
+    @Test
+    public void shouldResolveClassNamesPerClassLoader() throws Exception {
+        URL classPath = Inner.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classPath}, null)) {
+            Class<?> otherInner = TypeNames.forName("inc.evil.serde.TypeNamesTest$Inner", classLoader);
+
+            assertNotSame(Inner.class, otherInner);
+            assertSame(classLoader, otherInner.getClassLoader());
+            assertSame(otherInner, TypeNames.forName("inc.evil.serde.TypeNamesTest$Inner", classLoader));
+            assertSame(Inner.class, TypeNames.forName("inc.evil.serde.TypeNamesTest$Inner"));
+        }
+    }
+
+    public static class Inner {
+    }
+}
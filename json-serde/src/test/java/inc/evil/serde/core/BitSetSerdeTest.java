@@ -0,0 +1,52 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.SerdeFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitSetSerdeTest {
+    private final BitSetSerde bitSetSerde = new BitSetSerde();
+    private final SerdeContext serdeContext = new SerdeFactory().defaultSerde();
+
+    @Test
+    public void shouldConsumeOnlyBitSets() {
+        assertTrue(bitSetSerde.canConsume(BitSet.class));
+        assertFalse(bitSetSerde.canConsume(long[].class));
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeBitSetsAsTheirWords() {
+        ObjectNode expectedNode = new ObjectNode(JsonNodeFactory.instance);
+        expectedNode.set("type", new TextNode(BitSet.class.getName()));
+        expectedNode.set("value", new ArrayNode(JsonNodeFactory.instance).add(37L).add(-1L));
+
+        JsonNode serializedNode = bitSetSerde.serialize(BitSet.valueOf(new long[]{37, -1}), serdeContext);
+
+        assertEquals(expectedNode, serializedNode);
+    }
+
+    @Test
+    public void shouldBeAbleToDeserializeBitSetsFromTheirWords() throws Exception {
+        ArrayNode node = new ArrayNode(JsonNodeFactory.instance).add(37L).add(-1L);
+
+        BitSet deserializedInstance = (BitSet) bitSetSerde.deserialize(BitSet.class, node, serdeContext);
+
+        assertEquals(BitSet.valueOf(new long[]{37, -1}), deserializedInstance);
+    }
+
+    @Test
+    public void shouldBeAbleToSerializeEmptyBitSets() {
+        JsonNode serializedNode = bitSetSerde.serialize(new BitSet(), serdeContext);
+
+        assertEquals(new ArrayNode(JsonNodeFactory.instance), serializedNode.get("value"));
+    }
+}
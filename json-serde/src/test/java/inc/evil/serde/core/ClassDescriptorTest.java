@@ -0,0 +1,58 @@
+package inc.evil.serde.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassDescriptorTest {
+
+    @Test
+    public void shouldBeCachedPerClass() {
+        assertSame(ClassDescriptor.of(Child.class), ClassDescriptor.of(Child.class));
+    }
+
+    @Test
+    public void shouldListNonStaticFieldsFromTheWholeHierarchy() {
+        assertEquals(asList("age", "name"), jsonNamesOf(Parent.class));
+    }
+
+    @Test
+    public void shouldQualifyFieldNames_whenTheyClashInTheHierarchy() {
+        String child = Child.class.getName();
+        String parent = Parent.class.getName();
+
+        assertEquals(asList(child + ".name", parent + ".age", parent + ".name"), jsonNamesOf(Child.class));
+    }
+
+    @Test
+    public void shouldFindFieldsBySimpleAndQualifiedNames() throws Exception {
+        ClassDescriptor descriptor = ClassDescriptor.of(Child.class);
+
+        assertEquals(Child.class.getDeclaredField("name"), descriptor.findField("name").getField());
+        assertEquals(Parent.class.getDeclaredField("name"), descriptor.findField(Parent.class.getName() + ".name").getField());
+        assertEquals(Parent.class.getDeclaredField("age"), descriptor.findField("age").getField());
+        assertNull(descriptor.findField("missing"));
+    }
+
+    private List<String> jsonNamesOf(Class<?> type) {
+        return ClassDescriptor.of(type).getSerializableFields().stream()
+                .map(ClassDescriptor.FieldDescriptor::getJsonName)
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unused")
+    static class Parent {
+        private static final int CONSTANT = 1;
+        private int age;
+        private String name;
+    }
+
+    @SuppressWarnings("unused")
+    static class Child extends Parent {
+        private String name;
+    }
+}
@@ -0,0 +1,62 @@
+package inc.evil.serde.core;
+
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import inc.evil.serde.SerdeContext;
+import inc.evil.serde.SerdeFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FieldAccessorTest {
+    private final SerdeContext serdeContext = new SerdeFactory().defaultSerde();
+
+    @Test
+    public void shouldNarrowIntegralValues_likeAJavaCast() throws Exception {
+        Primitives instance = new Primitives();
+
+        accessorOf("aByte").deserialize(instance, new IntNode(300), serdeContext);
+        accessorOf("aChar").deserialize(instance, new IntNode(65), serdeContext);
+        accessorOf("anInt").deserialize(instance, new LongNode(1L << 33 | 7), serdeContext);
+
+        assertEquals((byte) 300, instance.aByte);
+        assertEquals('A', instance.aChar);
+        assertEquals(7, instance.anInt);
+    }
+
+    @Test
+    public void shouldTruncateFloatingPointValues_whenTheFieldIsIntegral() throws Exception {
+        Primitives instance = new Primitives();
+
+        accessorOf("anInt").deserialize(instance, new DoubleNode(42.9), serdeContext);
+        accessorOf("aLong").deserialize(instance, new DoubleNode(-3.5), serdeContext);
+
+        assertEquals(42, instance.anInt);
+        assertEquals(-3L, instance.aLong);
+    }
+
+    @Test
+    public void shouldReadAndWriteReferenceFieldsWithBoxing() {
+        Primitives instance = new Primitives();
+
+        accessorOf("aDouble").set(instance, 12);
+        accessorOf("name").set(instance, "Mike");
+
+        assertEquals(12.0, accessorOf("aDouble").get(instance));
+        assertEquals("Mike", accessorOf("name").get(instance));
+    }
+
+    private FieldAccessor accessorOf(String fieldName) {
+        return ClassDescriptor.of(Primitives.class).findField(fieldName).getAccessor();
+    }
+
+    static class Primitives {
+        private byte aByte;
+        private char aChar;
+        private int anInt;
+        private long aLong;
+        private double aDouble;
+        private String name;
+    }
+}
@@ -0,0 +1,136 @@
+package inc.evil.serde.metrics;
+
+import inc.evil.serde.JsonMapper;
+import inc.evil.serde.SerdeFeature;
+import inc.evil.serde.SerializerDeserializer;
+import inc.evil.serde.core.ObjectSerde;
+import inc.evil.serde.core.StringSerde;
+import lombok.AllArgsConstructor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerdeMetricsTest {
+    private final InMemorySerdeMetrics metrics = new InMemorySerdeMetrics();
+    private final JsonMapper jsonMapper = new JsonMapper(metrics);
+
+    @Test
+    public void shouldCountTheValuesAndReferencesOfEveryClass() {
+        User mike = new User("Mike", null);
+        Team team = new Team("Core", Arrays.asList(mike, new User("John", mike), mike));
+
+        jsonMapper.serialize(team);
+
+        assertEquals(1, metrics.getClassMetrics(Team.class).getValuesWritten());
+        assertEquals(2, metrics.getClassMetrics(User.class).getValuesWritten());
+        assertEquals(2, metrics.getClassMetrics(User.class).getReferencesWritten());
+        assertEquals(3, metrics.getClassMetrics(String.class).getValuesWritten());
+        assertEquals(2, metrics.getReferencesWritten());
+        assertEquals(1, metrics.getCalls());
+    }
+
+    @Test
+    public void shouldReportTheFallbacksToObjectSerde() {
+        jsonMapper.serialize(new Team("Core", Collections.singletonList(new User("Mike", null))));
+
+        assertEquals(1, metrics.getClassMetrics(Team.class).getObjectSerdeFallbacks());
+        assertEquals(1, metrics.getClassMetrics(User.class).getObjectSerdeFallbacks());
+        assertEquals(0, metrics.getClassMetrics(String.class).getObjectSerdeFallbacks());
+    }
+
+    @Test
+    public void shouldMeasureTheTimeOfEverySerde() {
+        jsonMapper.serialize(new Team("Core", Collections.singletonList(new User("Mike", null))));
+
+        Map<Class<? extends SerializerDeserializer>, Long> serdeNanos = metrics.getSerdeNanos();
+        assertTrue(serdeNanos.get(ObjectSerde.class) > 0);
+        assertTrue(serdeNanos.get(StringSerde.class) > 0);
+        assertTrue(serdeNanos.get(ObjectSerde.class) >= serdeNanos.get(StringSerde.class));
+        assertTrue(metrics.getClassMetrics(Team.class).getNanos() >= metrics.getClassMetrics(User.class).getNanos());
+    }
+
+    @Test
+    public void shouldCountTheBytesWritten() {
+        Team team = new Team("Jürgen's 🙂 team", Collections.singletonList(new User("Mike", null)));
+
+        String json = jsonMapper.serialize(team);
+        byte[] compactJson = jsonMapper.serializeToBytes(team);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        jsonMapper.serialize(team, outputStream);
+
+        long expectedBytes = json.getBytes(StandardCharsets.UTF_8).length + compactJson.length + outputStream.size();
+        assertEquals(expectedBytes, metrics.getBytesWritten());
+        assertEquals(3, metrics.getCalls());
+    }
+
+    @Test
+    public void shouldReportEveryCall() {
+        List<SerializationSummary> summaries = new ArrayList<>();
+        JsonMapper reportingMapper = new JsonMapper(new SerdeMetrics() {
+            @Override
+            public void serializationCompleted(SerializationSummary summary) {
+                summaries.add(summary);
+            }
+        });
+        User mike = new User("Mike", null);
+
+        byte[] json = reportingMapper.serializeToBytes(new User("John", mike), EnumSet.of(SerdeFeature.NAME_DICTIONARY));
+
+        assertEquals(1, summaries.size());
+        assertEquals(json.length, summaries.get(0).getBytesWritten());
+        assertEquals(4, summaries.get(0).getValuesWritten());
+        assertEquals(0, summaries.get(0).getReferencesWritten());
+        assertTrue(summaries.get(0).getNanos() > 0);
+    }
+
+    @Test
+    public void shouldNotMeasureMappersWithoutMetrics() {
+        JsonMapper unmeasuredMapper = new JsonMapper();
+
+        jsonMapper.serialize(new User("Mike", null));
+        unmeasuredMapper.serialize(new User("John", null));
+
+        assertEquals(1, metrics.getCalls());
+        assertEquals(1, metrics.getClassMetrics(User.class).getValuesWritten());
+    }
+
+    @Test
+    public void shouldCountTheSameValuesWithGeneratedClassSerdes() {
+        InMemorySerdeMetrics generatedMetrics = new InMemorySerdeMetrics();
+        JsonMapper generatingMapper = new JsonMapper(generatedMetrics);
+        Account account = new Account("Mike", 42L, true, new User("John", null));
+
+        jsonMapper.serialize(account);
+        generatingMapper.serialize(account, EnumSet.of(SerdeFeature.GENERATE_CLASS_SERDES));
+
+        assertEquals(6, metrics.getValuesWritten());
+        assertEquals(metrics.getValuesWritten(), generatedMetrics.getValuesWritten());
+        for (Class<?> type : Arrays.asList(Account.class, User.class, String.class, Long.class, Boolean.class)) {
+            assertEquals(metrics.getClassMetrics(type).getValuesWritten(), generatedMetrics.getClassMetrics(type).getValuesWritten());
+        }
+    }
+
+    @AllArgsConstructor
+    static class Account {
+        private final String name;
+        private final Long balance;
+        private final Boolean active;
+        private final User owner;
+    }
+
+    @AllArgsConstructor
+    static class User {
+        private final String name;
+        private final User mentor;
+    }
+
+    @AllArgsConstructor
+    static class Team {
+        private final String name;
+        private final List<User> members;
+    }
+}
@@ -0,0 +1,108 @@
+package inc.evil.serde;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecorderEventsTest {
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldRecordTheSerializationCalls() throws IOException {
+        User mike = new User("Mike", null);
+
+        List<RecordedEvent> events = record(() -> jsonMapper.serializeToBytes(new User("John", mike)), "inc.evil.serde.Serialization");
+
+        assertEquals(1, events.size());
+        assertEquals(User.class.getName(), events.get(0).getClass("rootClass").getName());
+        assertEquals(4, events.get(0).getLong("valueCount"));
+        assertEquals(jsonMapper.serializeToBytes(new User("John", mike)).length, events.get(0).getLong("payloadSize"));
+        assertFalse(events.get(0).getDuration().isNegative());
+    }
+
+    @Test
+    public void shouldRecordTheDeserializationCalls() throws IOException {
+        byte[] json = jsonMapper.serializeToBytes(new User("John", new User("Mike", null)));
+
+        List<RecordedEvent> events = record(() -> jsonMapper.deserialize(json, User.class), "inc.evil.serde.Deserialization");
+
+        assertEquals(1, events.size());
+        assertEquals(User.class.getName(), events.get(0).getClass("rootClass").getName());
+        assertEquals(2, events.get(0).getLong("objectCount"));
+        assertEquals(json.length, events.get(0).getLong("payloadSize"));
+    }
+
+    @Test
+    public void shouldRecordTheValuesSlowerThanTheThreshold() throws IOException {
+        List<RecordedEvent> events = record(() -> jsonMapper.serialize(new User("John", new User("Mike", null))), "inc.evil.serde.SlowValueSerialization");
+
+        List<String> valueClasses = events.stream()
+                .map(event -> event.getClass("valueClass").getName())
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(User.class.getName(), User.class.getName(), String.class.getName(), String.class.getName()), valueClasses);
+    }
+
+    @Test
+    public void shouldNotRecordValuesByDefault() throws IOException {
+        Path file = Files.createTempFile("json-serde", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("inc.evil.serde.Serialization");
+            recording.start();
+            jsonMapper.serialize(new User("John", new User("Mike", null)));
+            recording.stop();
+            recording.dump(file);
+            assertTrue(RecordingFile.readAllEvents(file).stream()
+                    .noneMatch(event -> event.getEventType().getName().equals("inc.evil.serde.SlowValueSerialization")));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static List<RecordedEvent> record(Runnable call, String eventName) throws IOException {
+        Path file = Files.createTempFile("json-serde", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName).withThreshold(Duration.ZERO);
+            recording.start();
+            call.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(eventName))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    static class User {
+        private final String name;
+        private final User friend;
+
+        User(String name, User friend) {
+            this.name = name;
+            this.friend = friend;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof User && name.equals(((User) o).name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+}
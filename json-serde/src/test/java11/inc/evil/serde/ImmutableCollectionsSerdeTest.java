@@ -0,0 +1,50 @@
+package inc.evil.serde;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ImmutableCollectionsSerdeTest {
+    private final JsonMapper jsonMapper = new JsonMapper();
+
+    @Test
+    public void shouldKeepTheClassAndElementsOfImmutableCollections() {
+        List<Collection<String>> collections = Arrays.asList(List.of(), List.of("Mike"), List.of("Mike", "John"),
+                List.of("Mike", "John", "Robert"), Set.of(), Set.of("Mike"), Set.of("Mike", "John", "Robert"));
+
+        for (Collection<String> collection : collections) {
+            Collection<?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(collection), Collection.class);
+
+            assertEquals(collection.getClass(), actualInstance.getClass());
+            assertEquals(collection, actualInstance);
+        }
+    }
+
+    @Test
+    public void shouldKeepTheClassAndEntriesOfImmutableMaps() {
+        List<Map<String, Integer>> maps = Arrays.asList(Map.of(), Map.of("Mike", 42), Map.of("Mike", 42, "John", 37));
+
+        for (Map<String, Integer> map : maps) {
+            Map<?, ?> actualInstance = jsonMapper.deserialize(jsonMapper.serialize(map), Map.class);
+
+            assertEquals(map.getClass(), actualInstance.getClass());
+            assertEquals(map, actualInstance);
+        }
+    }
+
+    @Test
+    public void shouldWriteImmutableListsAsTheirElements() {
+        String json = jsonMapper.serialize(List.of("Mike", "John"), EnumSet.of(SerdeFeature.COMPACT_OUTPUT));
+
+        assertEquals("{\"type\":\"List.of\",\"value\":[\"Mike\",\"John\"]}", json);
+        assertThrows(UnsupportedOperationException.class, () -> jsonMapper.deserialize(json, List.class).add("Robert"));
+    }
+}
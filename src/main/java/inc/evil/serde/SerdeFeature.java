@@ -1,6 +0,0 @@
-package inc.evil.serde;
-
-public enum SerdeFeature {
-    SERIALIZE_COMMON_MAPS_AS_ARRAYS,
-    SERIALIZE_COMMON_COLLECTIONS_AS_ARRAYS,
-}